@@ -0,0 +1,73 @@
+package org.activiti.designer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.Process;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the computation of the diagram interchange information of a model that has none, which
+ * the editor runs in the background when such a model is opened. The diagram interchange
+ * information written on save is taken from the Graphiti diagram, which needs a running
+ * workbench, so it is not covered here.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutoLayoutBenchmark {
+
+  /**
+   * The number of tasks in the sequence of each process and sub process.
+   */
+  @Param({ "20", "100" })
+  public int tasks;
+
+  private BpmnModel generatedModel;
+  private BpmnModel bpmnModel;
+
+  @Setup
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generatedModel = generator.generate("layout");
+  }
+
+  /**
+   * The layout adds the diagram interchange information to the model, every
+   * invocation starts without it.
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    bpmnModel = new BpmnModel();
+    for (final Process process : generatedModel.getProcesses()) {
+      bpmnModel.addProcess(process);
+    }
+    bpmnModel.getPools().addAll(generatedModel.getPools());
+  }
+
+  @Benchmark
+  public BpmnModel layout() {
+    new BpmnAutoLayout(bpmnModel).execute();
+    return bpmnModel;
+  }
+
+}
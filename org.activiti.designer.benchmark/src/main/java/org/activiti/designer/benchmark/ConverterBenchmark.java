@@ -0,0 +1,86 @@
+package org.activiti.designer.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.BpmnModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion between BPMN models and XML the editor performs when a diagram is
+ * opened and saved. The models are laid out first, so the XML carries diagram interchange
+ * information like the files the editor writes.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+  /**
+   * The number of tasks in the sequence of each process and sub process.
+   */
+  @Param({ "50", "500" })
+  public int tasks;
+
+  private BpmnModel bpmnModel;
+  private byte[] xml;
+
+  @Setup
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generator.setPools(2);
+    bpmnModel = generator.generate("converter");
+    new BpmnAutoLayout(bpmnModel).execute();
+
+    xml = new BpmnXMLConverter().convertToXML(bpmnModel);
+  }
+
+  @Benchmark
+  public byte[] convertToXML() {
+    return new BpmnXMLConverter().convertToXML(bpmnModel);
+  }
+
+  @Benchmark
+  public BpmnModel convertToBpmnModel() throws Exception {
+    return parse(xml);
+  }
+
+  @Benchmark
+  public BpmnModel roundTrip() throws Exception {
+    return parse(new BpmnXMLConverter().convertToXML(bpmnModel));
+  }
+
+  private static BpmnModel parse(final byte[] xml) throws Exception {
+    final XMLInputFactory xif = XMLInputFactory.newInstance();
+    final XMLStreamReader xtr = xif.createXMLStreamReader(new InputStreamReader(new ByteArrayInputStream(xml), "UTF-8"));
+    try {
+      return new BpmnXMLConverter().convertToBpmnModel(xtr);
+    } finally {
+      xtr.close();
+    }
+  }
+
+}
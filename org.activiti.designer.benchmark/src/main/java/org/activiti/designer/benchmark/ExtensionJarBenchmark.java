@@ -0,0 +1,129 @@
+package org.activiti.designer.benchmark;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.activiti.designer.util.extension.JarClassLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the classes of an extension jar through the {@link JarClassLoader}, the way
+ * the discovery of custom service tasks does. The jar is generated: most classes extend the
+ * class before them, so loading a class also loads some of its dependencies through the same
+ * loader.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtensionJarBenchmark {
+
+  private static final String PACKAGE = "org/acme/synthetic/";
+
+  /**
+   * Every n-th class extends Object, the others extend the class before them.
+   */
+  private static final int HIERARCHY_DEPTH = 10;
+
+  @Param({ "500" })
+  public int classes;
+
+  private File jarFile;
+  private List<String> classNames;
+
+  @Setup
+  public void setUp() throws IOException {
+    jarFile = File.createTempFile("synthetic-extension", ".jar");
+    classNames = new ArrayList<String>(classes);
+
+    final JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile));
+    try {
+      for (int i = 0; i < classes; i++) {
+        final String name = PACKAGE + String.format("Task%04d", i);
+        final String superName = i % HIERARCHY_DEPTH == 0 ? "java/lang/Object" : PACKAGE + String.format("Task%04d", i - 1);
+        out.putNextEntry(new JarEntry(name + ".class"));
+        writeClass(out, name, superName);
+        out.closeEntry();
+        classNames.add(name.replace('/', '.'));
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    jarFile.delete();
+  }
+
+  @Benchmark
+  public int loadClasses() throws ClassNotFoundException {
+    final JarClassLoader classLoader = new JarClassLoader(jarFile.getAbsolutePath());
+    try {
+      int result = 0;
+      for (final String className : classNames) {
+        result += classLoader.loadClass(className).getName().length();
+      }
+      return result;
+    } finally {
+      classLoader.close();
+    }
+  }
+
+  /**
+   * Writes an empty public class with the provided super class.
+   */
+  private static void writeClass(final JarOutputStream jar, final String name, final String superName) throws IOException {
+    final DataOutputStream out = new DataOutputStream(jar);
+    out.writeInt(0xCAFEBABE);
+    out.writeShort(0);
+    out.writeShort(50);
+
+    // the constant pool: the names of the class and its super class
+    out.writeShort(5);
+    out.writeByte(1);
+    out.writeUTF(name);
+    out.writeByte(7);
+    out.writeShort(1);
+    out.writeByte(1);
+    out.writeUTF(superName);
+    out.writeByte(7);
+    out.writeShort(3);
+
+    // public, this class, super class
+    out.writeShort(0x0021);
+    out.writeShort(2);
+    out.writeShort(4);
+
+    // no interfaces, fields, methods or attributes
+    out.writeShort(0);
+    out.writeShort(0);
+    out.writeShort(0);
+    out.writeShort(0);
+    out.flush();
+  }
+
+}
@@ -0,0 +1,74 @@
+package org.activiti.designer.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.Process;
+import org.activiti.designer.util.workspace.BpmnProcessParser;
+import org.eclipse.core.resources.IFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the scan of a BPMN file for its processes, which the workspace runs for every BPMN
+ * file when process ids are looked up. The parser reads the file through the workspace, here it
+ * is handed a file that only provides its contents.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessParserBenchmark {
+
+  /**
+   * The number of tasks in the sequence of each process and sub process.
+   */
+  @Param({ "50", "500" })
+  public int tasks;
+
+  private IFile bpmnFile;
+
+  @Setup
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generator.setPools(3);
+    final byte[] xml = new BpmnXMLConverter().convertToXML(generator.generate("parser"));
+
+    bpmnFile = (IFile) Proxy.newProxyInstance(IFile.class.getClassLoader(), new Class< ? >[] { IFile.class }, new InvocationHandler() {
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if ("getContents".equals(method.getName())) {
+          return new ByteArrayInputStream(xml);
+        }
+        throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  @Benchmark
+  public Set<Process> getProcesses() {
+    return new BpmnProcessParser(bpmnFile).getProcesses();
+  }
+
+}
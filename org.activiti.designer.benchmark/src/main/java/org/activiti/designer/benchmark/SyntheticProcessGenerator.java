@@ -0,0 +1,365 @@
+package org.activiti.designer.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.Activity;
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.EndEvent;
+import org.activiti.bpmn.model.ErrorEventDefinition;
+import org.activiti.bpmn.model.ExclusiveGateway;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.FlowNode;
+import org.activiti.bpmn.model.ImplementationType;
+import org.activiti.bpmn.model.Lane;
+import org.activiti.bpmn.model.Pool;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.StartEvent;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.bpmn.model.TimerEventDefinition;
+import org.activiti.bpmn.model.UserTask;
+
+/**
+ * Generates synthetic processes of a configurable size and shape: pools with lanes, sequences of
+ * tasks with exclusive gateways, nested sub processes and boundary events. The same seed and
+ * settings always generate the same processes, so the benchmarks and a corpus generated with this
+ * class for the batch validation give comparable results for different builds without depending on
+ * real process files. The processes carry no diagram interchange information.
+ *
+ * <pre>
+ * java -cp benchmarks.jar org.activiti.designer.benchmark.SyntheticProcessGenerator [-files n] [-tasks n] [-depth n] [-pools n] [-lanes n] [-boundaryEvents n] [-seed n] directory
+ * </pre>
+ *
+ * @since 5.12.1
+ *
+ */
+public final class SyntheticProcessGenerator {
+
+  private static final String USAGE = "Usage: SyntheticProcessGenerator [-files n] [-tasks n] [-depth n] [-pools n] [-lanes n] [-boundaryEvents n] [-seed n] directory";
+
+  /**
+   * Every n-th task of a sequence is preceded by an exclusive gateway with an
+   * alternative path.
+   */
+  private static final int GATEWAY_INTERVAL = 5;
+
+  private final Random random;
+
+  private int tasks = 20;
+  private int depth = 1;
+  private int pools = 1;
+  private int lanes = 2;
+  private int boundaryEvents = 2;
+
+  private int nextId;
+
+  /**
+   * @param seed
+   *          the seed that determines the generated processes
+   */
+  public SyntheticProcessGenerator(final long seed) {
+    this.random = new Random(seed);
+  }
+
+  public static void main(final String[] args) {
+    final String[] options = new String[] { "-files", "-tasks", "-depth", "-pools", "-lanes", "-boundaryEvents", "-seed" };
+    final int[] settings = new int[] { 10, 20, 1, 1, 2, 2, 1 };
+    File directory = null;
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        int option = -1;
+        for (int j = 0; j < options.length; j++) {
+          if (options[j].equals(args[i])) {
+            option = j;
+          }
+        }
+        if (option != -1 && i + 1 < args.length) {
+          settings[option] = Math.max(0, Integer.parseInt(args[++i]));
+        } else if (directory == null && !args[i].startsWith("-")) {
+          directory = new File(args[i]);
+        } else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      directory = null;
+    }
+
+    if (directory == null) {
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(settings[6]);
+    generator.setTasks(settings[1]);
+    generator.setDepth(settings[2]);
+    generator.setPools(settings[3]);
+    generator.setLanes(settings[4]);
+    generator.setBoundaryEvents(settings[5]);
+
+    try {
+      directory.mkdirs();
+      for (int i = 1; i <= settings[0]; i++) {
+        final File file = new File(directory, String.format("synthetic%05d.bpmn", i));
+        generator.write(generator.generate("synthetic" + i), file);
+      }
+    } catch (IOException e) {
+      System.err.println(e.toString());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Sets the number of tasks in the sequence of each process and sub process.
+   */
+  public void setTasks(final int tasks) {
+    this.tasks = tasks;
+  }
+
+  /**
+   * Sets how deep sub processes are nested. Each sequence contains one sub
+   * process until the depth is reached.
+   */
+  public void setDepth(final int depth) {
+    this.depth = depth;
+  }
+
+  /**
+   * Sets the number of pools. Each pool holds a process of its own. With 0
+   * pools a single process without a pool is generated.
+   */
+  public void setPools(final int pools) {
+    this.pools = pools;
+  }
+
+  /**
+   * Sets the number of lanes of each pool the flow nodes are spread over.
+   */
+  public void setLanes(final int lanes) {
+    this.lanes = lanes;
+  }
+
+  /**
+   * Sets the number of boundary events attached to the activities of each
+   * sequence.
+   */
+  public void setBoundaryEvents(final int boundaryEvents) {
+    this.boundaryEvents = boundaryEvents;
+  }
+
+  /**
+   * Generates a model with the current settings.
+   *
+   * @param name
+   *          the name of the model, used as prefix of the process ids
+   * @return the generated model
+   */
+  public BpmnModel generate(final String name) {
+    final BpmnModel result = new BpmnModel();
+    nextId = 1;
+
+    if (pools == 0) {
+      result.addProcess(generateProcess(name));
+      return result;
+    }
+
+    for (int i = 1; i <= pools; i++) {
+      final Process process = generateProcess(name + "Pool" + i);
+      result.addProcess(process);
+
+      final Pool pool = new Pool();
+      pool.setId(createId("pool"));
+      pool.setName("Pool " + i);
+      pool.setProcessRef(process.getId());
+      result.getPools().add(pool);
+
+      generateLanes(process);
+    }
+    return result;
+  }
+
+  /**
+   * Writes a model to a file.
+   */
+  public void write(final BpmnModel bpmnModel, final File file) throws IOException {
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(new BpmnXMLConverter().convertToXML(bpmnModel));
+    } finally {
+      out.close();
+    }
+  }
+
+  private Process generateProcess(final String id) {
+    final Process result = new Process();
+    result.setId(id);
+    result.setName(id);
+    generateSequence(result, depth);
+    return result;
+  }
+
+  /**
+   * Generates a sequence from a start event to an end event in the container,
+   * with gateways, a nested sub process while the depth allows for one and
+   * boundary events attached to random activities.
+   */
+  private void generateSequence(final FlowElementsContainer container, final int remainingDepth) {
+    final List<Activity> activities = new ArrayList<Activity>();
+
+    final StartEvent startEvent = new StartEvent();
+    startEvent.setId(createId("startevent"));
+    container.addFlowElement(startEvent);
+
+    final EndEvent endEvent = new EndEvent();
+    endEvent.setId(createId("endevent"));
+
+    final int subProcessPosition = remainingDepth > 0 ? random.nextInt(tasks + 1) : -1;
+
+    FlowNode previous = startEvent;
+    for (int i = 0; i <= tasks; i++) {
+      if (i == subProcessPosition) {
+        final SubProcess subProcess = new SubProcess();
+        subProcess.setId(createId("subprocess"));
+        subProcess.setName("Sub Process " + subProcess.getId());
+        container.addFlowElement(subProcess);
+        generateSequence(subProcess, remainingDepth - 1);
+        previous = connect(container, previous, subProcess);
+        activities.add(subProcess);
+      }
+      if (i == tasks) {
+        break;
+      }
+
+      if (i > 0 && i % GATEWAY_INTERVAL == 0) {
+        final ExclusiveGateway gateway = new ExclusiveGateway();
+        gateway.setId(createId("exclusivegateway"));
+        container.addFlowElement(gateway);
+        connect(container, previous, gateway);
+
+        // the alternative path skips the next task
+        final Activity task = createTask();
+        container.addFlowElement(task);
+        connect(container, gateway, task);
+        final ExclusiveGateway join = new ExclusiveGateway();
+        join.setId(createId("exclusivegateway"));
+        container.addFlowElement(join);
+        connect(container, gateway, join);
+        connect(container, task, join);
+        activities.add(task);
+        previous = join;
+      } else {
+        final Activity task = createTask();
+        container.addFlowElement(task);
+        previous = connect(container, previous, task);
+        activities.add(task);
+      }
+    }
+
+    container.addFlowElement(endEvent);
+    connect(container, previous, endEvent);
+
+    for (int i = 0; i < boundaryEvents && !activities.isEmpty(); i++) {
+      generateBoundaryEvent(container, activities.get(random.nextInt(activities.size())));
+    }
+  }
+
+  private Activity createTask() {
+    if (random.nextBoolean()) {
+      final UserTask result = new UserTask();
+      result.setId(createId("usertask"));
+      result.setName("User Task " + result.getId());
+      result.setAssignee("kermit");
+      return result;
+    }
+
+    final ServiceTask result = new ServiceTask();
+    result.setId(createId("servicetask"));
+    result.setName("Service Task " + result.getId());
+    result.setImplementationType(ImplementationType.IMPLEMENTATION_TYPE_CLASS);
+    result.setImplementation("org.activiti.synthetic.Delegate" + random.nextInt(10));
+    return result;
+  }
+
+  /**
+   * Attaches a timer or error boundary event to the activity, leading to an
+   * end event of its own.
+   */
+  private void generateBoundaryEvent(final FlowElementsContainer container, final Activity activity) {
+    final BoundaryEvent boundaryEvent = new BoundaryEvent();
+    boundaryEvent.setId(createId("boundary" + (random.nextBoolean() ? "timer" : "error")));
+    if (boundaryEvent.getId().startsWith("boundarytimer")) {
+      final TimerEventDefinition timerEventDefinition = new TimerEventDefinition();
+      timerEventDefinition.setTimeDuration("PT" + (1 + random.nextInt(60)) + "M");
+      boundaryEvent.getEventDefinitions().add(timerEventDefinition);
+      boundaryEvent.setCancelActivity(random.nextBoolean());
+    } else {
+      final ErrorEventDefinition errorEventDefinition = new ErrorEventDefinition();
+      errorEventDefinition.setErrorCode("error" + random.nextInt(10));
+      boundaryEvent.getEventDefinitions().add(errorEventDefinition);
+      boundaryEvent.setCancelActivity(true);
+    }
+    boundaryEvent.setAttachedToRef(activity);
+    boundaryEvent.setAttachedToRefId(activity.getId());
+    activity.getBoundaryEvents().add(boundaryEvent);
+    container.addFlowElement(boundaryEvent);
+
+    final EndEvent endEvent = new EndEvent();
+    endEvent.setId(createId("endevent"));
+    container.addFlowElement(endEvent);
+    connect(container, boundaryEvent, endEvent);
+  }
+
+  /**
+   * Spreads the flow nodes at the top level of the process over the lanes of
+   * its pool in blocks, so every lane holds a part of the sequence.
+   */
+  private void generateLanes(final Process process) {
+    if (lanes == 0) {
+      return;
+    }
+
+    final List<String> flowNodeIds = new ArrayList<String>();
+    for (final FlowElement flowElement : process.getFlowElements()) {
+      if (flowElement instanceof FlowNode && !(flowElement instanceof BoundaryEvent)) {
+        flowNodeIds.add(flowElement.getId());
+      }
+    }
+
+    final int laneSize = (flowNodeIds.size() + lanes - 1) / lanes;
+    for (int i = 0; i < lanes; i++) {
+      final Lane lane = new Lane();
+      lane.setId(createId("lane"));
+      lane.setName("Lane " + (i + 1));
+      final int from = Math.min(flowNodeIds.size(), i * laneSize);
+      lane.getFlowReferences().addAll(flowNodeIds.subList(from, Math.min(flowNodeIds.size(), from + laneSize)));
+      process.getLanes().add(lane);
+    }
+  }
+
+  private FlowNode connect(final FlowElementsContainer container, final FlowNode source, final FlowNode target) {
+    final SequenceFlow sequenceFlow = new SequenceFlow();
+    sequenceFlow.setId(createId("flow"));
+    sequenceFlow.setSourceRef(source.getId());
+    sequenceFlow.setTargetRef(target.getId());
+    source.getOutgoingFlows().add(sequenceFlow);
+    target.getIncomingFlows().add(sequenceFlow);
+    container.addFlowElement(sequenceFlow);
+    return target;
+  }
+
+  private String createId(final String prefix) {
+    return prefix + nextId++;
+  }
+
+}
@@ -0,0 +1,211 @@
+package org.activiti.designer.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
+
+/**
+ * A project on disk, for benchmarks of code that reads projects through the workspace. The files
+ * are created in a directory of the file system and the project hands them out as workspace
+ * resources that only provide what the deployment packaging uses: visiting the resources of the
+ * project, reading and locating files, replacing folders and session properties. Everything else
+ * throws an {@link UnsupportedOperationException}.
+ *
+ * @since 5.12.1
+ *
+ */
+public final class SyntheticProject {
+
+  private final File directory;
+  private final IPath fullPath;
+  private final Map<QualifiedName, Object> sessionProperties = new HashMap<QualifiedName, Object>();
+
+  public SyntheticProject(final String name) throws IOException {
+    directory = File.createTempFile("synthetic-project", "");
+    directory.delete();
+    directory.mkdirs();
+    fullPath = new Path("/" + name);
+  }
+
+  /**
+   * Creates a file in the project.
+   *
+   * @param path
+   *          the path of the file relative to the project
+   * @param contents
+   *          the contents of the file
+   */
+  public void addFile(final String path, final byte[] contents) throws IOException {
+    final File file = new File(directory, path);
+    file.getParentFile().mkdirs();
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(contents);
+    } finally {
+      out.close();
+    }
+  }
+
+  public IProject getProject() {
+    return (IProject) createResource(IProject.class, directory, fullPath);
+  }
+
+  /**
+   * Drops the session properties of the project, the way restarting the
+   * workbench does.
+   */
+  public void clearSessionProperties() {
+    sessionProperties.clear();
+  }
+
+  /**
+   * Deletes the files of the project.
+   */
+  public void delete() {
+    delete(directory);
+  }
+
+  private Object createResource(final Class< ? > type, final File file, final IPath path) {
+    return Proxy.newProxyInstance(type.getClassLoader(), new Class< ? >[] { type }, new ResourceHandler(file, path));
+  }
+
+  private void visit(final IResourceProxyVisitor visitor, final File file, final IPath path) throws Exception {
+    final IResourceProxy proxy = (IResourceProxy) Proxy.newProxyInstance(IResourceProxy.class.getClassLoader(),
+            new Class< ? >[] { IResourceProxy.class }, new ResourceProxyHandler(file, path));
+    if (visitor.visit(proxy) && file.isDirectory()) {
+      // in the same order on every visit, like the workspace
+      final File[] children = file.listFiles();
+      Arrays.sort(children);
+      for (final File child : children) {
+        visit(visitor, child, path.append(child.getName()));
+      }
+    }
+  }
+
+  private static void delete(final File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (final File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private int getType(final File file) {
+    if (file.equals(directory)) {
+      return IResource.PROJECT;
+    }
+    return file.isDirectory() ? IResource.FOLDER : IResource.FILE;
+  }
+
+  private class ResourceHandler implements InvocationHandler {
+
+    private final File file;
+    private final IPath path;
+
+    public ResourceHandler(final File file, final IPath path) {
+      this.file = file;
+      this.path = path;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      final String name = method.getName();
+      if ("accept".equals(name) && args[0] instanceof IResourceProxyVisitor) {
+        visit((IResourceProxyVisitor) args[0], file, path);
+        return null;
+      } else if ("getFolder".equals(name) && args[0] instanceof String) {
+        return createResource(IFolder.class, new File(file, (String) args[0]), path.append((String) args[0]));
+      } else if ("getFile".equals(name) && args[0] instanceof String) {
+        return createResource(IFile.class, new File(file, (String) args[0]), path.append((String) args[0]));
+      } else if ("getName".equals(name)) {
+        return file.getName();
+      } else if ("getFullPath".equals(name)) {
+        return path;
+      } else if ("getLocation".equals(name)) {
+        return new Path(file.getAbsolutePath());
+      } else if ("exists".equals(name)) {
+        return file.exists();
+      } else if ("getContents".equals(name)) {
+        return new FileInputStream(file);
+      } else if ("delete".equals(name)) {
+        SyntheticProject.delete(file);
+        return null;
+      } else if ("create".equals(name)) {
+        file.mkdirs();
+        return null;
+      } else if ("refreshLocal".equals(name)) {
+        return null;
+      } else if ("getSessionProperty".equals(name)) {
+        return sessionProperties.get(args[0]);
+      } else if ("setSessionProperty".equals(name)) {
+        sessionProperties.put((QualifiedName) args[0], args[1]);
+        return null;
+      } else if ("hashCode".equals(name)) {
+        return path.hashCode();
+      } else if ("equals".equals(name)) {
+        return proxy == args[0];
+      } else if ("toString".equals(name)) {
+        return path.toString();
+      }
+      throw new UnsupportedOperationException(name);
+    }
+
+  }
+
+  private class ResourceProxyHandler implements InvocationHandler {
+
+    private final File file;
+    private final IPath path;
+
+    public ResourceProxyHandler(final File file, final IPath path) {
+      this.file = file;
+      this.path = path;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+      final String name = method.getName();
+      if ("getType".equals(name)) {
+        return getType(file);
+      } else if ("getName".equals(name)) {
+        return file.getName();
+      } else if ("requestFullPath".equals(name)) {
+        return path;
+      } else if ("getModificationStamp".equals(name)) {
+        return file.lastModified();
+      } else if ("requestResource".equals(name)) {
+        switch (getType(file)) {
+        case IResource.PROJECT:
+          return getProject();
+        case IResource.FOLDER:
+          return createResource(IFolder.class, file, path);
+        default:
+          return createResource(IFile.class, file, path);
+        }
+      }
+      throw new UnsupportedOperationException(name);
+    }
+
+  }
+
+}
@@ -0,0 +1,101 @@
+package org.activiti.designer.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.designer.validation.bpmn20.validation.ValidationExecutor;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerInfo;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the BPMN 2.0 validation of the main process of a model: indexing the process
+ * constructs and running the validation workers on the index, one after another on the calling
+ * thread and through the {@link ValidationExecutor} the way the editor does. The sizes lie on both
+ * sides of {@link ValidationExecutor#PARALLEL_THRESHOLD}, so the executor runs the workers on the
+ * calling thread for the smaller and on its pool for the larger processes.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+  /**
+   * The number of tasks in the sequence of the process and its sub process.
+   * 700 tasks make up about 4,600 process constructs, 850 tasks about 5,600
+   * and 1700 tasks about 11,000.
+   */
+  @Param({ "17", "170", "700", "850", "1700" })
+  public int tasks;
+
+  private Collection<FlowElement> flowElements;
+  private Map<String, List<Object>> processNodes;
+
+  @Setup
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generator.setPools(0);
+    generator.setBoundaryEvents(tasks / 10);
+    flowElements = generator.generate("validation").getMainProcess().getFlowElements();
+    processNodes = ProcessValidationWorkers.indexProcessConstructs(flowElements);
+  }
+
+  @TearDown
+  public void tearDown() {
+    ValidationExecutor.shutdown();
+  }
+
+  @Benchmark
+  public Map<String, List<Object>> indexProcessConstructs() {
+    return ProcessValidationWorkers.indexProcessConstructs(flowElements);
+  }
+
+  @Benchmark
+  public List<ProcessValidationWorkerMarker> validate() {
+    final List<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
+    for (final ProcessValidationWorkerInfo worker : ProcessValidationWorkers.createWorkers()) {
+      result.addAll(worker.getProcessValidationWorker().validate(processNodes));
+    }
+    return result;
+  }
+
+  /**
+   * Runs the workers the way the validator of the editor does, on the pool or
+   * on the calling thread depending on the size of the process.
+   */
+  @Benchmark
+  public List<ProcessValidationWorkerMarker> validateExecutor() throws InterruptedException, ExecutionException {
+    final List<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
+    for (final Future<Collection<ProcessValidationWorkerMarker>> workerResult : ValidationExecutor.validate(ProcessValidationWorkers.createWorkers(),
+            processNodes)) {
+      result.addAll(workerResult.get());
+    }
+    return result;
+  }
+
+}
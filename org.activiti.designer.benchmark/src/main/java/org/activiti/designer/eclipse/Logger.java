@@ -0,0 +1,20 @@
+package org.activiti.designer.eclipse;
+
+/**
+ * Stands in for the Logger of the eclipse bundle, which logs to the log of the running plugin. The
+ * classes of the eclipse bundle compiled into the benchmarks report errors to the standard error
+ * stream through it instead.
+ *
+ * @since 5.12.1
+ *
+ */
+public class Logger {
+
+  public static void logError(String message, Throwable exception) {
+    System.err.println(message);
+    if (exception != null) {
+      exception.printStackTrace();
+    }
+  }
+
+}
@@ -0,0 +1,204 @@
+package org.activiti.designer.eclipse.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.BaseElement;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.GraphicInfo;
+import org.activiti.bpmn.model.Lane;
+import org.activiti.bpmn.model.Pool;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing the XML of models of about 1, 10 and 50 MB to a file the way the editor saves
+ * them: building the document in memory with the converter of the library and writing it, and
+ * streaming it to the file with the {@link BpmnXMLStreamConverter}. The models are a single process
+ * in a pool with two lanes, without sub processes, whose shapes are placed on a grid: the layout
+ * of the library does not handle processes of this size and the export of the library looks up
+ * elements in sub processes and other processes element by element. Next to the time of a single
+ * write, the peak heap of the write is reported as peakHeapMB. It is the sum of the peak usage of
+ * the heap pools since the heap was collected right before the write, less the heap in use then.
+ * The young generation is kept small, so the peak is dominated by what the write holds on to.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = BpmnXMLStreamConverterBenchmark.MEASUREMENT_ITERATIONS)
+@Fork(value = 1, jvmArgsAppend = { "-XX:+UseSerialGC", "-Xmn16m", "-Xmx1g" })
+public class BpmnXMLStreamConverterBenchmark {
+
+  static final int MEASUREMENT_ITERATIONS = 5;
+
+  /**
+   * Tasks per MB of XML, including the diagram interchange information.
+   */
+  private static final int TASKS_PER_MEGABYTE = 1000;
+
+  /**
+   * The approximate size of the document in MB.
+   */
+  @Param({ "1", "10", "50" })
+  public int megabytes;
+
+  private BpmnModel bpmnModel;
+  private File file;
+
+  @Setup
+  public void setUp() throws IOException {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(TASKS_PER_MEGABYTE * megabytes);
+    generator.setDepth(0);
+    bpmnModel = generator.generate("write");
+    addDiagramInterchange(bpmnModel);
+
+    file = File.createTempFile("write", ".bpmn20.xml");
+  }
+
+  @TearDown
+  public void tearDown() {
+    file.delete();
+  }
+
+  @Benchmark
+  public File convertToXML(final HeapCounters counters) throws IOException {
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(new BpmnXMLConverter().convertToXML(bpmnModel));
+    } finally {
+      out.close();
+    }
+    counters.measure();
+    return file;
+  }
+
+  @Benchmark
+  public File stream(final HeapCounters counters) throws IOException {
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      new BpmnXMLStreamConverter().convertToXML(bpmnModel, out);
+    } finally {
+      out.close();
+    }
+    counters.measure();
+    return file;
+  }
+
+  /**
+   * Places the flow nodes of the process on a grid, with straight sequence
+   * flows between them, in a pool with its lanes above each other.
+   */
+  private static void addDiagramInterchange(final BpmnModel bpmnModel) {
+    final Process process = bpmnModel.getProcesses().get(0);
+    final int columns = 100;
+
+    int index = 0;
+    for (final FlowElement flowElement : process.getFlowElements()) {
+      if (flowElement instanceof SequenceFlow == false) {
+        bpmnModel.addGraphicInfo(flowElement.getId(), createGraphicInfo(50 + index % columns * 150, 50 + index / columns * 100, 105, 55));
+        index++;
+      }
+    }
+    for (final FlowElement flowElement : process.getFlowElements()) {
+      if (flowElement instanceof SequenceFlow) {
+        final GraphicInfo source = bpmnModel.getGraphicInfo(((SequenceFlow) flowElement).getSourceRef());
+        final GraphicInfo target = bpmnModel.getGraphicInfo(((SequenceFlow) flowElement).getTargetRef());
+        final List<GraphicInfo> waypoints = new ArrayList<GraphicInfo>();
+        waypoints.add(createGraphicInfo(source.getX() + source.getWidth(), source.getY() + source.getHeight() / 2, 0, 0));
+        waypoints.add(createGraphicInfo(target.getX(), target.getY() + target.getHeight() / 2, 0, 0));
+        bpmnModel.addFlowGraphicInfoList(flowElement.getId(), waypoints);
+      }
+    }
+
+    final double height = 100 + (index / columns + 1) * 100;
+    final double width = 100 + columns * 150;
+    for (final Pool pool : bpmnModel.getPools()) {
+      addShape(bpmnModel, pool, 0, width, height);
+    }
+    final List<Lane> lanes = process.getLanes();
+    for (int i = 0; i < lanes.size(); i++) {
+      addShape(bpmnModel, lanes.get(i), i * height / lanes.size(), width, height / lanes.size());
+    }
+  }
+
+  private static void addShape(final BpmnModel bpmnModel, final BaseElement element, final double y, final double width, final double height) {
+    bpmnModel.addGraphicInfo(element.getId(), createGraphicInfo(0, y, width, height));
+  }
+
+  private static GraphicInfo createGraphicInfo(final double x, final double y, final double width, final double height) {
+    final GraphicInfo result = new GraphicInfo();
+    result.setX(x);
+    result.setY(y);
+    result.setWidth(width);
+    result.setHeight(height);
+    return result;
+  }
+
+  /**
+   * The peak heap of the write of an iteration, each iteration writes once.
+   * JMH sums event counters over the measured iterations, so each iteration
+   * reports its share of the average.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class HeapCounters {
+
+    public double peakHeapMB;
+
+    private long heapBefore;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      System.gc();
+      heapBefore = 0;
+      for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          pool.resetPeakUsage();
+          heapBefore += pool.getUsage().getUsed();
+        }
+      }
+    }
+
+    void measure() {
+      long peak = 0;
+      for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if (pool.getType() == MemoryType.HEAP) {
+          peak += pool.getPeakUsage().getUsed();
+        }
+      }
+      peakHeapMB = (peak - heapBefore) / (1024.0 * 1024.0) / MEASUREMENT_ITERATIONS;
+    }
+
+  }
+
+}
@@ -0,0 +1,104 @@
+package org.activiti.designer.popupmenus;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.activiti.designer.benchmark.SyntheticProject;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures packaging the deployment archives of a project with the {@link DeploymentPackager}:
+ * building the archives and finding them up to date. The project is generated on disk with the
+ * layout of an Activiti project: processes, forms and images in the resources folder, sources that
+ * are not packaged and the compiled classes.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeploymentPackagerBenchmark {
+
+  private static final String RESOURCES_FOLDER = "src/main/resources/";
+  private static final String SOURCES_FOLDER = "src/main/java/org/acme/";
+  private static final String CLASSES_FOLDER = "target/classes/org/acme/";
+
+  /**
+   * The number of resources in the project. Processes, forms, images and
+   * sources make up a fifth of them, the compiled classes the rest.
+   */
+  @Param({ "2000" })
+  public int resources;
+
+  private SyntheticProject syntheticProject;
+  private IProject project;
+
+  @Setup
+  public void setUp() throws IOException, CoreException {
+    final Random random = new Random(1L);
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(20);
+
+    syntheticProject = new SyntheticProject("deployment");
+    final int processFiles = resources / 20;
+    for (int i = 0; i < processFiles; i++) {
+      syntheticProject.addFile(RESOURCES_FOLDER + "diagrams/process" + i + ".bpmn", new BpmnXMLConverter().convertToXML(generator.generate("process" + i)));
+      syntheticProject.addFile(RESOURCES_FOLDER + "diagrams/process" + i + ".png", randomBytes(random, 16 * 1024));
+      syntheticProject.addFile(RESOURCES_FOLDER + "forms/org/acme/start" + i + ".form", randomBytes(random, 1024));
+      syntheticProject.addFile(SOURCES_FOLDER + "Task" + i + ".java", randomBytes(random, 2 * 1024));
+    }
+    for (int i = 0; i < resources - 4 * processFiles; i++) {
+      syntheticProject.addFile(CLASSES_FOLDER + "tasks" + i / 100 + "/Task" + i + ".class", randomBytes(random, 2 * 1024));
+    }
+
+    project = syntheticProject.getProject();
+    new DeploymentPackager(project).buildPackages(new NullProgressMonitor());
+  }
+
+  @TearDown
+  public void tearDown() {
+    syntheticProject.delete();
+  }
+
+  /**
+   * Builds the archives, after dropping the fingerprint of the previous build.
+   */
+  @Benchmark
+  public boolean build() throws CoreException, IOException {
+    syntheticProject.clearSessionProperties();
+    return new DeploymentPackager(project).buildPackages(new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public boolean upToDate() throws CoreException, IOException {
+    return new DeploymentPackager(project).buildPackages(new NullProgressMonitor());
+  }
+
+  private static byte[] randomBytes(final Random random, final int size) {
+    final byte[] result = new byte[size];
+    random.nextBytes(result);
+    return result;
+  }
+
+}
@@ -0,0 +1,158 @@
+package org.activiti.designer.util.editor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the phases of opening a diagram in the editor with processes of about 1,000, 5,000 and
+ * 20,000 flow elements in a pool with two lanes: parsing the file, laying out a model without
+ * diagram interchange information and resolving the references between the elements through the
+ * element index when the sequence flows, boundary events and lanes are linked. Creating the
+ * pictogram elements needs Graphiti and a running workbench, so drawing them is not covered.
+ *
+ * <p>
+ * The main method runs the benchmarks with the GC profiler, which reports the bytes allocated per
+ * phase next to the time as gc.alloc.rate.norm. Running them from the benchmarks jar needs the
+ * profiler option:
+ * </p>
+ *
+ * <pre>
+ * java -jar benchmarks.jar DiagramImportBenchmark -prof gc
+ * </pre>
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// the hierarchical layout recurses once per flow node and overflows the default stack
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class DiagramImportBenchmark {
+
+  /**
+   * The number of tasks in the sequence of the process and its sub process,
+   * 170, 850 and 3400 tasks make up about 1,000, 5,000 and 20,000 flow
+   * elements.
+   */
+  @Param({ "170", "850", "3400" })
+  public int tasks;
+
+  private BpmnModel generatedModel;
+  private byte[] xml;
+  private BpmnModel parsedModel;
+
+  private BpmnModel bpmnModel;
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(DiagramImportBenchmark.class.getName()).addProfiler(GCProfiler.class).build()).run();
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generatedModel = generator.generate("import");
+
+    final BpmnModel laidOutModel = generator.generate("import");
+    new BpmnAutoLayout(laidOutModel).execute();
+    xml = new BpmnXMLConverter().convertToXML(laidOutModel);
+    parsedModel = parse(xml);
+  }
+
+  /**
+   * The layout adds the diagram interchange information to the model, every
+   * invocation starts without it.
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    bpmnModel = new BpmnModel();
+    for (final Process process : generatedModel.getProcesses()) {
+      bpmnModel.addProcess(process);
+    }
+    bpmnModel.getPools().addAll(generatedModel.getPools());
+  }
+
+  @Benchmark
+  public BpmnModel parse() throws Exception {
+    return parse(xml);
+  }
+
+  @Benchmark
+  public BpmnModel layout() {
+    new BpmnAutoLayout(bpmnModel).execute();
+    return bpmnModel;
+  }
+
+  @Benchmark
+  public void link(final Blackhole blackhole) {
+    final Bpmn2ModelIndex index = new Bpmn2ModelIndex();
+    index.setBpmnModel(parsedModel);
+    for (final Process process : parsedModel.getProcesses()) {
+      link(process.getFlowElements(), index, blackhole);
+    }
+  }
+
+  private static void link(final Collection<FlowElement> flowElements, final Bpmn2ModelIndex index, final Blackhole blackhole) {
+    for (final FlowElement flowElement : flowElements) {
+      if (flowElement instanceof SequenceFlow) {
+        final SequenceFlow sequenceFlow = (SequenceFlow) flowElement;
+        blackhole.consume(index.getFlowElement(sequenceFlow.getSourceRef()));
+        blackhole.consume(index.getFlowElement(sequenceFlow.getTargetRef()));
+        continue;
+      }
+
+      blackhole.consume(index.getLane(flowElement.getId()));
+      if (flowElement instanceof BoundaryEvent) {
+        blackhole.consume(index.getFlowElement(((BoundaryEvent) flowElement).getAttachedToRefId()));
+      } else if (flowElement instanceof SubProcess) {
+        link(((SubProcess) flowElement).getFlowElements(), index, blackhole);
+      }
+    }
+  }
+
+  private static BpmnModel parse(final byte[] xml) throws Exception {
+    final XMLInputFactory xif = XMLInputFactory.newInstance();
+    final XMLStreamReader xtr = xif.createXMLStreamReader(new InputStreamReader(new ByteArrayInputStream(xml), "UTF-8"));
+    try {
+      return new BpmnXMLConverter().convertToBpmnModel(xtr);
+    } finally {
+      xtr.close();
+    }
+  }
+
+}
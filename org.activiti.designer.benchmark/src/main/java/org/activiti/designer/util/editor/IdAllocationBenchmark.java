@@ -0,0 +1,119 @@
+package org.activiti.designer.util.editor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.UserTask;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the allocation of element ids by the {@link Bpmn2IdGenerator} of a model: seeding the
+ * counters from the model, a single id and pasting elements the way the CloneUtil of the editor
+ * does, which creates a new element with a new id for every copied element.
+ *
+ * @since 5.12.1
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdAllocationBenchmark {
+
+  /**
+   * The number of tasks in the sequence of the process and its sub process,
+   * 1700 tasks make up a process of about 10,000 flow elements.
+   */
+  @Param({ "170", "1700" })
+  public int tasks;
+
+  /**
+   * The number of elements pasted at once.
+   */
+  @Param({ "1000" })
+  public int pastedElements;
+
+  private BpmnModel bpmnModel;
+  private List<FlowElement> copiedElements;
+
+  private Bpmn2IdGenerator idGenerator;
+  private Process targetProcess;
+
+  @Setup
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(tasks);
+    generator.setPools(0);
+    bpmnModel = generator.generate("ids");
+
+    copiedElements = new ArrayList<FlowElement>(pastedElements);
+    while (copiedElements.size() < pastedElements) {
+      for (final FlowElement flowElement : bpmnModel.getMainProcess().getFlowElements()) {
+        if ((flowElement instanceof UserTask || flowElement instanceof ServiceTask) && copiedElements.size() < pastedElements) {
+          copiedElements.add(flowElement);
+        }
+      }
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    idGenerator = new Bpmn2IdGenerator();
+    idGenerator.setBpmnModel(bpmnModel);
+    idGenerator.nextId("usertask");
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    targetProcess = new Process();
+  }
+
+  @Benchmark
+  public String seed() {
+    final Bpmn2IdGenerator result = new Bpmn2IdGenerator();
+    result.setBpmnModel(bpmnModel);
+    return result.nextId("usertask");
+  }
+
+  @Benchmark
+  public String nextId() {
+    return idGenerator.nextId("usertask");
+  }
+
+  @Benchmark
+  public Process paste() {
+    for (final FlowElement copiedElement : copiedElements) {
+      final FlowElement pastedElement;
+      if (copiedElement instanceof UserTask) {
+        pastedElement = new UserTask();
+        pastedElement.setId(idGenerator.nextId("usertask"));
+      } else {
+        pastedElement = new ServiceTask();
+        pastedElement.setId(idGenerator.nextId("servicetask"));
+      }
+      pastedElement.setName(copiedElement.getName());
+      targetProcess.addFlowElement(pastedElement);
+    }
+    return targetProcess;
+  }
+
+}
@@ -0,0 +1,100 @@
+package org.activiti.designer.eclipse.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.Association;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.bpmn.model.TextAnnotation;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.junit.Test;
+
+/**
+ * Checks the {@link BpmnXMLStreamConverter} writes the same document as the converter of the
+ * library, for models with and without pools, nested sub processes, boundary events, artifacts and
+ * diagram interchange information.
+ *
+ * @since 5.12.1
+ *
+ */
+public class BpmnXMLStreamConverterTest {
+
+  @Test
+  public void poolsAndNestedSubProcesses() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(50);
+    generator.setDepth(3);
+    generator.setPools(2);
+    generator.setBoundaryEvents(5);
+    final BpmnModel bpmnModel = generator.generate("stream");
+    new BpmnAutoLayout(bpmnModel).execute();
+
+    assertSameDocument(bpmnModel);
+  }
+
+  @Test
+  public void processWithoutPool() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(2L);
+    generator.setTasks(20);
+    generator.setPools(0);
+    final BpmnModel bpmnModel = generator.generate("stream");
+
+    assertSameDocument(bpmnModel);
+  }
+
+  @Test
+  public void artifacts() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(3L);
+    generator.setTasks(10);
+    generator.setPools(0);
+    final BpmnModel bpmnModel = generator.generate("stream");
+
+    final Process process = bpmnModel.getMainProcess();
+    addAnnotation(process, process.getFlowElements().iterator().next(), "process");
+    for (final FlowElement flowElement : process.getFlowElements()) {
+      if (flowElement instanceof SubProcess) {
+        final SubProcess subProcess = (SubProcess) flowElement;
+        final TextAnnotation textAnnotation = new TextAnnotation();
+        textAnnotation.setId("subprocessannotation");
+        textAnnotation.setText("Annotation of the sub process");
+        subProcess.addArtifact(textAnnotation);
+      }
+    }
+
+    // an empty process is left out
+    final Process emptyProcess = new Process();
+    emptyProcess.setId("empty");
+    bpmnModel.addProcess(emptyProcess);
+
+    assertSameDocument(bpmnModel);
+  }
+
+  private static void addAnnotation(final Process process, final FlowElement annotatedElement, final String id) {
+    final TextAnnotation textAnnotation = new TextAnnotation();
+    textAnnotation.setId(id + "annotation");
+    textAnnotation.setText("Annotation of " + annotatedElement.getId());
+    process.addArtifact(textAnnotation);
+
+    final Association association = new Association();
+    association.setId(id + "association");
+    association.setSourceRef(textAnnotation.getId());
+    association.setTargetRef(annotatedElement.getId());
+    process.addArtifact(association);
+  }
+
+  private static void assertSameDocument(final BpmnModel bpmnModel) {
+    final byte[] expected = new BpmnXMLConverter().convertToXML(bpmnModel);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BpmnXMLStreamConverter().convertToXML(bpmnModel, out);
+
+    assertArrayEquals(expected, out.toByteArray());
+  }
+
+}
@@ -0,0 +1,95 @@
+package org.activiti.designer.eclipse.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.ScriptTask;
+import org.activiti.bpmn.model.UserTask;
+import org.activiti.designer.eclipse.util.FlowElementUtil.StringField;
+import org.junit.Test;
+
+/**
+ * Checks the structural hash of {@link FlowElementUtil} agrees with the field by field comparison:
+ * elements of the same type with equal fields hash equally and a changed field or type changes
+ * the hash.
+ *
+ * @since 5.12.1
+ *
+ */
+public class FlowElementUtilTest {
+
+  private static final StringField[] FIELDS = StringField.values();
+
+  @Test
+  public void equalElementsHashEqually() {
+    final UserTask source = createUserTask("usertask1", "Review", "kermit");
+    final UserTask target = createUserTask("usertask2", "Review", "kermit");
+
+    assertFalse(FlowElementUtil.elementsNeedUpdate(source, target, FIELDS));
+    assertEquals(FlowElementUtil.getStructuralHash(source, FIELDS), FlowElementUtil.getStructuralHash(target, FIELDS));
+  }
+
+  @Test
+  public void changedFieldChangesHash() {
+    final UserTask source = createUserTask("usertask1", "Review", "kermit");
+    final UserTask renamed = createUserTask("usertask1", "Approve", "kermit");
+    final UserTask reassigned = createUserTask("usertask1", "Review", "fozzie");
+    final UserTask unassigned = createUserTask("usertask1", "Review", null);
+
+    for (final UserTask target : new UserTask[] { renamed, reassigned, unassigned }) {
+      assertTrue(FlowElementUtil.elementsNeedUpdate(source, target, FIELDS));
+      assertTrue(FlowElementUtil.getStructuralHash(source, FIELDS) != FlowElementUtil.getStructuralHash(target, FIELDS));
+    }
+  }
+
+  @Test
+  public void changedTypeChangesHash() {
+    final UserTask userTask = createUserTask("task1", "Review", null);
+    final ScriptTask scriptTask = new ScriptTask();
+    scriptTask.setId("task1");
+    scriptTask.setName("Review");
+
+    assertTrue(FlowElementUtil.getStructuralHash(userTask, StringField.NAME) != FlowElementUtil.getStructuralHash(scriptTask,
+            StringField.NAME));
+  }
+
+  @Test
+  public void onlyComparedFieldsAreHashed() {
+    final UserTask source = createUserTask("usertask1", "Review", "kermit");
+    final UserTask target = createUserTask("usertask1", "Review", "fozzie");
+
+    assertEquals(FlowElementUtil.getStructuralHash(source, StringField.NAME), FlowElementUtil.getStructuralHash(target, StringField.NAME));
+  }
+
+  @Test
+  public void missingFieldsAreSkipped() {
+    final ScriptTask scriptTask = new ScriptTask();
+    scriptTask.setId("scripttask1");
+    scriptTask.setName("Calculate");
+    scriptTask.setScript("x = 1");
+
+    assertEquals(FlowElementUtil.getStructuralHash(scriptTask, StringField.NAME, StringField.SCRIPT),
+            FlowElementUtil.getStructuralHash(scriptTask, StringField.NAME, StringField.ASSIGNEE, StringField.SCRIPT));
+  }
+
+  @Test
+  public void hashIsStable() {
+    final FlowElement element = createUserTask("usertask1", "Review", "kermit");
+    final int hash = FlowElementUtil.getStructuralHash(element, FIELDS);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(hash, FlowElementUtil.getStructuralHash(element, FIELDS));
+    }
+  }
+
+  private static UserTask createUserTask(final String id, final String name, final String assignee) {
+    final UserTask result = new UserTask();
+    result.setId(id);
+    result.setName(name);
+    result.setAssignee(assignee);
+    return result;
+  }
+
+}
@@ -0,0 +1,113 @@
+package org.activiti.designer.util.editor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.activiti.bpmn.model.Activity;
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.bpmn.model.UserTask;
+import org.activiti.designer.benchmark.SyntheticProcessGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pastes 1,000 elements into a model of about 10,000 flow elements the way the CloneUtil of the
+ * editor does and checks every pasted element gets an id of its own.
+ *
+ * @since 5.12.1
+ *
+ */
+public class Bpmn2IdGeneratorTest {
+
+  private static final int PASTED_ELEMENTS = 1000;
+
+  private BpmnModel bpmnModel;
+  private Set<String> existingIds;
+  private List<FlowElement> copiedElements;
+
+  @Before
+  public void setUp() {
+    final SyntheticProcessGenerator generator = new SyntheticProcessGenerator(1L);
+    generator.setTasks(1700);
+    generator.setPools(0);
+    generator.setBoundaryEvents(170);
+    bpmnModel = generator.generate("paste");
+
+    existingIds = new HashSet<String>();
+    collectIds(bpmnModel.getMainProcess());
+
+    copiedElements = new ArrayList<FlowElement>();
+    while (copiedElements.size() < PASTED_ELEMENTS) {
+      for (final FlowElement flowElement : bpmnModel.getMainProcess().getFlowElements()) {
+        if ((flowElement instanceof UserTask || flowElement instanceof ServiceTask) && copiedElements.size() < PASTED_ELEMENTS) {
+          copiedElements.add(flowElement);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void pastedElementsGetUnusedIds() {
+    assertTrue("the model has " + existingIds.size() + " ids", existingIds.size() >= 10000);
+
+    final Bpmn2IdGenerator idGenerator = new Bpmn2IdGenerator();
+    idGenerator.setBpmnModel(bpmnModel);
+
+    final Process targetProcess = bpmnModel.getMainProcess();
+    final Set<String> pastedIds = new HashSet<String>();
+    for (final FlowElement copiedElement : copiedElements) {
+      final FlowElement pastedElement;
+      if (copiedElement instanceof UserTask) {
+        pastedElement = new UserTask();
+        pastedElement.setId(idGenerator.nextId("usertask"));
+      } else {
+        pastedElement = new ServiceTask();
+        pastedElement.setId(idGenerator.nextId("servicetask"));
+      }
+      pastedElement.setName(copiedElement.getName());
+      targetProcess.addFlowElement(pastedElement);
+
+      assertTrue(pastedElement.getId() + " is used already", !existingIds.contains(pastedElement.getId()));
+      assertTrue(pastedElement.getId() + " was pasted already", pastedIds.add(pastedElement.getId()));
+    }
+    assertEquals(PASTED_ELEMENTS, pastedIds.size());
+  }
+
+  @Test
+  public void registeredIdsAreNotHandedOut() {
+    final Bpmn2IdGenerator idGenerator = new Bpmn2IdGenerator();
+    idGenerator.setBpmnModel(bpmnModel);
+
+    final String id = idGenerator.nextId("usertask");
+    final int number = Integer.parseInt(id.substring("usertask".length()));
+    idGenerator.registerId("usertask" + (number + 10));
+
+    assertEquals("usertask" + (number + 11), idGenerator.nextId("usertask"));
+  }
+
+  private void collectIds(final FlowElementsContainer container) {
+    for (final FlowElement flowElement : container.getFlowElements()) {
+      existingIds.add(flowElement.getId());
+      if (flowElement instanceof Activity) {
+        for (final BoundaryEvent boundaryEvent : ((Activity) flowElement).getBoundaryEvents()) {
+          existingIds.add(boundaryEvent.getId());
+        }
+      }
+      if (flowElement instanceof SubProcess) {
+        collectIds((SubProcess) flowElement);
+      }
+    }
+  }
+
+}
@@ -13,6 +13,7 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import org.activiti.designer.eclipse.util.ExtensionPointUtil;
 import org.activiti.designer.eclipse.util.PaletteExtensionUtil;
 
 public class ActivitiPlugin extends AbstractUIPlugin {
@@ -75,6 +76,8 @@ public class ActivitiPlugin extends AbstractUIPlugin {
     // Allow the image cache to destroy itself so image references are cleaned
     // up
     imageCache.dispose();
+
+    ExtensionPointUtil.dispose();
   }
 
   // ======================== static access methods ==========================
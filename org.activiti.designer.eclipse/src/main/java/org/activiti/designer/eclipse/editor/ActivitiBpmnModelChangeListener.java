@@ -1,17 +1,25 @@
 package org.activiti.designer.eclipse.editor;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.activiti.designer.util.editor.Bpmn2MemoryModel;
+import org.activiti.designer.util.editor.ModelHandler;
 
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.transaction.NotificationFilter;
 import org.eclipse.emf.transaction.ResourceSetChangeEvent;
 import org.eclipse.emf.transaction.ResourceSetListener;
 import org.eclipse.emf.transaction.RollbackException;
 import org.eclipse.graphiti.dt.IDiagramTypeProvider;
+import org.eclipse.graphiti.mm.pictograms.ConnectionDecorator;
 import org.eclipse.graphiti.mm.pictograms.Diagram;
 import org.eclipse.graphiti.mm.pictograms.PictogramElement;
 import org.eclipse.graphiti.notification.INotificationService;
@@ -19,10 +27,35 @@ import org.eclipse.graphiti.platform.IDiagramEditor;
 import org.eclipse.swt.widgets.Display;
 
 
+/**
+ * Updates the pictogram elements related to changed business objects and records the pictogram
+ * elements that have been changed since the last save, so only their diagram interchange
+ * information needs to be regenerated. The business objects changed by a burst of events are
+ * collected and their pictogram elements are updated once in the UI thread.
+ */
 public class ActivitiBpmnModelChangeListener implements ResourceSetListener {
 
   private final IDiagramEditor diagramEditor;
 
+  private final Set<PictogramElement> changedPictogramElements = new HashSet<PictogramElement>();
+
+  private volatile boolean importing;
+
+  // the business objects changed since the last update of the diagram, guarded by this
+  private final Set<EObject> pendingBOs = new LinkedHashSet<EObject>();
+  private boolean updateScheduled;
+
+  private final Runnable updateRunnable = new Runnable() {
+
+    @Override
+    public void run() {
+      updatePictogramElements();
+    }
+  };
+
+  private final AtomicLong receivedEventCount = new AtomicLong();
+  private final AtomicLong executedUpdateCount = new AtomicLong();
+
   public ActivitiBpmnModelChangeListener(final IDiagramEditor diagramEditor) {
     super();
 
@@ -49,8 +82,42 @@ public class ActivitiBpmnModelChangeListener implements ResourceSetListener {
     return false;
   }
 
+  /**
+   * Suspends the listener while the pictogram elements of an imported diagram are created. The
+   * changes made during the import are neither recorded nor used to update the related pictogram
+   * elements one by one, the diagram is refreshed once in {@link #endImport()} instead.
+   */
+  public void beginImport() {
+    importing = true;
+  }
+
+  /**
+   * Resumes the listener after an import and refreshes the whole diagram once.
+   */
+  public void endImport() {
+    importing = false;
+
+    Display.getDefault().asyncExec(new Runnable() {
+
+      @Override
+      public void run() {
+        final IDiagramEditor editor = diagramEditor.getDiagramTypeProvider().getDiagramEditor();
+        if (editor != null) {
+          editor.refresh();
+        }
+      }
+    });
+  }
+
   @Override
   public void resourceSetChanged(ResourceSetChangeEvent event) {
+    receivedEventCount.incrementAndGet();
+
+    if (importing) {
+      // the diagram is refreshed as a whole once the import is done
+      return;
+    }
+
     final IDiagramTypeProvider provider = diagramEditor.getDiagramTypeProvider();
     final Diagram diagram = provider.getDiagram();
 
@@ -58,38 +125,77 @@ public class ActivitiBpmnModelChangeListener implements ResourceSetListener {
       return;
     }
 
-    final Set<EObject> changedBOs = new HashSet<EObject>();
     final List<Notification> notifications = event.getNotifications();
 
-    for (final Notification notification : notifications) {
-      final Object notifier = notification.getNotifier();
+    boolean schedule = false;
+    synchronized (this) {
+      for (final Notification notification : notifications) {
+        recordChange(diagram, notification);
 
-      if (notifier instanceof EObject) {
-        final EObject eNotifier = (EObject) notifier;
+        final Object notifier = notification.getNotifier();
 
-        changedBOs.add(eNotifier);
+        if (notifier instanceof EObject) {
+          final EObject eNotifier = (EObject) notifier;
+
+          pendingBOs.add(eNotifier);
+        }
       }
+
+      // at most one update is queued, later events add to its business objects
+      if (!updateScheduled && !pendingBOs.isEmpty()) {
+        updateScheduled = true;
+        schedule = true;
+      }
+    }
+
+    if (schedule) {
+      // do an asynchronous update in the UI thread
+      Display.getDefault().asyncExec(updateRunnable);
+    }
+  }
+
+  /**
+   * Gets the number of resource set change events received, for diagnostics.
+   */
+  public long getReceivedEventCount() {
+    return receivedEventCount.get();
+  }
+
+  /**
+   * Gets the number of updates of the diagram that have been run in the UI
+   * thread, for diagnostics. Events received while an update is queued are
+   * handled by that update.
+   */
+  public long getExecutedUpdateCount() {
+    return executedUpdateCount.get();
+  }
+
+  private void updatePictogramElements() {
+    final Object[] changedBOs;
+    synchronized (this) {
+      changedBOs = pendingBOs.toArray();
+      pendingBOs.clear();
+      updateScheduled = false;
+    }
+
+    executedUpdateCount.incrementAndGet();
+
+    final IDiagramTypeProvider provider = diagramEditor.getDiagramTypeProvider();
+    final IDiagramEditor editor = provider.getDiagramEditor();
+    if (editor == null) {
+      return;
     }
 
     final INotificationService notificationService = provider.getNotificationService();
     final PictogramElement[] dirtyPEs
-      = notificationService.calculateRelatedPictogramElements(changedBOs.toArray());
+      = notificationService.calculateRelatedPictogramElements(changedBOs);
 
     if (dirtyPEs.length > 0) {
-      // do an asynchronous update in the UI thread
-      Display.getDefault().asyncExec(new Runnable() {
-
-        @Override
-        public void run() {
-          IDiagramEditor diagramEditor = provider.getDiagramEditor();
-          if (provider.isAutoUpdateAtRuntime() && diagramEditor.isDirty()) {
-            notificationService.updatePictogramElements(dirtyPEs);
-          } else {
-            diagramEditor.refresh();
-          }
-        }
-
-      });
+      if (provider.isAutoUpdateAtRuntime() && editor.isDirty()) {
+        notificationService.updatePictogramElements(dirtyPEs);
+      } else {
+        editor.refresh();
+      }
     }
   }
 
@@ -98,4 +204,88 @@ public class ActivitiBpmnModelChangeListener implements ResourceSetListener {
     return null;
   }
 
+  /**
+   * Gets the pictogram elements that have been added or changed since the changes have been
+   * cleared the last time.
+   */
+  public synchronized Set<PictogramElement> getChangedPictogramElements() {
+    return new HashSet<PictogramElement>(changedPictogramElements);
+  }
+
+  public synchronized void clearChangedPictogramElements() {
+    changedPictogramElements.clear();
+  }
+
+  private synchronized void recordChange(final Diagram diagram, final Notification notification) {
+    switch (notification.getEventType()) {
+    case Notification.REMOVE:
+    case Notification.REMOVE_MANY:
+      if (containsPictogramElement(notification.getOldValue())) {
+        // the business objects of removed elements need to be cleaned up by a full rebuild
+        invalidateDiagramInterchange(diagram);
+      }
+      break;
+
+    case Notification.ADD:
+      recordChangedPictogramElement(notification.getNewValue());
+      break;
+
+    case Notification.ADD_MANY:
+      if (notification.getNewValue() instanceof Collection<?>) {
+        for (final Object newValue : (Collection<?>) notification.getNewValue()) {
+          recordChangedPictogramElement(newValue);
+        }
+      }
+      break;
+
+    default:
+      break;
+    }
+
+    if (notification.getNotifier() instanceof EObject) {
+      recordChangedPictogramElement(notification.getNotifier());
+    }
+  }
+
+  private void recordChangedPictogramElement(final Object object) {
+    // find the pictogram element owning the changed object, e.g. a graphics algorithm or bend point
+    EObject current = object instanceof EObject ? (EObject) object : null;
+    while (current != null && current instanceof PictogramElement == false) {
+      current = current.eContainer();
+    }
+
+    if (current instanceof ConnectionDecorator) {
+      current = ((ConnectionDecorator) current).getConnection();
+    }
+
+    // changes to the diagram itself do not affect the diagram interchange information
+    if (current != null && current instanceof Diagram == false) {
+      changedPictogramElements.add((PictogramElement) current);
+    }
+  }
+
+  private boolean containsPictogramElement(final Object value) {
+    if (value instanceof PictogramElement) {
+      return true;
+    } else if (value instanceof Collection<?>) {
+      for (final Object element : (Collection<?>) value) {
+        if (element instanceof PictogramElement) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void invalidateDiagramInterchange(final Diagram diagram) {
+    if (diagram == null) {
+      return;
+    }
+
+    final Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(diagram));
+    if (model != null) {
+      model.invalidateDiagramInterchange();
+    }
+  }
+
 }
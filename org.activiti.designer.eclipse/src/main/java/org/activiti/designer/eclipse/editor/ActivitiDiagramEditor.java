@@ -1,20 +1,20 @@
 package org.activiti.designer.eclipse.editor;
 
 import java.awt.Point;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
-import org.activiti.bpmn.BpmnAutoLayout;
 import org.activiti.bpmn.converter.BpmnXMLConverter;
 import org.activiti.bpmn.model.Artifact;
 import org.activiti.bpmn.model.Association;
@@ -31,6 +31,7 @@ import org.activiti.bpmn.model.Process;
 import org.activiti.bpmn.model.SequenceFlow;
 import org.activiti.bpmn.model.ServiceTask;
 import org.activiti.bpmn.model.SubProcess;
+import org.activiti.designer.eclipse.Logger;
 import org.activiti.designer.eclipse.preferences.PreferencesUtil;
 import org.activiti.designer.eclipse.ui.ActivitiEditorContextMenuProvider;
 import org.activiti.designer.eclipse.util.FileService;
@@ -40,6 +41,7 @@ import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.activiti.designer.util.extension.ExtensionUtil;
 import org.activiti.designer.util.preferences.Preferences;
+import org.activiti.designer.util.trace.PerformanceTrace;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -47,9 +49,10 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.draw2d.IFigure;
-import org.eclipse.draw2d.SWTGraphics;
-import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.emf.common.command.BasicCommandStack;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -72,16 +75,14 @@ import org.eclipse.graphiti.mm.pictograms.Diagram;
 import org.eclipse.graphiti.mm.pictograms.PictogramElement;
 import org.eclipse.graphiti.ui.editor.DiagramEditor;
 import org.eclipse.graphiti.ui.editor.DiagramEditorInput;
-import org.eclipse.swt.SWT;
-import org.eclipse.swt.graphics.GC;
-import org.eclipse.swt.graphics.Image;
-import org.eclipse.swt.graphics.ImageData;
-import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorSite;
 import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.progress.IWorkbenchSiteProgressService;
 
 public class ActivitiDiagramEditor extends DiagramEditor {
 
@@ -91,6 +92,33 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
   private TransactionalEditingDomain transactionalEditingDomain;
 
+  /**
+   * The save job writing the model, null once it has finished.
+   */
+  private BpmnModelSaveJob pendingSaveJob;
+
+  /**
+   * Whether the last save failed, so the editor has to stay dirty.
+   */
+  private boolean saveFailed;
+
+  /**
+   * The scale of the image written by the last save, NaN if unknown.
+   */
+  private double renderedImageScale = Double.NaN;
+
+  /**
+   * The pictogram elements created for the business objects during an import, so they can be
+   * looked up without searching all links of the diagram. Null if no import is running.
+   */
+  private Map<BaseElement, PictogramElement> importedPictogramElements;
+
+  /**
+   * The job laying out a model without diagram interchange information. The diagram is imported
+   * and can be edited once the job is done. Null if no layout is running.
+   */
+  private DiagramLayoutJob layoutJob;
+
   public ActivitiDiagramEditor() {
     super();
   }
@@ -158,109 +186,100 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
     try {
       final IFile dataFile = adei.getDataFile();
-      final String diagramFileString = dataFile.getLocationURI().getPath();
 
       boolean saveImage = PreferencesUtil.getBooleanPreference(Preferences.SAVE_IMAGE);
       Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagramTypeProvider().getDiagram()));
 
-      // add sequence flow bend-points to the model
-      final IFeatureProvider featureProvider = getDiagramTypeProvider().getFeatureProvider();
-      new GraphitiToBpmnDI(model, featureProvider).processGraphitiElements();
-
-      BpmnXMLConverter converter = new BpmnXMLConverter();
-      byte[] xmlBytes = converter.convertToXML(model.getBpmnModel());
+      monitor.beginTask("Saving " + dataFile.getName(), 1);
 
-      File objectsFile = new File(diagramFileString);
-      FileOutputStream fos = new FileOutputStream(objectsFile);
-      fos.write(xmlBytes);
-      fos.close();
+      // add sequence flow bend-points to the model, only for the elements changed since the last save
+      // if possible
+      monitor.subTask("Updating the diagram interchange information");
+      final IFeatureProvider featureProvider = getDiagramTypeProvider().getFeatureProvider();
+      final Set<PictogramElement> changedElements = activitiBpmnModelChangeListener.getChangedPictogramElements();
+      final boolean diagramChanged = !changedElements.isEmpty() || !model.isDiagramInterchangeValid();
+      final long diStart = PerformanceTrace.begin();
+      try {
+        new GraphitiToBpmnDI(model, featureProvider).processGraphitiElements(changedElements);
+      } finally {
+        PerformanceTrace.end("Diagram interchange", dataFile.getName(), diStart);
+      }
+      activitiBpmnModelChangeListener.clearChangedPictogramElements();
+      monitor.worked(1);
 
+      IFile imageFile = null;
+      DiagramImageRenderer imageRenderer = null;
       if (saveImage) {
-        marshallImage(model, diagramFileString);
+        imageFile = BpmnModelSaveJob.getImageFile(dataFile);
+
+        // the image only needs to be rendered again if the diagram or the scale of the image has
+        // changed
+        final double imageScale = getImageScale();
+        if (diagramChanged || !imageFile.exists() || imageScale != renderedImageScale) {
+          imageRenderer = DiagramImageRenderer.create((GraphicalViewer) getAdapter(GraphicalViewer.class), imageScale);
+          renderedImageScale = imageScale;
+        }
       }
 
-      dataFile.getProject().refreshLocal(IResource.DEPTH_INFINITE, null);
+      // serialize, write and refresh the model and render the image in the background, the editor
+      // stays dirty until the job has finished
+      final BpmnModelSaveJob saveJob = new BpmnModelSaveJob(model, getEditingDomain(), dataFile, imageFile, imageRenderer);
+      saveJob.addJobChangeListener(new JobChangeAdapter() {
+
+        @Override
+        public void done(final IJobChangeEvent event) {
+          Display.getDefault().asyncExec(new Runnable() {
+
+            @Override
+            public void run() {
+              saveDone(saveJob, event.getResult());
+            }
+          });
+        }
+      });
+      pendingSaveJob = saveJob;
+      saveFailed = false;
+      saveJob.schedule();
 
     } catch (Exception e) {
-      // TODO Auto-generated catch block
-      e.printStackTrace();
+      Logger.logError("Unable to save " + adei.getDataFile().getName(), e);
+      saveFailed = true;
+    } finally {
+      monitor.done();
     }
 
     ((BasicCommandStack) getEditingDomain().getCommandStack()).saveIsDone();
     updateDirtyState();
   }
 
-  private void marshallImage(Bpmn2MemoryModel model, String modelFileName) {
-    try {
-      final GraphicalViewer graphicalViewer = (GraphicalViewer) ((DiagramEditor) model.getFeatureProvider().getDiagramTypeProvider().getDiagramEditor())
-              .getAdapter(GraphicalViewer.class);
-
-      if (graphicalViewer == null || graphicalViewer.getEditPartRegistry() == null) {
-        return;
-      }
-      final ScalableFreeformRootEditPart rootEditPart = (ScalableFreeformRootEditPart) graphicalViewer.getEditPartRegistry().get(LayerManager.ID);
-      final IFigure rootFigure = ((LayerManager) rootEditPart).getLayer(LayerConstants.PRINTABLE_LAYERS);
-      final IFigure gridFigure = ((LayerManager) rootEditPart).getLayer(LayerConstants.GRID_LAYER);
-      final Rectangle rootFigureBounds = rootFigure.getBounds();
-
-      final boolean toggleRequired = gridFigure.isShowing();
-
-      final Display display = Display.getDefault();
-
-      final Image img = new Image(display, rootFigureBounds.width, rootFigureBounds.height);
-      final GC imageGC = new GC(img);
-      final SWTGraphics grap = new SWTGraphics(imageGC);
-
-      // Access UI thread from runnable to print the canvas to the image
-      display.syncExec(new Runnable() {
-
-        @Override
-        public void run() {
-          if (toggleRequired) {
-            // Disable any grids temporarily
-            gridFigure.setVisible(false);
-          }
-          // Deselect any selections
-          graphicalViewer.deselectAll();
-          rootFigure.paint(grap);
-        }
-      });
-
-      ImageLoader imgLoader = new ImageLoader();
-      imgLoader.data = new ImageData[] { img.getImageData() };
-
-      ByteArrayOutputStream baos = new ByteArrayOutputStream(imgLoader.data.length);
-
-      imgLoader.save(baos, SWT.IMAGE_PNG);
-
-      imageGC.dispose();
-      img.dispose();
-
-      // Access UI thread from runnable
-      display.syncExec(new Runnable() {
-
-        @Override
-        public void run() {
-          if (toggleRequired) {
-            // Re-enable any grids
-            gridFigure.setVisible(true);
-          }
-        }
-      });
+  /**
+   * Called in the UI thread when a save job has finished. Only the most recent
+   * save job decides whether the editor is clean, earlier ones have been
+   * superseded.
+   */
+  private void saveDone(final BpmnModelSaveJob saveJob, final IStatus result) {
+    if (saveJob != pendingSaveJob) {
+      return;
+    }
+    pendingSaveJob = null;
+    saveFailed = !result.isOK();
+    if (saveFailed) {
+      // the image may not have been written
+      renderedImageScale = Double.NaN;
+    }
 
-      String imageFileName = null;
-      if (modelFileName.endsWith(".bpmn20.xml")) {
-        imageFileName = modelFileName.substring(0, modelFileName.length() - 11) + ".png";
-      } else {
-        imageFileName = modelFileName.substring(0, modelFileName.lastIndexOf(".")) + ".png";
-      }
-      File imageFile = new File(imageFileName);
-      FileOutputStream outStream = new FileOutputStream(imageFile);
-      baos.writeTo(outStream);
+    // the editor may have been closed in the meantime
+    if (getEditingDomain() != null) {
+      updateDirtyState();
+    }
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
+  private double getImageScale() {
+    final int imageScale = PreferencesUtil.getIntegerPreference(Preferences.SAVE_IMAGE_SCALE);
+    if (imageScale <= 0) {
+      return 1.0;
     }
+    return imageScale / 100.0;
   }
 
   @Override
@@ -268,6 +287,9 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     TransactionalEditingDomain editingDomain = getEditingDomain();
     // Check that the editor is not yet disposed
     if (editingDomain != null && editingDomain.getCommandStack() != null) {
+      if (pendingSaveJob != null || saveFailed) {
+        return true;
+      }
       return ((BasicCommandStack) editingDomain.getCommandStack()).isSaveNeeded();
     }
     return false;
@@ -300,36 +322,110 @@ public class ActivitiDiagramEditor extends DiagramEditor {
         bpmnConverter.setUserTaskFormTypes(PreferencesUtil.getStringArray(Preferences.ALFRESCO_FORMTYPES_USERTASK));
         bpmnConverter.setStartEventFormTypes(PreferencesUtil.getStringArray(Preferences.ALFRESCO_FORMTYPES_STARTEVENT));
         BpmnModel bpmnModel = null;
+        final long parseStart = PerformanceTrace.begin();
         try {
           bpmnModel = bpmnConverter.convertToBpmnModel(xtr);
         } catch(Exception e) {
           bpmnModel = new BpmnModel();
+        } finally {
+          PerformanceTrace.end("Parse", dataFile.getName(), parseStart);
         }
         model.setBpmnModel(bpmnModel);
 
-        if (bpmnModel.getLocationMap().size() == 0) {
-          BpmnAutoLayout layout = new BpmnAutoLayout(bpmnModel);
-          layout.execute();
+        // models without diagram interchange information are laid out in the
+        // background, unless the layout of the same structure is known already
+        boolean layoutRequired = false;
+        String structureHash = null;
+        if (bpmnModel.getLocationMap().size() == 0 && bpmnModel.getProcesses().size() > 0) {
+          structureHash = LayoutCache.getStructureHash(bpmnModel);
+          layoutRequired = !LayoutCache.apply(structureHash, bpmnModel);
         }
 
-        BasicCommandStack basicCommandStack = (BasicCommandStack) getEditingDomain().getCommandStack();
+        if (input instanceof DiagramEditorInput && layoutRequired) {
+          scheduleLayout(model, dataFile, structureHash);
+        } else {
+          importInitialDiagram(model, input instanceof DiagramEditorInput);
+        }
+      }
 
-        if (input instanceof DiagramEditorInput) {
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
 
-          basicCommandStack.execute(new RecordingCommand(getEditingDomain()) {
+  /**
+   * Imports the model into the diagram, if requested, and resets the command
+   * stack, so the editor starts out with a clean state.
+   */
+  private void importInitialDiagram(final Bpmn2MemoryModel model, final boolean drawDiagram) {
+    BasicCommandStack basicCommandStack = (BasicCommandStack) getEditingDomain().getCommandStack();
 
-            @Override
-            protected void doExecute() {
-              importDiagram(model);
-            }
-          });
+    if (drawDiagram) {
+
+      // the change listener is suspended until the whole diagram has been created
+      final ActivitiBpmnModelChangeListener changeListener = activitiBpmnModelChangeListener;
+      if (changeListener != null) {
+        changeListener.beginImport();
+      }
+
+      final long importStart = PerformanceTrace.begin();
+      try {
+        basicCommandStack.execute(new RecordingCommand(getEditingDomain()) {
+
+          @Override
+          protected void doExecute() {
+            importDiagram(model);
+          }
+        });
+      } finally {
+        PerformanceTrace.end("Import diagram", model.getModelFile().getName(), importStart);
+        if (changeListener != null) {
+          changeListener.endImport();
         }
-        basicCommandStack.saveIsDone();
-        basicCommandStack.flush();
       }
+    }
+    basicCommandStack.saveIsDone();
+    basicCommandStack.flush();
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
+  /**
+   * Lays out the model in the background. The diagram stays empty and cannot
+   * be edited until the layout is done. If the layout is canceled, the editor
+   * is closed, as importing the model without a layout would drop its
+   * elements.
+   */
+  private void scheduleLayout(final Bpmn2MemoryModel model, final IFile dataFile, final String structureHash) {
+    layoutJob = new DiagramLayoutJob(dataFile.getName(), model.getBpmnModel(), structureHash, new DiagramLayoutJob.Callback() {
+
+      @Override
+      public void layoutDone(final boolean laidOut) {
+        if (layoutJob == null) {
+          // closed in the meantime
+          return;
+        }
+        layoutJob = null;
+
+        if (laidOut) {
+          importInitialDiagram(model, true);
+          setGraphicalViewerEnabled(true);
+        } else {
+          getSite().getPage().closeEditor(ActivitiDiagramEditor.this, false);
+        }
+      }
+    });
+
+    // shows the editor as busy while the job runs
+    final IWorkbenchSiteProgressService progressService = (IWorkbenchSiteProgressService) getSite().getService(IWorkbenchSiteProgressService.class);
+    if (progressService != null) {
+      progressService.schedule(layoutJob);
+    } else {
+      layoutJob.schedule();
+    }
+  }
+
+  private void setGraphicalViewerEnabled(final boolean enabled) {
+    if (getGraphicalViewer() != null && getGraphicalViewer().getControl() != null) {
+      getGraphicalViewer().getControl().setEnabled(enabled);
     }
   }
 
@@ -337,32 +433,40 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     final Diagram diagram = getDiagramTypeProvider().getDiagram();
     diagram.setActive(true);
 
-    getEditingDomain().getCommandStack().execute(new RecordingCommand(getEditingDomain()) {
-
-      @Override
-      protected void doExecute() {
+    importedPictogramElements = new IdentityHashMap<BaseElement, PictogramElement>();
+    try {
+      getEditingDomain().getCommandStack().execute(new RecordingCommand(getEditingDomain()) {
 
-        if (model.getBpmnModel().getPools().size() > 0) {
-          for (Pool pool : model.getBpmnModel().getPools()) {
-            PictogramElement poolElement = addContainerElement(pool, model, diagram);
-            if (poolElement == null) {
-              continue;
-            }
+        @Override
+        protected void doExecute() {
+          drawDiagram(model, diagram);
+        }
+      });
+    } finally {
+      importedPictogramElements = null;
+    }
+  }
 
-            Process process = model.getBpmnModel().getProcess(pool.getId());
-            for (Lane lane : process.getLanes()) {
-              addContainerElement(lane, model, (ContainerShape) poolElement);
-            }
-          }
+  private void drawDiagram(final Bpmn2MemoryModel model, final Diagram diagram) {
+    if (model.getBpmnModel().getPools().size() > 0) {
+      for (Pool pool : model.getBpmnModel().getPools()) {
+        PictogramElement poolElement = addContainerElement(pool, model, diagram);
+        if (poolElement == null) {
+          continue;
         }
 
-        for (Process process : model.getBpmnModel().getProcesses()) {
-          drawFlowElements(process.getFlowElements(), model.getBpmnModel().getLocationMap(), diagram, process);
-          drawArtifacts(process.getArtifacts(), model.getBpmnModel().getLocationMap(), diagram, process);
+        Process process = model.getBpmnModel().getProcess(pool.getId());
+        for (Lane lane : process.getLanes()) {
+          addContainerElement(lane, model, (ContainerShape) poolElement);
         }
-        drawAllFlows(model);
       }
-    });
+    }
+
+    for (Process process : model.getBpmnModel().getProcesses()) {
+      drawFlowElements(process.getFlowElements(), model.getBpmnModel().getLocationMap(), diagram, model);
+      drawArtifacts(process.getArtifacts(), model.getBpmnModel().getLocationMap(), diagram, model);
+    }
+    drawAllFlows(model);
   }
 
   private PictogramElement addContainerElement(BaseElement element, Bpmn2MemoryModel model, ContainerShape parent) {
@@ -392,13 +496,31 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     PictogramElement pictElement = null;
     if (addFeature.canAdd(context)) {
       pictElement = addFeature.add(context);
-      featureProvider.link(pictElement, new Object[] { element });
+      link(pictElement, element);
     }
 
     return pictElement;
   }
 
-  private void drawFlowElements(Collection<FlowElement> elementList, Map<String, GraphicInfo> locationMap, ContainerShape parentShape, Process process) {
+  private void link(PictogramElement pictogramElement, BaseElement element) {
+    getDiagramTypeProvider().getFeatureProvider().link(pictogramElement, new Object[] { element });
+    if (importedPictogramElements != null) {
+      importedPictogramElements.put(element, pictogramElement);
+    }
+  }
+
+  private PictogramElement getPictogramElement(BaseElement element) {
+    if (importedPictogramElements != null) {
+      PictogramElement pictogramElement = importedPictogramElements.get(element);
+      if (pictogramElement != null) {
+        return pictogramElement;
+      }
+    }
+    return getDiagramTypeProvider().getFeatureProvider().getPictogramElementForBusinessObject(element);
+  }
+
+  private void drawFlowElements(Collection<FlowElement> elementList, Map<String, GraphicInfo> locationMap, ContainerShape parentShape,
+          Bpmn2MemoryModel model) {
 
     final IFeatureProvider featureProvider = getDiagramTypeProvider().getFeatureProvider();
 
@@ -429,7 +551,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
         ContainerShape parentContainer = null;
         if (parentShape instanceof Diagram) {
-          parentContainer = getParentContainer(flowElement.getId(), process, (Diagram) parentShape);
+          parentContainer = getParentContainer(flowElement.getId(), model, (Diagram) parentShape);
         } else {
           parentContainer = parentShape;
         }
@@ -472,7 +594,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
         if (flowElement instanceof BoundaryEvent) {
           BoundaryEvent boundaryEvent = (BoundaryEvent) flowElement;
           if (boundaryEvent.getAttachedToRef() != null) {
-            ContainerShape container = (ContainerShape) featureProvider.getPictogramElementForBusinessObject(boundaryEvent.getAttachedToRef());
+            ContainerShape container = (ContainerShape) getPictogramElement(boundaryEvent.getAttachedToRef());
 
             if (container != null) {
               AddContext boundaryContext = new AddContext(new AreaContext(), boundaryEvent);
@@ -482,16 +604,16 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
               if (addFeature.canAdd(boundaryContext)) {
                 PictogramElement newBoundaryContainer = addFeature.add(boundaryContext);
-                featureProvider.link(newBoundaryContainer, new Object[] { boundaryEvent });
+                link(newBoundaryContainer, boundaryEvent);
               }
             }
           }
         } else if (addFeature.canAdd(context)) {
           PictogramElement newContainer = addFeature.add(context);
-          featureProvider.link(newContainer, new Object[] { flowElement });
+          link(newContainer, flowElement);
 
           if (flowElement instanceof SubProcess) {
-            drawFlowElements(((SubProcess) flowElement).getFlowElements(), locationMap, (ContainerShape) newContainer, process);
+            drawFlowElements(((SubProcess) flowElement).getFlowElements(), locationMap, (ContainerShape) newContainer, model);
           }
         }
       }
@@ -523,18 +645,11 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     return result;
   }
 
-  private ContainerShape getParentContainer(String flowElementId, Process process, Diagram diagram) {
-    Lane foundLane = null;
-    for (Lane lane : process.getLanes()) {
-      if (lane.getFlowReferences().contains(flowElementId)) {
-        foundLane = lane;
-        break;
-      }
-    }
+  private ContainerShape getParentContainer(String flowElementId, Bpmn2MemoryModel model, Diagram diagram) {
+    final Lane foundLane = model.getLane(flowElementId);
 
     if (foundLane != null) {
-      final IFeatureProvider featureProvider = getDiagramTypeProvider().getFeatureProvider();
-      return (ContainerShape) featureProvider.getPictogramElementForBusinessObject(foundLane);
+      return (ContainerShape) getPictogramElement(foundLane);
     } else {
       return diagram;
     }
@@ -550,7 +665,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
   }
 
   private void drawArtifacts(final Collection<Artifact> artifacts, final Map<String, GraphicInfo> locationMap, final ContainerShape parent,
-          final Process process) {
+          final Bpmn2MemoryModel model) {
 
     final IFeatureProvider featureProvider = getDiagramTypeProvider().getFeatureProvider();
 
@@ -578,7 +693,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
         ContainerShape parentContainer = null;
         if (parent instanceof Diagram) {
-          parentContainer = getParentContainer(artifact.getId(), process, (Diagram) parent);
+          parentContainer = getParentContainer(artifact.getId(), model, (Diagram) parent);
         } else {
           parentContainer = parent;
         }
@@ -594,7 +709,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
         if (addFeature.canAdd(context)) {
           final PictogramElement newContainer = addFeature.add(context);
-          featureProvider.link(newContainer, new Object[] { artifact });
+          link(newContainer, artifact);
         }
       }
     }
@@ -632,8 +747,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
   private void drawSequenceFlow(SequenceFlow sequenceFlow, Bpmn2MemoryModel model) {
     Anchor sourceAnchor = null;
     Anchor targetAnchor = null;
-    ContainerShape sourceShape = (ContainerShape) getDiagramTypeProvider().getFeatureProvider().getPictogramElementForBusinessObject(
-            model.getFlowElement(sequenceFlow.getSourceRef()));
+    ContainerShape sourceShape = (ContainerShape) getPictogramElement(model.getFlowElement(sequenceFlow.getSourceRef()));
 
     if (sourceShape == null) {
       return;
@@ -647,8 +761,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
       }
     }
 
-    ContainerShape targetShape = (ContainerShape) getDiagramTypeProvider().getFeatureProvider().getPictogramElementForBusinessObject(
-            model.getFlowElement(sequenceFlow.getTargetRef()));
+    ContainerShape targetShape = (ContainerShape) getPictogramElement(model.getFlowElement(sequenceFlow.getTargetRef()));
 
     if (targetShape == null) {
       return;
@@ -703,7 +816,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     if (sourceElement == null) {
       return;
     }
-    ContainerShape sourceShape = (ContainerShape) getDiagramTypeProvider().getFeatureProvider().getPictogramElementForBusinessObject(sourceElement);
+    ContainerShape sourceShape = (ContainerShape) getPictogramElement(sourceElement);
 
     if (sourceShape == null) {
       return;
@@ -724,7 +837,7 @@ public class ActivitiDiagramEditor extends DiagramEditor {
     if (targetElement == null) {
       return;
     }
-    ContainerShape targetShape = (ContainerShape) getDiagramTypeProvider().getFeatureProvider().getPictogramElementForBusinessObject(targetElement);
+    ContainerShape targetShape = (ContainerShape) getPictogramElement(targetElement);
 
     if (targetShape == null) {
       return;
@@ -765,6 +878,10 @@ public class ActivitiDiagramEditor extends DiagramEditor {
       IFigure gridFigure = ((LayerManager) rootEditPart).getLayer(LayerConstants.GRID_LAYER);
       gridFigure.setVisible(false);
     }
+    // the diagram is imported when the layout is done
+    if (layoutJob != null) {
+      setGraphicalViewerEnabled(false);
+    }
     // setPartName("MyDiagram2");
   }
 
@@ -779,6 +896,32 @@ public class ActivitiDiagramEditor extends DiagramEditor {
 
   @Override
   public void dispose() {
+    if (layoutJob != null) {
+      layoutJob.cancel();
+      layoutJob = null;
+    }
+
+    // the model must not go away while it is being saved, the UI keeps processing events while
+    // waiting as the save job paints the diagram image in the UI thread. Only the last save of
+    // this editor is waited for: the saves of an editor share the rule of its files and run in
+    // order, the saves of other editors do not use this model
+    final BpmnModelSaveJob saveJob = pendingSaveJob;
+    if (saveJob != null) {
+      try {
+        PlatformUI.getWorkbench().getProgressService().busyCursorWhile(new IRunnableWithProgress() {
+
+          @Override
+          public void run(IProgressMonitor monitor) throws InterruptedException {
+            saveJob.join();
+          }
+        });
+      } catch (InvocationTargetException e) {
+        Logger.logError("Unable to wait for the save of " + saveJob.getName(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
     super.dispose();
 
     final ActivitiDiagramEditorInput adei = (ActivitiDiagramEditorInput) getEditorInput();
@@ -0,0 +1,320 @@
+package org.activiti.designer.eclipse.editor;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.activiti.designer.eclipse.common.ActivitiPlugin;
+import org.activiti.designer.eclipse.util.BpmnXMLStreamConverter;
+import org.activiti.designer.util.editor.Bpmn2MemoryModel;
+import org.activiti.designer.util.trace.PerformanceTrace;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.emf.transaction.ResourceSetChangeEvent;
+import org.eclipse.emf.transaction.ResourceSetListenerImpl;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+
+/**
+ * Writes the BPMN model of a diagram to its data file in the background. The XML of the model is
+ * streamed to a temporary file while holding exclusive read access to the editing domain of the
+ * diagram, so no command can change the model in the meantime and the document is never held in
+ * memory as a whole. If requested, the diagram image is rendered once the editing domain has been
+ * released, so painting the diagram in the UI thread never waits for it. Commands executed after
+ * the XML was written are noticed before each part of the image is painted, the image is then
+ * discarded and rendered again with the next save. Each temporary file replaces its file once it
+ * has been written completely. If the temporary file cannot replace the file, it is kept and its
+ * path is part of the error. Only the data file and the image file of the diagram are refreshed in
+ * the workspace.
+ *
+ * @since 5.12.1
+ *
+ */
+public class BpmnModelSaveJob extends Job {
+
+  /**
+   * The family of all save jobs, e.g. to wait for pending saves.
+   */
+  public static final Object FAMILY = BpmnModelSaveJob.class;
+
+  private static final String TEMP_FILE_SUFFIX = ".saving";
+  private static final String BACKUP_FILE_SUFFIX = ".backup";
+
+  private final Bpmn2MemoryModel model;
+  private final TransactionalEditingDomain editingDomain;
+  private final IFile dataFile;
+  private final IFile imageFile;
+  private final DiagramImageRenderer imageRenderer;
+
+  /**
+   * Creates a job writing the model to the provided data file.
+   *
+   * @param model
+   *          the model to write
+   * @param editingDomain
+   *          the editing domain commands changing the model are executed in
+   * @param dataFile
+   *          the file to write the model to
+   * @param imageFile
+   *          the image file to refresh along with the data file or null if no
+   *          image is saved
+   * @param imageRenderer
+   *          the renderer to write the image file with or null if the image
+   *          file is up to date
+   */
+  public BpmnModelSaveJob(final Bpmn2MemoryModel model, final TransactionalEditingDomain editingDomain, final IFile dataFile,
+          final IFile imageFile, final DiagramImageRenderer imageRenderer) {
+    super("Saving " + dataFile.getName());
+
+    this.model = model;
+    this.editingDomain = editingDomain;
+    this.dataFile = dataFile;
+    this.imageFile = imageFile;
+    this.imageRenderer = imageFile != null ? imageRenderer : null;
+
+    final IResourceRuleFactory ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+    ISchedulingRule rule = MultiRule.combine(ruleFactory.modifyRule(dataFile), ruleFactory.refreshRule(dataFile));
+    if (imageFile != null) {
+      rule = MultiRule.combine(rule, ruleFactory.modifyRule(imageFile));
+      rule = MultiRule.combine(rule, ruleFactory.refreshRule(imageFile));
+    }
+    setRule(rule);
+  }
+
+  /**
+   * Gets the image file that belongs to the provided data file, e.g. "process.png" for
+   * "process.bpmn20.xml".
+   */
+  public static IFile getImageFile(final IFile dataFile) {
+    final String dataFileName = dataFile.getName();
+
+    String imageFileName = null;
+    if (dataFileName.endsWith(".bpmn20.xml")) {
+      imageFileName = dataFileName.substring(0, dataFileName.length() - 11) + ".png";
+    } else if (dataFileName.lastIndexOf(".") > 0) {
+      imageFileName = dataFileName.substring(0, dataFileName.lastIndexOf(".")) + ".png";
+    } else {
+      imageFileName = dataFileName + ".png";
+    }
+    return dataFile.getParent().getFile(new Path(imageFileName));
+  }
+
+  @Override
+  public boolean belongsTo(final Object family) {
+    return FAMILY.equals(family);
+  }
+
+  @Override
+  protected IStatus run(final IProgressMonitor monitor) {
+    monitor.beginTask(getName(), imageRenderer != null ? 13 : 3);
+
+    boolean imageWritten = true;
+    try {
+      monitor.subTask("Converting " + dataFile.getName());
+      final Snapshot snapshot = takeSnapshot();
+      monitor.worked(1);
+
+      try {
+        monitor.subTask("Writing " + dataFile.getName());
+        replace(new File(dataFile.getLocationURI().getPath()), snapshot.xmlFile);
+        monitor.worked(1);
+
+        if (imageRenderer != null) {
+          monitor.subTask("Rendering " + imageFile.getName());
+          imageWritten = writeImage(snapshot.changeListener, new SubProgressMonitor(monitor, 10));
+        }
+      } finally {
+        if (snapshot.changeListener != null) {
+          editingDomain.removeResourceSetListener(snapshot.changeListener);
+        }
+      }
+
+      monitor.subTask("Refreshing the workspace");
+      dataFile.refreshLocal(IResource.DEPTH_ZERO, null);
+      if (imageFile != null) {
+        imageFile.refreshLocal(IResource.DEPTH_ZERO, null);
+      }
+      monitor.worked(1);
+
+    } catch (OperationCanceledException e) {
+      return Status.CANCEL_STATUS;
+    } catch (Exception e) {
+      return new Status(IStatus.ERROR, ActivitiPlugin.PLUGIN_ID, "Unable to save " + dataFile.getFullPath(), e);
+    } finally {
+      monitor.done();
+    }
+
+    if (!imageWritten) {
+      return new Status(IStatus.WARNING, ActivitiPlugin.PLUGIN_ID, "The diagram changed while the image of " + dataFile.getFullPath()
+              + " was rendered, the image is rendered again with the next save");
+    }
+    return Status.OK_STATUS;
+  }
+
+  /**
+   * Streams the XML of the model to a temporary file while the model is read
+   * exclusively. If an image is requested, a listener for the commands
+   * executed afterwards is registered in the same exclusive read, so the image
+   * can tell whether the diagram still shows the state that is written.
+   */
+  private Snapshot takeSnapshot() throws Exception {
+    final Snapshot snapshot = new Snapshot();
+    editingDomain.runExclusive(snapshot);
+
+    if (snapshot.failure != null) {
+      if (snapshot.xmlFile != null) {
+        snapshot.xmlFile.delete();
+      }
+      if (snapshot.changeListener != null) {
+        editingDomain.removeResourceSetListener(snapshot.changeListener);
+      }
+      throw snapshot.failure;
+    }
+    return snapshot;
+  }
+
+  /**
+   * Renders the diagram image to a temporary file that replaces the image file
+   * once it has been written completely. The tiles of the image are painted in
+   * the UI thread and each row is written to the file right away.
+   *
+   * @return false if the diagram changed before the image was complete, the
+   *         image file is kept as it is then
+   */
+  private boolean writeImage(final ChangeListener changeListener, final IProgressMonitor imageMonitor) throws IOException {
+    final File file = new File(imageFile.getLocationURI().getPath());
+    final File tempFile = getTempFile(file);
+
+    final long start = PerformanceTrace.begin();
+    boolean written = false;
+    try {
+      final OutputStream out = new FileOutputStream(tempFile);
+      try {
+        written = imageRenderer.write(out, changeListener, imageMonitor);
+      } finally {
+        out.close();
+      }
+    } finally {
+      PerformanceTrace.end("Render image", imageFile.getName(), start);
+      imageMonitor.done();
+      if (!written) {
+        tempFile.delete();
+      }
+    }
+
+    if (written) {
+      replace(file, tempFile);
+    }
+    return written;
+  }
+
+  private static File getTempFile(final File file) {
+    return new File(file.getParentFile(), file.getName() + TEMP_FILE_SUFFIX);
+  }
+
+  /**
+   * Replaces the provided file with the temporary file. The original file is
+   * moved aside and only deleted once the temporary file is in its place. If
+   * the temporary file cannot be moved, it is kept and the original file is
+   * restored.
+   */
+  private void replace(final File file, final File tempFile) throws IOException {
+    // renaming does not replace an existing file on all platforms
+    if (tempFile.renameTo(file)) {
+      return;
+    }
+
+    final File backupFile = new File(file.getParentFile(), file.getName() + BACKUP_FILE_SUFFIX);
+    backupFile.delete();
+    if (file.exists() && file.renameTo(backupFile) == false) {
+      throw new IOException("Unable to replace " + file + ", the new content was kept in " + tempFile);
+    }
+    if (tempFile.renameTo(file) == false) {
+      backupFile.renameTo(file);
+      throw new IOException("Unable to replace " + file + ", the new content was kept in " + tempFile);
+    }
+    backupFile.delete();
+  }
+
+  /**
+   * Writes the XML while the editing domain is read exclusively. Failures are
+   * kept, since the editing domain replaces the status of a RunnableWithResult
+   * with the status of its transaction.
+   */
+  private class Snapshot implements Runnable {
+
+    private Exception failure;
+    private File xmlFile;
+    private ChangeListener changeListener;
+
+    @Override
+    public void run() {
+      try {
+        final File tempFile = getTempFile(new File(dataFile.getLocationURI().getPath()));
+        final long start = PerformanceTrace.begin();
+        boolean written = false;
+        try {
+          final OutputStream out = new FileOutputStream(tempFile);
+          try {
+            new BpmnXMLStreamConverter().convertToXML(model.getBpmnModel(), out);
+          } finally {
+            out.close();
+          }
+          written = true;
+        } finally {
+          PerformanceTrace.end("Convert to XML", dataFile.getName(), start);
+          if (!written) {
+            tempFile.delete();
+          }
+        }
+        xmlFile = tempFile;
+
+        if (imageRenderer != null) {
+          // no command can be committed before the listener is registered
+          changeListener = new ChangeListener();
+          editingDomain.addResourceSetListener(changeListener);
+        }
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+
+  }
+
+  /**
+   * Notices commands committed after the XML was written, i.e. the diagram no
+   * longer shows the state of the data file.
+   */
+  private static class ChangeListener extends ResourceSetListenerImpl implements DiagramImageRenderer.DiagramState {
+
+    private volatile boolean changed;
+
+    @Override
+    public boolean isPostcommitOnly() {
+      return true;
+    }
+
+    @Override
+    public void resourceSetChanged(final ResourceSetChangeEvent event) {
+      changed = true;
+    }
+
+    @Override
+    public boolean isChanged() {
+      return changed;
+    }
+
+  }
+
+}
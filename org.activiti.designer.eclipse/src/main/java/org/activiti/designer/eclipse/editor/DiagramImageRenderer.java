@@ -0,0 +1,337 @@
+package org.activiti.designer.eclipse.editor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.GraphicalViewer;
+import org.eclipse.gef.LayerConstants;
+import org.eclipse.gef.editparts.LayerManager;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Renders the printable layers of a diagram to a PNG image. The diagram is painted in tiles of a
+ * fixed size, one row of tiles at a time in the UI thread, and each row of tiles is encoded and
+ * written before the next one is painted. This keeps the memory needed independent of the height
+ * of the diagram and allows the encoding to run outside of the UI thread. Since the diagram is not
+ * painted at once, the caller is asked before each row of tiles whether the diagram still shows
+ * the state the image is rendered for.
+ *
+ * @since 5.12.1
+ *
+ */
+public class DiagramImageRenderer {
+
+  private static final int TILE_SIZE = 512;
+
+  private final Display display;
+  private final GraphicalViewer graphicalViewer;
+  private final IFigure rootFigure;
+  private final IFigure gridFigure;
+  private final double scale;
+  private final int width;
+  private final int height;
+
+  private DiagramImageRenderer(final GraphicalViewer graphicalViewer, final IFigure rootFigure, final IFigure gridFigure, final double scale) {
+    this.display = graphicalViewer.getControl().getDisplay();
+    this.graphicalViewer = graphicalViewer;
+    this.rootFigure = rootFigure;
+    this.gridFigure = gridFigure;
+    this.scale = scale;
+
+    final Rectangle rootFigureBounds = rootFigure.getBounds();
+    this.width = Math.max(1, (int) Math.ceil(rootFigureBounds.width * scale));
+    this.height = Math.max(1, (int) Math.ceil(rootFigureBounds.height * scale));
+  }
+
+  /**
+   * Creates a renderer for the diagram shown in the provided viewer. Must be
+   * invoked in the UI thread.
+   *
+   * @param graphicalViewer
+   *          the viewer showing the diagram
+   * @param scale
+   *          the factor to scale the diagram with, e.g. 0.5 for an image half
+   *          the size of the diagram
+   * @return the renderer or null if the viewer shows no diagram
+   */
+  public static DiagramImageRenderer create(final GraphicalViewer graphicalViewer, final double scale) {
+    if (graphicalViewer == null || graphicalViewer.getControl() == null || graphicalViewer.getEditPartRegistry() == null) {
+      return null;
+    }
+
+    final LayerManager layerManager = (LayerManager) graphicalViewer.getEditPartRegistry().get(LayerManager.ID);
+    if (layerManager == null) {
+      return null;
+    }
+
+    return new DiagramImageRenderer(graphicalViewer, layerManager.getLayer(LayerConstants.PRINTABLE_LAYERS),
+            layerManager.getLayer(LayerConstants.GRID_LAYER), scale);
+  }
+
+  /**
+   * Renders the diagram and writes it as PNG image to the provided stream. May
+   * be invoked outside of the UI thread, the tiles are painted in the UI
+   * thread.
+   *
+   * @param out
+   *          the stream to write the image to, not closed by this method
+   * @param diagramState
+   *          the state of the diagram the image is rendered for
+   * @param monitor
+   *          the monitor to report progress to and check for cancellation
+   * @return true if the image has been written, false if the diagram changed
+   *         before all of it was painted and the image is incomplete
+   * @throws IOException
+   *           if the image cannot be written
+   * @throws OperationCanceledException
+   *           if the monitor has been canceled
+   */
+  public boolean write(final OutputStream out, final DiagramState diagramState, final IProgressMonitor monitor) throws IOException {
+    final PngEncoder encoder = new PngEncoder(out, width, height);
+    final byte[] row = new byte[width * 3];
+    final int[] pixels = new int[TILE_SIZE];
+
+    monitor.beginTask("Rendering the diagram image", (height + TILE_SIZE - 1) / TILE_SIZE);
+
+    boolean firstBand = true;
+    for (int bandY = 0; bandY < height; bandY += TILE_SIZE) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+
+      final int bandHeight = Math.min(TILE_SIZE, height - bandY);
+      final ImageData[] tiles = paintBand(bandY, bandHeight, firstBand, diagramState);
+      if (tiles == null) {
+        return false;
+      }
+      firstBand = false;
+
+      for (int y = 0; y < bandHeight; y++) {
+        int offset = 0;
+        for (final ImageData tile : tiles) {
+          offset = copyRow(tile, y, pixels, row, offset);
+        }
+        encoder.writeRow(row);
+      }
+      monitor.worked(1);
+    }
+
+    encoder.finish();
+    return true;
+  }
+
+  /**
+   * Paints a row of tiles in the UI thread.
+   *
+   * @return the tiles or null if the diagram no longer shows the state
+   */
+  private ImageData[] paintBand(final int bandY, final int bandHeight, final boolean deselect, final DiagramState diagramState) {
+    final ImageData[] tiles = new ImageData[(width + TILE_SIZE - 1) / TILE_SIZE];
+    final boolean[] changed = new boolean[1];
+
+    display.syncExec(new Runnable() {
+
+      @Override
+      public void run() {
+        if (diagramState.isChanged()) {
+          changed[0] = true;
+          return;
+        }
+
+        final boolean toggleRequired = gridFigure != null && gridFigure.isShowing();
+        if (toggleRequired) {
+          // Disable any grids temporarily
+          gridFigure.setVisible(false);
+        }
+        if (deselect) {
+          // Deselect any selections
+          graphicalViewer.deselectAll();
+        }
+
+        try {
+          for (int i = 0; i < tiles.length; i++) {
+            final int tileX = i * TILE_SIZE;
+            tiles[i] = paintTile(tileX, bandY, Math.min(TILE_SIZE, width - tileX), bandHeight);
+          }
+        } finally {
+          if (toggleRequired) {
+            // Re-enable any grids
+            gridFigure.setVisible(true);
+          }
+        }
+      }
+    });
+
+    return changed[0] ? null : tiles;
+  }
+
+  private ImageData paintTile(final int x, final int y, final int tileWidth, final int tileHeight) {
+    final Image image = new Image(display, tileWidth, tileHeight);
+    final GC imageGC = new GC(image);
+    final SWTGraphics graphics = new SWTGraphics(imageGC);
+    try {
+      graphics.translate(-x, -y);
+      if (scale != 1.0) {
+        graphics.scale(scale);
+      }
+      rootFigure.paint(graphics);
+      return image.getImageData();
+    } finally {
+      graphics.dispose();
+      imageGC.dispose();
+      image.dispose();
+    }
+  }
+
+  private static int copyRow(final ImageData tile, final int y, final int[] pixels, final byte[] row, final int offset) {
+    final PaletteData palette = tile.palette;
+    tile.getPixels(0, y, tile.width, pixels, 0);
+
+    int index = offset;
+    for (int x = 0; x < tile.width; x++) {
+      final int pixel = pixels[x];
+      if (palette.isDirect) {
+        row[index++] = (byte) shift(pixel & palette.redMask, palette.redShift);
+        row[index++] = (byte) shift(pixel & palette.greenMask, palette.greenShift);
+        row[index++] = (byte) shift(pixel & palette.blueMask, palette.blueShift);
+      } else {
+        final RGB rgb = palette.colors[pixel];
+        row[index++] = (byte) rgb.red;
+        row[index++] = (byte) rgb.green;
+        row[index++] = (byte) rgb.blue;
+      }
+    }
+    return index;
+  }
+
+  private static int shift(final int value, final int shift) {
+    return shift < 0 ? value >>> -shift : value << shift;
+  }
+
+  /**
+   * The state of the diagram an image is rendered for.
+   */
+  public interface DiagramState {
+
+    /**
+     * Tells whether the diagram has changed since the image has been
+     * requested. Invoked in the UI thread before each row of tiles is painted.
+     */
+    boolean isChanged();
+  }
+
+  /**
+   * Writes 8 bit RGB images in the PNG format row by row.
+   */
+  private static class PngEncoder {
+
+    private static final byte[] SIGNATURE = new byte[] { (byte) 137, 80, 78, 71, 13, 10, 26, 10 };
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final DeflaterOutputStream imageData;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] filteredRow;
+
+    public PngEncoder(final OutputStream out, final int width, final int height) throws IOException {
+      this.out = new DataOutputStream(out);
+      this.filteredRow = new byte[width * 3 + 1];
+
+      this.out.write(SIGNATURE);
+
+      final ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+      final DataOutputStream headerData = new DataOutputStream(header);
+      headerData.writeInt(width);
+      headerData.writeInt(height);
+      // bit depth 8, color type RGB, deflate compression, adaptive filtering, no interlace
+      headerData.write(new byte[] { 8, 2, 0, 0, 0 });
+      writeChunk("IHDR", header.toByteArray(), header.size());
+
+      this.imageData = new DeflaterOutputStream(new ChunkOutputStream(), deflater, CHUNK_SIZE);
+    }
+
+    public void writeRow(final byte[] row) throws IOException {
+      // filter type sub, each byte is stored as difference to the same color of the previous pixel
+      filteredRow[0] = 1;
+      for (int i = 0; i < row.length; i++) {
+        filteredRow[i + 1] = (byte) (row[i] - (i >= 3 ? row[i - 3] : 0));
+      }
+      imageData.write(filteredRow);
+    }
+
+    public void finish() throws IOException {
+      imageData.finish();
+      imageData.flush();
+      deflater.end();
+      writeChunk("IEND", new byte[0], 0);
+      out.flush();
+    }
+
+    private void writeChunk(final String type, final byte[] data, final int length) throws IOException {
+      final byte[] typeBytes = type.getBytes("US-ASCII");
+      final CRC32 crc = new CRC32();
+      crc.update(typeBytes);
+      crc.update(data, 0, length);
+
+      out.writeInt(length);
+      out.write(typeBytes);
+      out.write(data, 0, length);
+      out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Collects the compressed image data and writes it as IDAT chunks.
+     */
+    private class ChunkOutputStream extends OutputStream {
+
+      private final byte[] buffer = new byte[CHUNK_SIZE];
+      private int count;
+
+      @Override
+      public void write(final int b) throws IOException {
+        if (count == buffer.length) {
+          flush();
+        }
+        buffer[count++] = (byte) b;
+      }
+
+      @Override
+      public void write(final byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+          if (count == buffer.length) {
+            flush();
+          }
+          final int n = Math.min(len, buffer.length - count);
+          System.arraycopy(b, off, buffer, count, n);
+          count += n;
+          off += n;
+          len -= n;
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        if (count > 0) {
+          writeChunk("IDAT", buffer, count);
+          count = 0;
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+package org.activiti.designer.eclipse.editor;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.Process;
+import org.activiti.designer.eclipse.common.ActivitiPlugin;
+import org.activiti.designer.util.trace.PerformanceTrace;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Computes the layout of a model without diagram interchange information in the background. The
+ * layout is computed on a model of its own that shares the processes of the provided model, so
+ * the diagram interchange information of the provided model is only changed in the UI thread,
+ * right before the callback runs. The layout is stored in the {@link LayoutCache}.
+ *
+ * <p>
+ * The job can be canceled before each process is laid out, the layout of a single process cannot
+ * be interrupted. If the job is canceled or fails, the model is left as it is and the callback
+ * receives false.
+ *
+ * @since 5.12.1
+ *
+ */
+class DiagramLayoutJob extends Job {
+
+  /**
+   * Receives the result of the layout in the UI thread.
+   */
+  interface Callback {
+
+    /**
+     * @param laidOut
+     *          true if the diagram interchange information was added to the
+     *          model, false if the layout was canceled or failed
+     */
+    void layoutDone(boolean laidOut);
+  }
+
+  private final String fileName;
+  private final BpmnModel bpmnModel;
+  private final BpmnModel layoutModel;
+  private final String structureHash;
+  private final Callback callback;
+
+  public DiagramLayoutJob(final String fileName, final BpmnModel bpmnModel, final String structureHash, final Callback callback) {
+    super("Laying out " + fileName);
+    this.fileName = fileName;
+    this.bpmnModel = bpmnModel;
+    this.structureHash = structureHash;
+    this.callback = callback;
+
+    this.layoutModel = new BpmnModel();
+    for (final Process process : bpmnModel.getProcesses()) {
+      layoutModel.addProcess(process);
+    }
+
+    setUser(true);
+    setPriority(LONG);
+  }
+
+  @Override
+  protected IStatus run(final IProgressMonitor monitor) {
+    monitor.beginTask(getName(), layoutModel.getProcesses().size());
+
+    IStatus result = Status.OK_STATUS;
+    final long start = PerformanceTrace.begin();
+    try {
+      new CancelableAutoLayout(layoutModel, monitor).execute();
+      LayoutCache.put(structureHash, layoutModel);
+    } catch (OperationCanceledException e) {
+      result = Status.CANCEL_STATUS;
+    } catch (RuntimeException e) {
+      result = new Status(IStatus.ERROR, ActivitiPlugin.PLUGIN_ID, "Unable to lay out " + fileName, e);
+    } finally {
+      PerformanceTrace.end("Auto layout", fileName, start);
+      monitor.done();
+    }
+
+    final boolean laidOut = result.isOK();
+    Display.getDefault().asyncExec(new Runnable() {
+
+      @Override
+      public void run() {
+        if (laidOut) {
+          bpmnModel.getLocationMap().putAll(layoutModel.getLocationMap());
+          bpmnModel.getFlowLocationMap().putAll(layoutModel.getFlowLocationMap());
+        }
+        callback.layoutDone(laidOut);
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Checks for cancellation before each process is laid out. Sub processes
+   * are laid out by layouts of their own.
+   */
+  private static class CancelableAutoLayout extends BpmnAutoLayout {
+
+    private final IProgressMonitor monitor;
+
+    public CancelableAutoLayout(final BpmnModel bpmnModel, final IProgressMonitor monitor) {
+      super(bpmnModel);
+      this.monitor = monitor;
+    }
+
+    @Override
+    protected void layout(final FlowElementsContainer flowElementsContainer) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+      super.layout(flowElementsContainer);
+      monitor.worked(1);
+    }
+
+  }
+
+}
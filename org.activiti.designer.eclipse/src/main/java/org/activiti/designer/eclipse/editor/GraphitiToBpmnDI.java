@@ -2,7 +2,9 @@ package org.activiti.designer.eclipse.editor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.activiti.bpmn.model.Activity;
 import org.activiti.bpmn.model.Artifact;
@@ -21,13 +23,23 @@ import org.apache.commons.lang.StringUtils;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.graphiti.datatypes.ILocation;
 import org.eclipse.graphiti.features.IFeatureProvider;
+import org.eclipse.graphiti.mm.pictograms.Anchor;
+import org.eclipse.graphiti.mm.pictograms.AnchorContainer;
+import org.eclipse.graphiti.mm.pictograms.Connection;
 import org.eclipse.graphiti.mm.pictograms.ConnectionDecorator;
+import org.eclipse.graphiti.mm.pictograms.ContainerShape;
+import org.eclipse.graphiti.mm.pictograms.Diagram;
 import org.eclipse.graphiti.mm.pictograms.FreeFormConnection;
 import org.eclipse.graphiti.mm.pictograms.PictogramElement;
 import org.eclipse.graphiti.mm.pictograms.Shape;
 import org.eclipse.graphiti.services.Graphiti;
 
 
+/**
+ * Stores the locations, sizes and bend points of the diagram elements as diagram interchange
+ * information in the BPMN model. The information is either rebuilt for the whole diagram or, when
+ * the information in the model is known to be valid, updated for the changed diagram elements only.
+ */
 public class GraphitiToBpmnDI {
   
   protected Bpmn2MemoryModel model;
@@ -38,7 +50,65 @@ public class GraphitiToBpmnDI {
     this.featureProvider = featureProvider;
   }
 
+  /**
+   * Updates the diagram interchange information of the changed pictogram elements, the elements
+   * contained in them and the connections attached to them. Falls back to a full rebuild if the
+   * diagram interchange information of the model is not valid.
+   * 
+   * @param changedElements the pictogram elements changed since the last save
+   */
+  public void processGraphitiElements(Collection<PictogramElement> changedElements) throws Exception {
+    if (changedElements == null || model.isDiagramInterchangeValid() == false) {
+      processGraphitiElements();
+      return;
+    }
+    
+    model.setDiagramInterchangeValid(false);
+    
+    Set<PictogramElement> shapes = new HashSet<PictogramElement>();
+    Set<Connection> connections = new HashSet<Connection>();
+    for (PictogramElement changedElement : changedElements) {
+      if (changedElement.eResource() == null) {
+        // removed from the diagram in the meantime
+        continue;
+      }
+      if (changedElement instanceof Connection) {
+        connections.add((Connection) changedElement);
+      } else if (changedElement instanceof Shape) {
+        collectShapes((Shape) changedElement, shapes, connections);
+      }
+    }
+    
+    Set<Object> updatedElements = new HashSet<Object>();
+    for (PictogramElement shape : shapes) {
+      Object bo = featureProvider.getBusinessObjectForPictogramElement(shape);
+      if (bo instanceof BaseElement && bo instanceof SequenceFlow == false && bo instanceof Association == false 
+              && updatedElements.add(bo)) {
+        updateFlowElement((BaseElement) bo, getOwningShape((Shape) shape, bo));
+      }
+    }
+    
+    for (Connection connection : connections) {
+      if (connection instanceof FreeFormConnection == false) {
+        continue;
+      }
+      Object bo = featureProvider.getBusinessObjectForPictogramElement(connection);
+      if (bo instanceof SequenceFlow) {
+        updateSequenceFlow((SequenceFlow) bo, (FreeFormConnection) connection);
+      } else if (bo instanceof Association) {
+        updateAssociation((Association) bo, (FreeFormConnection) connection);
+      }
+    }
+    
+    model.setDiagramInterchangeValid(true);
+  }
+  
+  /**
+   * Rebuilds the diagram interchange information for all elements of the diagram and removes
+   * elements without pictogram element from the model.
+   */
   public void processGraphitiElements() throws Exception {
+    model.setDiagramInterchangeValid(false);
     model.getBpmnModel().getFlowLocationMap().clear();
     model.getBpmnModel().getLocationMap().clear();
     model.getBpmnModel().getLabelLocationMap().clear();
@@ -79,6 +149,43 @@ public class GraphitiToBpmnDI {
       loopThroughElements(process.getFlowElements(), process);
       loopThroughElements(process.getArtifacts(), process);
     }
+    
+    model.setDiagramInterchangeValid(true);
+  }
+  
+  protected void collectShapes(Shape shape, Set<PictogramElement> shapes, Set<Connection> connections) {
+    if (shapes.add(shape) == false) {
+      return;
+    }
+    
+    // the absolute location of the attached connections and of all nested shapes moves with the shape
+    collectConnections(shape, connections);
+    if (shape instanceof ContainerShape) {
+      for (Shape child : ((ContainerShape) shape).getChildren()) {
+        collectShapes(child, shapes, connections);
+      }
+    }
+  }
+  
+  /**
+   * Gets the top level shape of a business object. Labels and other decorations are child shapes
+   * linked to the same business object as the shape they belong to, their bounds must not end up
+   * in the diagram interchange information of the element.
+   */
+  protected Shape getOwningShape(Shape shape, Object bo) {
+    Shape result = shape;
+    while (result.getContainer() != null && result.getContainer() instanceof Diagram == false
+            && bo.equals(featureProvider.getBusinessObjectForPictogramElement(result.getContainer()))) {
+      result = result.getContainer();
+    }
+    return result;
+  }
+  
+  protected void collectConnections(AnchorContainer anchorContainer, Set<Connection> connections) {
+    for (Anchor anchor : anchorContainer.getAnchors()) {
+      connections.addAll(anchor.getIncomingConnections());
+      connections.addAll(anchor.getOutgoingConnections());
+    }
   }
   
   protected void loopThroughElements(Collection<? extends BaseElement> elementList, BaseElement parentElement) throws Exception {
@@ -139,7 +246,10 @@ public class GraphitiToBpmnDI {
   }
   
   protected void updateFlowElement(BaseElement flowElement) {
-    PictogramElement picElement = featureProvider.getPictogramElementForBusinessObject(flowElement);
+    updateFlowElement(flowElement, featureProvider.getPictogramElementForBusinessObject(flowElement));
+  }
+  
+  protected void updateFlowElement(BaseElement flowElement, PictogramElement picElement) {
     if(picElement instanceof Shape) {
       Shape shape = (Shape) picElement;
       ILocation shapeLocation = Graphiti.getLayoutService().getLocationRelativeToDiagram(shape);
@@ -167,6 +277,22 @@ public class GraphitiToBpmnDI {
     if(freeFormConnection == null) 
       return;
     
+    updateSequenceFlow(sequenceFlow, sourceShape, targetShape, freeFormConnection);
+  }
+  
+  protected void updateSequenceFlow(SequenceFlow sequenceFlow, FreeFormConnection freeFormConnection) {
+    Shape sourceShape = getConnectedShape(freeFormConnection.getStart());
+    Shape targetShape = getConnectedShape(freeFormConnection.getEnd());
+    if(sourceShape == null || targetShape == null) {
+      // the connection is not attached to shapes, look the shapes up by the references of the flow
+      updateSequenceFlow(sequenceFlow);
+      return;
+    }
+    
+    updateSequenceFlow(sequenceFlow, sourceShape, targetShape, freeFormConnection);
+  }
+  
+  protected void updateSequenceFlow(SequenceFlow sequenceFlow, Shape sourceShape, Shape targetShape, FreeFormConnection freeFormConnection) {
     List<GraphicInfo> flowGraphicsList = createFlowGraphicInfoList(sourceShape, targetShape, freeFormConnection);
     model.getBpmnModel().addFlowGraphicInfoList(sequenceFlow.getId(), flowGraphicsList);
     
@@ -214,6 +340,25 @@ public class GraphitiToBpmnDI {
     model.getBpmnModel().addFlowGraphicInfoList(association.getId(), flowGraphicsList);
   }
   
+  protected void updateAssociation(Association association, FreeFormConnection freeFormConnection) {
+    Shape sourceShape = getConnectedShape(freeFormConnection.getStart());
+    Shape targetShape = getConnectedShape(freeFormConnection.getEnd());
+    if(sourceShape == null || targetShape == null) {
+      updateAssociation(association);
+      return;
+    }
+    
+    List<GraphicInfo> flowGraphicsList = createFlowGraphicInfoList(sourceShape, targetShape, freeFormConnection);
+    model.getBpmnModel().addFlowGraphicInfoList(association.getId(), flowGraphicsList);
+  }
+  
+  protected Shape getConnectedShape(Anchor anchor) {
+    if(anchor != null && anchor.getParent() instanceof Shape) {
+      return (Shape) anchor.getParent();
+    }
+    return null;
+  }
+  
   protected List<GraphicInfo> createFlowGraphicInfoList(Shape sourceElement, Shape targetElement, FreeFormConnection freeFormConnection) {
     ILocation sourceLocation = Graphiti.getLayoutService().getLocationRelativeToDiagram(sourceElement);
     int sourceX = sourceLocation.getX();
@@ -0,0 +1,257 @@
+package org.activiti.designer.eclipse.editor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.GraphicInfo;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.designer.eclipse.common.ActivitiPlugin;
+
+/**
+ * Keeps the diagram interchange information computed by the auto layout of models that have none,
+ * so the layout does not have to be computed again when the same model is opened another time.
+ * Layouts are stored in the state location of the plugin, keyed by a hash of the structure of the
+ * processes: the elements, their types and how they are connected. Changes that do not affect the
+ * layout, like a new name for a task, keep the hash. Only the most recently used layouts are
+ * kept.
+ *
+ * @since 5.12.1
+ *
+ */
+final class LayoutCache {
+
+  private static final String CACHE_FOLDER = "layout";
+  private static final String FILE_EXTENSION = ".layout";
+
+  /**
+   * The version of the file format, part of the hash so a new format does not
+   * read the files of an old one.
+   */
+  private static final int VERSION = 1;
+
+  private static final int MAX_ENTRIES = 200;
+
+  private LayoutCache() {
+
+  }
+
+  /**
+   * Gets a hash of the structure of the processes of the provided model.
+   */
+  public static String getStructureHash(final BpmnModel bpmnModel) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      update(digest, Integer.toString(VERSION));
+      for (final Process process : bpmnModel.getProcesses()) {
+        update(digest, process.getId());
+        update(digest, process.getFlowElements());
+      }
+
+      final StringBuilder result = new StringBuilder();
+      for (final byte b : digest.digest()) {
+        result.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Adds the layout stored for the hash to the provided model.
+   *
+   * @param structureHash
+   *          the hash of the structure of the model
+   * @param bpmnModel
+   *          the model to add the diagram interchange information to
+   * @return true if a layout was found and added, false otherwise
+   */
+  public static synchronized boolean apply(final String structureHash, final BpmnModel bpmnModel) {
+    final File file = new File(getCacheFolder(), structureHash + FILE_EXTENSION);
+    if (!file.isFile()) {
+      return false;
+    }
+
+    // read everything before touching the model, so a damaged file does not
+    // leave a partial layout behind
+    final Map<String, GraphicInfo> locations = new HashMap<String, GraphicInfo>();
+    final Map<String, List<GraphicInfo>> flowLocations = new HashMap<String, List<GraphicInfo>>();
+    try {
+      final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        if (in.readInt() != VERSION) {
+          return false;
+        }
+        final int locationCount = in.readInt();
+        for (int i = 0; i < locationCount; i++) {
+          final String id = in.readUTF();
+          final GraphicInfo graphicInfo = readGraphicInfo(in);
+          graphicInfo.setWidth(in.readDouble());
+          graphicInfo.setHeight(in.readDouble());
+          locations.put(id, graphicInfo);
+        }
+        final int flowCount = in.readInt();
+        for (int i = 0; i < flowCount; i++) {
+          final String id = in.readUTF();
+          final int pointCount = in.readInt();
+          final List<GraphicInfo> points = new ArrayList<GraphicInfo>(pointCount);
+          for (int j = 0; j < pointCount; j++) {
+            points.add(readGraphicInfo(in));
+          }
+          flowLocations.put(id, points);
+        }
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      file.delete();
+      return false;
+    }
+
+    bpmnModel.getLocationMap().putAll(locations);
+    bpmnModel.getFlowLocationMap().putAll(flowLocations);
+
+    // keep recently used layouts when pruning
+    file.setLastModified(System.currentTimeMillis());
+    return true;
+  }
+
+  /**
+   * Stores the layout of the provided model for the hash.
+   *
+   * @param structureHash
+   *          the hash of the structure of the model
+   * @param bpmnModel
+   *          the model holding the diagram interchange information
+   */
+  public static synchronized void put(final String structureHash, final BpmnModel bpmnModel) {
+    final File folder = getCacheFolder();
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      return;
+    }
+
+    final File file = new File(folder, structureHash + FILE_EXTENSION);
+    final File tempFile = new File(folder, structureHash + ".tmp");
+    try {
+      final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      try {
+        out.writeInt(VERSION);
+        out.writeInt(bpmnModel.getLocationMap().size());
+        for (final Map.Entry<String, GraphicInfo> location : bpmnModel.getLocationMap().entrySet()) {
+          out.writeUTF(location.getKey());
+          writeGraphicInfo(out, location.getValue());
+          out.writeDouble(location.getValue().getWidth());
+          out.writeDouble(location.getValue().getHeight());
+        }
+        out.writeInt(bpmnModel.getFlowLocationMap().size());
+        for (final Map.Entry<String, List<GraphicInfo>> flowLocation : bpmnModel.getFlowLocationMap().entrySet()) {
+          out.writeUTF(flowLocation.getKey());
+          out.writeInt(flowLocation.getValue().size());
+          for (final GraphicInfo point : flowLocation.getValue()) {
+            writeGraphicInfo(out, point);
+          }
+        }
+      } finally {
+        out.close();
+      }
+
+      file.delete();
+      if (!tempFile.renameTo(file)) {
+        tempFile.delete();
+      }
+    } catch (IOException e) {
+      // the layout is only cached, it is computed again next time
+      tempFile.delete();
+    }
+
+    prune(folder);
+  }
+
+  private static void prune(final File folder) {
+    final File[] files = folder.listFiles();
+    if (files == null || files.length <= MAX_ENTRIES) {
+      return;
+    }
+
+    // oldest first
+    Arrays.sort(files, new Comparator<File>() {
+
+      @Override
+      public int compare(final File file1, final File file2) {
+        final long lastModified1 = file1.lastModified();
+        final long lastModified2 = file2.lastModified();
+        return lastModified1 < lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+      }
+    });
+    for (int i = 0; i < files.length - MAX_ENTRIES; i++) {
+      files[i].delete();
+    }
+  }
+
+  private static GraphicInfo readGraphicInfo(final DataInputStream in) throws IOException {
+    final GraphicInfo result = new GraphicInfo();
+    result.setX(in.readDouble());
+    result.setY(in.readDouble());
+    return result;
+  }
+
+  private static void writeGraphicInfo(final DataOutputStream out, final GraphicInfo graphicInfo) throws IOException {
+    out.writeDouble(graphicInfo.getX());
+    out.writeDouble(graphicInfo.getY());
+  }
+
+  private static File getCacheFolder() {
+    return ActivitiPlugin.getDefault().getStateLocation().append(CACHE_FOLDER).toFile();
+  }
+
+  private static void update(final MessageDigest digest, final Collection<FlowElement> flowElements) {
+    for (final FlowElement flowElement : flowElements) {
+      update(digest, flowElement.getClass().getName());
+      update(digest, flowElement.getId());
+      if (flowElement instanceof SequenceFlow) {
+        update(digest, ((SequenceFlow) flowElement).getSourceRef());
+        update(digest, ((SequenceFlow) flowElement).getTargetRef());
+      } else if (flowElement instanceof BoundaryEvent) {
+        update(digest, ((BoundaryEvent) flowElement).getAttachedToRefId());
+      } else if (flowElement instanceof SubProcess) {
+        update(digest, "{");
+        update(digest, ((SubProcess) flowElement).getFlowElements());
+        update(digest, "}");
+      }
+    }
+  }
+
+  private static void update(final MessageDigest digest, final String value) {
+    if (value == null) {
+      digest.update((byte) 1);
+      return;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      digest.update((byte) (c >> 8));
+      digest.update((byte) c);
+    }
+    digest.update((byte) 0);
+  }
+
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.activiti.bpmn.model.FlowElement;
+import org.activiti.designer.eclipse.Logger;
 import org.activiti.designer.eclipse.extension.export.ExportMarshaller;
 import org.activiti.designer.eclipse.extension.validation.ProcessValidator;
 import org.activiti.designer.util.ActivitiConstants;
@@ -63,6 +64,9 @@ public abstract class AbstractDiagramWorker {
 
   private static final int EXTRACTION_WORK_UNIT = 1;
 
+  // workers are shared, so every thread has its own marker update
+  private final ThreadLocal<DiagramMarkerWriter> markerWriter = new ThreadLocal<DiagramMarkerWriter>();
+
   /**
    * Gets an {@link InputStream} to the contents of the provided {@link Diagram}
    * .
@@ -317,32 +321,66 @@ public abstract class AbstractDiagramWorker {
     addMarkerToDiagram(diagram, message, nodeId, IMarker.SEVERITY_ERROR);
   }
 
-  private void addMarkerToDiagram(Diagram diagram, String message, String nodeId, final int severity) {
+  /**
+   * Starts collecting the markers added to the provided {@link Diagram}
+   * instead of creating them right away. Until
+   * {@link #commitMarkerUpdate()} or {@link #discardMarkerUpdate()} is
+   * invoked, {@link #clearMarkers(IResource)} has no effect and added markers
+   * are only recorded, so callers must end the update in a finally block. Committing replaces the
+   * markers of this worker with the recorded ones in a single workspace
+   * operation that leaves markers which have not changed untouched, so
+   * revalidating an unchanged diagram does not cause any resource changes.
+   * 
+   * @param diagram
+   *          the diagram the markers are added to
+   */
+  protected void beginMarkerUpdate(final Diagram diagram) {
+    markerWriter.set(new DiagramMarkerWriter(getFileForDiagram(diagram), getMarkerId(), this.getClass().getCanonicalName()));
+  }
 
-    final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+  /**
+   * Replaces the markers of this worker with the markers added since
+   * {@link #beginMarkerUpdate(Diagram)} was invoked.
+   */
+  protected void commitMarkerUpdate() {
+    final DiagramMarkerWriter writer = markerWriter.get();
+    markerWriter.remove();
+    if (writer != null) {
+      try {
+        writer.apply();
+      } catch (CoreException e) {
+        Logger.logError("Unable to update the markers of " + this.getClass().getCanonicalName(), e);
+      }
+    }
+  }
 
-    final IFile file = workspace.getRoot().getFile(new Path(getURIForDiagram(diagram).toPlatformString(true)));
+  /**
+   * Drops the markers added since {@link #beginMarkerUpdate(Diagram)} was
+   * invoked, keeping the existing markers of this worker.
+   */
+  protected void discardMarkerUpdate() {
+    markerWriter.remove();
+  }
 
-    // Determine marker id
-    String markerId = ActivitiConstants.ACTIVITI_GENERAL_MARKER_ID;
-    if (this instanceof ExportMarshaller) {
-      markerId = ExportMarshaller.MARKER_ID;
-    } else if (this instanceof ProcessValidator) {
-      markerId = ProcessValidator.MARKER_ID;
+  private void addMarkerToDiagram(Diagram diagram, String message, String nodeId, final int severity) {
+
+    final DiagramMarkerWriter writer = markerWriter.get();
+    if (writer != null) {
+      writer.addMarker(message, nodeId, severity);
+      return;
     }
 
-    IMarker m;
+    final IFile file = getFileForDiagram(diagram);
+
     try {
-      m = file.createMarker(markerId);
+      final IMarker m = file.createMarker(getMarkerId());
       if (nodeId != null) {
-        m.setAttribute(ATTRIBUTE_NODE_ID, nodeId);
+        m.setAttributes(new String[] { ATTRIBUTE_NODE_ID, ATTRIBUTE_WORKER_ID, IMarker.MESSAGE, IMarker.PRIORITY, IMarker.SEVERITY }, new Object[] { nodeId,
+            this.getClass().getCanonicalName(), message, IMarker.PRIORITY_HIGH, severity });
+      } else {
+        m.setAttributes(new String[] { ATTRIBUTE_WORKER_ID, IMarker.MESSAGE, IMarker.PRIORITY, IMarker.SEVERITY }, new Object[] {
+            this.getClass().getCanonicalName(), message, IMarker.PRIORITY_HIGH, severity });
       }
-
-      m.setAttribute(ATTRIBUTE_WORKER_ID, this.getClass().getCanonicalName());
-
-      m.setAttribute(IMarker.MESSAGE, message);
-      m.setAttribute(IMarker.PRIORITY, IMarker.PRIORITY_HIGH);
-      m.setAttribute(IMarker.SEVERITY, severity);
     } catch (CoreException e) {
       // TODO Auto-generated catch block
       e.printStackTrace();
@@ -352,16 +390,13 @@ public abstract class AbstractDiagramWorker {
 
   protected void clearMarkers(IResource resource) {
 
-    // Determine marker id
-    String markerId = ActivitiConstants.ACTIVITI_GENERAL_MARKER_ID;
-    if (this instanceof ExportMarshaller) {
-      markerId = ExportMarshaller.MARKER_ID;
-    } else if (this instanceof ProcessValidator) {
-      markerId = ProcessValidator.MARKER_ID;
+    if (markerWriter.get() != null) {
+      // the markers are replaced when the update is committed
+      return;
     }
 
     try {
-      final IMarker[] markers = resource.findMarkers(markerId, true, IResource.DEPTH_INFINITE);
+      final IMarker[] markers = resource.findMarkers(getMarkerId(), true, IResource.DEPTH_INFINITE);
       for (final IMarker marker : markers) {
         if (marker.getAttribute(ATTRIBUTE_WORKER_ID).equals(this.getClass().getCanonicalName())) {
           marker.delete();
@@ -372,6 +407,20 @@ public abstract class AbstractDiagramWorker {
     }
   }
 
+  private IFile getFileForDiagram(final Diagram diagram) {
+    return ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(getURIForDiagram(diagram).toPlatformString(true)));
+  }
+
+  private String getMarkerId() {
+    String markerId = ActivitiConstants.ACTIVITI_GENERAL_MARKER_ID;
+    if (this instanceof ExportMarshaller) {
+      markerId = ExportMarshaller.MARKER_ID;
+    } else if (this instanceof ProcessValidator) {
+      markerId = ProcessValidator.MARKER_ID;
+    }
+    return markerId;
+  }
+
   protected IMarker[] getMarkers(IResource resource) {
     IMarker[] markers = null;
     try {
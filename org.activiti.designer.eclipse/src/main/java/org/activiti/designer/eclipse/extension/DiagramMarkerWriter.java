@@ -0,0 +1,138 @@
+package org.activiti.designer.eclipse.extension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Replaces the markers a diagram worker created on a file with a new set of markers. The new
+ * markers are collected first and compared to the existing ones when they are applied: markers
+ * that exist already are left alone, markers that are gone are deleted and only new markers are
+ * created. All changes are made in a single workspace operation, so at most one resource change
+ * event is fired and none at all if the markers did not change.
+ *
+ * @since 5.12.1
+ *
+ */
+final class DiagramMarkerWriter {
+
+  private static final String[] ATTRIBUTE_NAMES = new String[] { AbstractDiagramWorker.ATTRIBUTE_NODE_ID, AbstractDiagramWorker.ATTRIBUTE_WORKER_ID,
+      IMarker.MESSAGE, IMarker.PRIORITY, IMarker.SEVERITY };
+
+  private final IFile file;
+  private final String markerId;
+  private final String workerId;
+
+  private final List<Object[]> newMarkers = new ArrayList<Object[]>();
+
+  public DiagramMarkerWriter(final IFile file, final String markerId, final String workerId) {
+    this.file = file;
+    this.markerId = markerId;
+    this.workerId = workerId;
+  }
+
+  /**
+   * Adds a marker to the new set of markers.
+   */
+  public void addMarker(final String message, final String nodeId, final int severity) {
+    newMarkers.add(new Object[] { nodeId, workerId, message, IMarker.PRIORITY_HIGH, severity });
+  }
+
+  /**
+   * Replaces the markers of the worker on the file with the markers added to
+   * this writer.
+   */
+  public void apply() throws CoreException {
+    if (!file.exists()) {
+      return;
+    }
+
+    final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+    workspace.run(new IWorkspaceRunnable() {
+
+      @Override
+      public void run(final IProgressMonitor monitor) throws CoreException {
+        applyDifferences();
+      }
+    }, workspace.getRuleFactory().markerRule(file), IWorkspace.AVOID_UPDATE, null);
+  }
+
+  private void applyDifferences() throws CoreException {
+    // the existing markers of the worker by their attributes, the same marker may exist more than once
+    final Map<MarkerKey, List<IMarker>> existingMarkers = new HashMap<MarkerKey, List<IMarker>>();
+    for (final IMarker marker : file.findMarkers(markerId, true, IResource.DEPTH_INFINITE)) {
+      if (workerId.equals(marker.getAttribute(AbstractDiagramWorker.ATTRIBUTE_WORKER_ID))) {
+        final MarkerKey key = new MarkerKey(marker.getAttributes(ATTRIBUTE_NAMES));
+        if (!existingMarkers.containsKey(key)) {
+          existingMarkers.put(key, new ArrayList<IMarker>());
+        }
+        existingMarkers.get(key).add(marker);
+      }
+    }
+
+    // every new marker matches at most one existing marker, so a marker reported n times ends up
+    // n times on the file no matter how often it existed before
+    final List<Object[]> createdMarkers = new ArrayList<Object[]>();
+    for (final Object[] attributes : newMarkers) {
+      final MarkerKey key = new MarkerKey(attributes);
+      final List<IMarker> matchingMarkers = existingMarkers.get(key);
+      if (matchingMarkers != null && !matchingMarkers.isEmpty()) {
+        // unchanged, keep the existing marker
+        matchingMarkers.remove(matchingMarkers.size() - 1);
+      } else {
+        createdMarkers.add(attributes);
+      }
+    }
+
+    for (final List<IMarker> obsoleteMarkers : existingMarkers.values()) {
+      for (final IMarker marker : obsoleteMarkers) {
+        marker.delete();
+      }
+    }
+
+    for (final Object[] attributes : createdMarkers) {
+      final IMarker marker = file.createMarker(markerId);
+      if (attributes[0] != null) {
+        marker.setAttributes(ATTRIBUTE_NAMES, attributes);
+      } else {
+        // the node id is optional
+        marker.setAttributes(Arrays.copyOfRange(ATTRIBUTE_NAMES, 1, ATTRIBUTE_NAMES.length), Arrays.copyOfRange(attributes, 1, attributes.length));
+      }
+    }
+  }
+
+  /**
+   * Compares markers by the values of their attributes.
+   */
+  private static class MarkerKey {
+
+    private final List<Object> values;
+
+    public MarkerKey(final Object[] values) {
+      this.values = Arrays.asList(values);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof MarkerKey && values.equals(((MarkerKey) obj).values);
+    }
+
+    @Override
+    public int hashCode() {
+      return values.hashCode();
+    }
+
+  }
+
+}
@@ -9,6 +9,7 @@ import java.util.List;
 import org.activiti.designer.eclipse.extension.AbstractDiagramWorker;
 import org.activiti.designer.eclipse.extension.validation.ProcessValidator;
 import org.activiti.designer.eclipse.util.ExtensionPointUtil;
+import org.activiti.designer.util.trace.PerformanceTrace;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
@@ -61,10 +62,15 @@ public abstract class AbstractExportMarshaller extends AbstractDiagramWorker imp
 
             monitor.subTask("Invoking " + processValidator.getValidatorName());
 
-            if (!(processValidator.validateDiagram(diagram, new SubProgressMonitor(activeMonitor, WORK_INVOKE_VALIDATORS_VALIDATOR)))) {
-              // don't break if one result is false: keep validating to get
-              // all of the problems
-              overallResult = false;
+            final long start = PerformanceTrace.begin();
+            try {
+              if (!(processValidator.validateDiagram(diagram, new SubProgressMonitor(activeMonitor, WORK_INVOKE_VALIDATORS_VALIDATOR)))) {
+                // don't break if one result is false: keep validating to get
+                // all of the problems
+                overallResult = false;
+              }
+            } finally {
+              PerformanceTrace.end("Validator", processValidator.getValidatorId(), start);
             }
           }
         }
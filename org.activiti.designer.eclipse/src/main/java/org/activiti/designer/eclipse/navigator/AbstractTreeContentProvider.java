@@ -39,6 +39,8 @@ public abstract class AbstractTreeContentProvider implements ITreeContentProvide
 
   private StructuredViewer viewer;
 
+  private final TreeRefreshScheduler refreshScheduler = new TreeRefreshScheduler("Update Activiti Models in CommonViewer"); //$NON-NLS-1$
+
   public AbstractTreeContentProvider() {
     super();
     ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
@@ -48,6 +50,7 @@ public abstract class AbstractTreeContentProvider implements ITreeContentProvide
   public void dispose() {
     cachedModelMap.clear();
     ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+    refreshScheduler.dispose();
   }
 
   @Override
@@ -55,6 +58,7 @@ public abstract class AbstractTreeContentProvider implements ITreeContentProvide
     if (oldInput != null && !oldInput.equals(newInput))
       cachedModelMap.clear();
     viewer = (StructuredViewer) aViewer;
+    refreshScheduler.setViewer(viewer);
   }
 
   @Override
@@ -98,6 +102,26 @@ public abstract class AbstractTreeContentProvider implements ITreeContentProvide
     return viewer;
   }
 
+  /**
+   * Requests a refresh of the provided element in the viewer. Requests are
+   * collected for a short time and refreshed in one batch, see
+   * {@link TreeRefreshScheduler}.
+   * 
+   * @param element
+   *          the element to refresh
+   */
+  protected final void scheduleRefresh(final Object element) {
+    refreshScheduler.scheduleRefresh(element);
+  }
+
+  /**
+   * Gets the number of refresh requests that have been merged into other
+   * requests since this provider has been created.
+   */
+  public long getCoalescedRefreshCount() {
+    return refreshScheduler.getCoalescedRefreshCount();
+  }
+
   protected final void addModelToCache(final IResource resource, final List<TreeNode> treeNodes) {
     cachedModelMap.put(resource, treeNodes);
   }
@@ -0,0 +1,139 @@
+package org.activiti.designer.eclipse.navigator;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.ui.progress.UIJob;
+
+/**
+ * Collects the elements of a viewer that need to be refreshed because of resource changes and
+ * refreshes them in batches. Refresh requests are gathered for a short time before a single UI job
+ * refreshes all of them. Each batch is reduced to its common roots before it is refreshed: the
+ * resources requested in a project are refreshed once, through the deepest folder containing all
+ * of them, and elements requested more than once are refreshed only once. Projects are never
+ * merged into the workspace root, which would refresh the whole tree.
+ *
+ * @since 5.12.1
+ *
+ */
+class TreeRefreshScheduler {
+
+  private static final long REFRESH_DELAY = 200L;
+
+  private final Set<Object> pendingElements = new LinkedHashSet<Object>();
+
+  private final UIJob refreshJob;
+
+  private StructuredViewer viewer;
+
+  private long coalescedRefreshCount;
+
+  public TreeRefreshScheduler(final String name) {
+    refreshJob = new UIJob(name) {
+
+      @Override
+      public IStatus runInUIThread(final IProgressMonitor monitor) {
+        refreshPendingElements();
+        return Status.OK_STATUS;
+      }
+    };
+    refreshJob.setSystem(true);
+  }
+
+  public synchronized void setViewer(final StructuredViewer viewer) {
+    this.viewer = viewer;
+  }
+
+  /**
+   * Requests a refresh of the provided element of the viewer.
+   */
+  public void scheduleRefresh(final Object element) {
+    synchronized (this) {
+      if (!pendingElements.add(element)) {
+        coalescedRefreshCount++;
+      }
+    }
+    // scheduling the sleeping job again restarts the delay, so a burst of changes is refreshed once
+    // it is over
+    refreshJob.schedule(REFRESH_DELAY);
+  }
+
+  /**
+   * Gets the number of refresh requests that have been merged into another
+   * request instead of causing a refresh of their own.
+   */
+  public synchronized long getCoalescedRefreshCount() {
+    return coalescedRefreshCount;
+  }
+
+  public void dispose() {
+    refreshJob.cancel();
+    synchronized (this) {
+      pendingElements.clear();
+      viewer = null;
+    }
+  }
+
+  private void refreshPendingElements() {
+    final Set<Object> roots;
+    final StructuredViewer currentViewer;
+    synchronized (this) {
+      roots = getCommonRoots(pendingElements);
+      coalescedRefreshCount += pendingElements.size() - roots.size();
+      pendingElements.clear();
+      currentViewer = viewer;
+    }
+
+    if (currentViewer == null || currentViewer.getControl().isDisposed()) {
+      return;
+    }
+
+    for (final Object element : roots) {
+      currentViewer.refresh(element);
+    }
+  }
+
+  /**
+   * Reduces the elements to the common roots of the resources in each
+   * project: the deepest folder, or the project itself, that contains all
+   * requested resources of the project. Elements other than resources are
+   * kept as they are.
+   */
+  private static Set<Object> getCommonRoots(final Set<Object> elements) {
+    final Set<Object> result = new LinkedHashSet<Object>();
+    final Map<IProject, IResource> projectRoots = new LinkedHashMap<IProject, IResource>();
+    for (final Object element : elements) {
+      if (element instanceof IResource && ((IResource) element).getProject() != null) {
+        final IResource resource = (IResource) element;
+        final IResource projectRoot = projectRoots.get(resource.getProject());
+        projectRoots.put(resource.getProject(), projectRoot == null ? resource : getCommonAncestor(projectRoot, resource));
+      } else {
+        result.add(element);
+      }
+    }
+    result.addAll(projectRoots.values());
+    return result;
+  }
+
+  private static IResource getCommonAncestor(final IResource first, final IResource second) {
+    final Set<IResource> ancestors = new HashSet<IResource>();
+    for (IResource ancestor = first; ancestor != null; ancestor = ancestor.getParent()) {
+      ancestors.add(ancestor);
+    }
+    IResource result = second;
+    while (!ancestors.contains(result)) {
+      result = result.getParent();
+    }
+    return result;
+  }
+
+}
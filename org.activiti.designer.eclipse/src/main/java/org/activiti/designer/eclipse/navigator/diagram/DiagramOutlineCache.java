@@ -0,0 +1,92 @@
+package org.activiti.designer.eclipse.navigator.diagram;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.activiti.bpmn.model.BpmnModel;
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Caches the outlines of the BPMN files shown in the project explorer. Entries are keyed by the
+ * file and are only valid as long as the modification stamp of the file is unchanged. The least
+ * recently used entries are dropped once the cache is full.
+ *
+ * @since 5.12.1
+ *
+ */
+final class DiagramOutlineCache {
+
+  private static final int MAX_ENTRIES = 1000;
+
+  private static final Map<IFile, Entry> ENTRIES = new LinkedHashMap<IFile, Entry>(16, 0.75f, true) {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<IFile, Entry> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  private DiagramOutlineCache() {
+
+  }
+
+  /**
+   * Gets the outline of the provided file, reading it if it has not been read
+   * yet or has changed since it was read.
+   *
+   * @param modelFile
+   *          the BPMN file
+   * @return the outline of the file, an empty model if the file does not exist
+   *         or cannot be read
+   */
+  public static synchronized BpmnModel getOutline(final IFile modelFile) {
+    final long modificationStamp = modelFile.getModificationStamp();
+
+    final Entry entry = ENTRIES.get(modelFile);
+    if (entry != null && entry.modificationStamp == modificationStamp) {
+      return entry.outline;
+    }
+
+    final BpmnModel outline = readOutline(modelFile);
+    ENTRIES.put(modelFile, new Entry(modificationStamp, outline));
+    return outline;
+  }
+
+  private static BpmnModel readOutline(final IFile modelFile) {
+    final File bpmnFile = new File(modelFile.getLocationURI().getPath());
+    if (!bpmnFile.exists()) {
+      return new BpmnModel();
+    }
+
+    try {
+      final InputStream in = new BufferedInputStream(new FileInputStream(bpmnFile));
+      try {
+        return DiagramOutlineParser.parse(in);
+      } finally {
+        in.close();
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      return new BpmnModel();
+    }
+  }
+
+  private static class Entry {
+
+    private final long modificationStamp;
+    private final BpmnModel outline;
+
+    public Entry(final long modificationStamp, final BpmnModel outline) {
+      this.modificationStamp = modificationStamp;
+      this.outline = outline;
+    }
+
+  }
+
+}
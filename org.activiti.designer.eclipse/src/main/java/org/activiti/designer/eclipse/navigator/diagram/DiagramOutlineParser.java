@@ -0,0 +1,240 @@
+package org.activiti.designer.eclipse.navigator.diagram;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.activiti.bpmn.constants.BpmnXMLConstants;
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.BusinessRuleTask;
+import org.activiti.bpmn.model.CallActivity;
+import org.activiti.bpmn.model.CancelEventDefinition;
+import org.activiti.bpmn.model.CompensateEventDefinition;
+import org.activiti.bpmn.model.EndEvent;
+import org.activiti.bpmn.model.ErrorEventDefinition;
+import org.activiti.bpmn.model.Event;
+import org.activiti.bpmn.model.EventDefinition;
+import org.activiti.bpmn.model.EventGateway;
+import org.activiti.bpmn.model.EventSubProcess;
+import org.activiti.bpmn.model.ExclusiveGateway;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.InclusiveGateway;
+import org.activiti.bpmn.model.IntermediateCatchEvent;
+import org.activiti.bpmn.model.Lane;
+import org.activiti.bpmn.model.ManualTask;
+import org.activiti.bpmn.model.MessageEventDefinition;
+import org.activiti.bpmn.model.ParallelGateway;
+import org.activiti.bpmn.model.Pool;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.ReceiveTask;
+import org.activiti.bpmn.model.ScriptTask;
+import org.activiti.bpmn.model.SendTask;
+import org.activiti.bpmn.model.SequenceFlow;
+import org.activiti.bpmn.model.ServiceTask;
+import org.activiti.bpmn.model.SignalEventDefinition;
+import org.activiti.bpmn.model.StartEvent;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.bpmn.model.TerminateEventDefinition;
+import org.activiti.bpmn.model.ThrowEvent;
+import org.activiti.bpmn.model.TimerEventDefinition;
+import org.activiti.bpmn.model.Transaction;
+import org.activiti.bpmn.model.UserTask;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Reads the outline of a BPMN 2.0 XML document: the pools, the processes with their lanes and the
+ * flow elements nested in processes and sub processes. Only the ids, names, element types and the
+ * few attributes needed to pick an icon are read, everything else is skipped and reading stops at
+ * the diagram interchange section. The processes and elements found are the same ones the
+ * {@link org.activiti.bpmn.converter.BpmnXMLConverter} would create.
+ *
+ * @since 5.12.1
+ *
+ */
+final class DiagramOutlineParser implements BpmnXMLConstants {
+
+  private static final Map<String, Class< ? extends FlowElement>> FLOW_ELEMENT_TYPES = new HashMap<String, Class< ? extends FlowElement>>();
+  private static final Map<String, Class< ? extends EventDefinition>> EVENT_DEFINITION_TYPES = new HashMap<String, Class< ? extends EventDefinition>>();
+
+  static {
+    FLOW_ELEMENT_TYPES.put("startEvent", StartEvent.class);
+    FLOW_ELEMENT_TYPES.put("endEvent", EndEvent.class);
+    FLOW_ELEMENT_TYPES.put("boundaryEvent", BoundaryEvent.class);
+    FLOW_ELEMENT_TYPES.put("intermediateCatchEvent", IntermediateCatchEvent.class);
+    FLOW_ELEMENT_TYPES.put("intermediateThrowEvent", ThrowEvent.class);
+    FLOW_ELEMENT_TYPES.put("userTask", UserTask.class);
+    FLOW_ELEMENT_TYPES.put("serviceTask", ServiceTask.class);
+    FLOW_ELEMENT_TYPES.put("scriptTask", ScriptTask.class);
+    FLOW_ELEMENT_TYPES.put("manualTask", ManualTask.class);
+    FLOW_ELEMENT_TYPES.put("task", ManualTask.class);
+    FLOW_ELEMENT_TYPES.put("receiveTask", ReceiveTask.class);
+    FLOW_ELEMENT_TYPES.put("sendTask", SendTask.class);
+    FLOW_ELEMENT_TYPES.put("businessRuleTask", BusinessRuleTask.class);
+    FLOW_ELEMENT_TYPES.put("callActivity", CallActivity.class);
+    FLOW_ELEMENT_TYPES.put("exclusiveGateway", ExclusiveGateway.class);
+    FLOW_ELEMENT_TYPES.put("inclusiveGateway", InclusiveGateway.class);
+    FLOW_ELEMENT_TYPES.put("parallelGateway", ParallelGateway.class);
+    FLOW_ELEMENT_TYPES.put("eventBasedGateway", EventGateway.class);
+    FLOW_ELEMENT_TYPES.put("sequenceFlow", SequenceFlow.class);
+
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_TIMERDEFINITION, TimerEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_ERRORDEFINITION, ErrorEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_SIGNALDEFINITION, SignalEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_MESSAGEDEFINITION, MessageEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_TERMINATEDEFINITION, TerminateEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_CANCELDEFINITION, CancelEventDefinition.class);
+    EVENT_DEFINITION_TYPES.put(ELEMENT_EVENT_COMPENSATEDEFINITION, CompensateEventDefinition.class);
+  }
+
+  private DiagramOutlineParser() {
+
+  }
+
+  /**
+   * Reads the outline of the BPMN 2.0 XML document in the provided stream.
+   *
+   * @param inputStream
+   *          the stream to read, not closed by this method
+   * @return the model holding the outline of the document
+   */
+  public static BpmnModel parse(final InputStream inputStream) throws XMLStreamException, InstantiationException, IllegalAccessException {
+    final BpmnModel model = new BpmnModel();
+
+    final XMLStreamReader xtr = XMLInputFactory.newInstance().createXMLStreamReader(inputStream, "UTF-8");
+    try {
+      Process activeProcess = null;
+      final LinkedList<SubProcess> activeSubProcesses = new LinkedList<SubProcess>();
+      FlowElement activeFlowElement = null;
+      String activeFlowElementName = null;
+
+      while (xtr.hasNext()) {
+        final int event = xtr.next();
+
+        if (event == XMLStreamConstants.END_ELEMENT) {
+          if (activeFlowElement != null && xtr.getLocalName().equals(activeFlowElementName)) {
+            activeFlowElement = null;
+          } else if ((ELEMENT_SUBPROCESS.equals(xtr.getLocalName()) || ELEMENT_TRANSACTION.equals(xtr.getLocalName()))
+                  && !activeSubProcesses.isEmpty()) {
+            activeSubProcesses.removeLast();
+          }
+          continue;
+        }
+
+        if (event != XMLStreamConstants.START_ELEMENT) {
+          continue;
+        }
+
+        final String elementName = xtr.getLocalName();
+
+        if (ELEMENT_DI_DIAGRAM.equals(elementName)) {
+          // nothing but the diagram interchange information follows
+          break;
+
+        } else if (ELEMENT_PARTICIPANT.equals(elementName)) {
+          if (StringUtils.isNotEmpty(xtr.getAttributeValue(null, ATTRIBUTE_ID))) {
+            final Pool pool = new Pool();
+            pool.setId(xtr.getAttributeValue(null, ATTRIBUTE_ID));
+            pool.setName(xtr.getAttributeValue(null, ATTRIBUTE_NAME));
+            pool.setProcessRef(xtr.getAttributeValue(null, ATTRIBUTE_PROCESS_REF));
+            model.getPools().add(pool);
+          }
+
+        } else if (ELEMENT_PROCESS.equals(elementName)) {
+          if (StringUtils.isNotEmpty(xtr.getAttributeValue(null, ATTRIBUTE_ID))) {
+            activeProcess = new Process();
+            activeProcess.setId(xtr.getAttributeValue(null, ATTRIBUTE_ID));
+            activeProcess.setName(xtr.getAttributeValue(null, ATTRIBUTE_NAME));
+            if (StringUtils.isNotEmpty(xtr.getAttributeValue(null, ATTRIBUTE_PROCESS_EXECUTABLE))) {
+              activeProcess.setExecutable(Boolean.parseBoolean(xtr.getAttributeValue(null, ATTRIBUTE_PROCESS_EXECUTABLE)));
+            }
+            if (activeProcess.isExecutable()) {
+              model.getProcesses().add(activeProcess);
+            }
+            activeSubProcesses.clear();
+          }
+
+        } else if (activeProcess == null || !activeProcess.isExecutable()) {
+          // the elements of processes that are not executable are ignored
+          continue;
+
+        } else if (ELEMENT_LANE.equals(elementName)) {
+          parseLane(xtr, activeProcess);
+
+        } else if (ELEMENT_SUBPROCESS.equals(elementName) || ELEMENT_TRANSACTION.equals(elementName)) {
+          SubProcess subProcess = null;
+          if (ELEMENT_TRANSACTION.equals(elementName)) {
+            subProcess = new Transaction();
+          } else if ("true".equalsIgnoreCase(xtr.getAttributeValue(null, ATTRIBUTE_TRIGGERED_BY))) {
+            subProcess = new EventSubProcess();
+          } else {
+            subProcess = new SubProcess();
+          }
+          subProcess.setId(xtr.getAttributeValue(null, ATTRIBUTE_ID));
+          subProcess.setName(xtr.getAttributeValue(null, ATTRIBUTE_NAME));
+          addFlowElement(subProcess, activeProcess, activeSubProcesses);
+          activeSubProcesses.add(subProcess);
+
+        } else if (activeFlowElement == null && FLOW_ELEMENT_TYPES.containsKey(elementName)) {
+          activeFlowElement = FLOW_ELEMENT_TYPES.get(elementName).newInstance();
+          activeFlowElementName = elementName;
+          activeFlowElement.setId(xtr.getAttributeValue(null, ATTRIBUTE_ID));
+          activeFlowElement.setName(xtr.getAttributeValue(null, ATTRIBUTE_NAME));
+          readAttributes(xtr, activeFlowElement);
+          addFlowElement(activeFlowElement, activeProcess, activeSubProcesses);
+
+        } else if (activeFlowElement instanceof Event && EVENT_DEFINITION_TYPES.containsKey(elementName)) {
+          ((Event) activeFlowElement).getEventDefinitions().add(EVENT_DEFINITION_TYPES.get(elementName).newInstance());
+        }
+      }
+
+    } finally {
+      xtr.close();
+    }
+
+    return model;
+  }
+
+  private static void parseLane(final XMLStreamReader xtr, final Process process) throws XMLStreamException {
+    final Lane lane = new Lane();
+    lane.setId(xtr.getAttributeValue(null, ATTRIBUTE_ID));
+    lane.setName(xtr.getAttributeValue(null, ATTRIBUTE_NAME));
+    lane.setParentProcess(process);
+    process.getLanes().add(lane);
+
+    while (xtr.hasNext()) {
+      final int event = xtr.next();
+      if (event == XMLStreamConstants.START_ELEMENT && ATTRIBUTE_FLOWNODE_REF.equalsIgnoreCase(xtr.getLocalName())) {
+        lane.getFlowReferences().add(xtr.getElementText());
+      } else if (event == XMLStreamConstants.END_ELEMENT && ELEMENT_LANE.equalsIgnoreCase(xtr.getLocalName())) {
+        break;
+      }
+    }
+  }
+
+  private static void readAttributes(final XMLStreamReader xtr, final FlowElement flowElement) {
+    if (flowElement instanceof ServiceTask) {
+      ((ServiceTask) flowElement).setType(xtr.getAttributeValue(ACTIVITI_EXTENSIONS_NAMESPACE, ATTRIBUTE_TYPE));
+    } else if (flowElement instanceof BoundaryEvent) {
+      ((BoundaryEvent) flowElement).setAttachedToRefId(xtr.getAttributeValue(null, ATTRIBUTE_BOUNDARY_ATTACHEDTOREF));
+    } else if (flowElement instanceof SequenceFlow) {
+      ((SequenceFlow) flowElement).setSourceRef(xtr.getAttributeValue(null, ATTRIBUTE_FLOW_SOURCE_REF));
+      ((SequenceFlow) flowElement).setTargetRef(xtr.getAttributeValue(null, ATTRIBUTE_FLOW_TARGET_REF));
+    }
+  }
+
+  private static void addFlowElement(final FlowElement flowElement, final Process process, final LinkedList<SubProcess> activeSubProcesses) {
+    if (activeSubProcesses.isEmpty()) {
+      process.addFlowElement(flowElement);
+    } else {
+      activeSubProcesses.getLast().addFlowElement(flowElement);
+    }
+  }
+
+}
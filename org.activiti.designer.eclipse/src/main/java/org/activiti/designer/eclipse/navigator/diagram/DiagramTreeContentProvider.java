@@ -23,10 +23,6 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.ui.progress.UIJob;
 
 /**
  * @author Tiese Barrell
@@ -103,16 +99,7 @@ public class DiagramTreeContentProvider extends AbstractTreeContentProvider {
       final IFile file = (IFile) source;
       if (isDiagramFile(file)) {
         updateModel(file);
-        new UIJob("Update Process Model in CommonViewer") { //$NON-NLS-1$
-
-          @Override
-          public IStatus runInUIThread(IProgressMonitor monitor) {
-            if (getStructuredViewer() != null && !getStructuredViewer().getControl().isDisposed()) {
-              getStructuredViewer().refresh(file);
-            }
-            return Status.OK_STATUS;
-          }
-        }.schedule();
+        scheduleRefresh(file);
       }
       return false;
     }
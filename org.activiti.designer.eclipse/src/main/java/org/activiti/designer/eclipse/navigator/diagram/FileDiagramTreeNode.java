@@ -13,20 +13,13 @@
 
 package org.activiti.designer.eclipse.navigator.diagram;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
 import java.util.List;
 
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamReader;
-
-import org.activiti.bpmn.converter.BpmnXMLConverter;
-import org.activiti.bpmn.model.BpmnModel;
 import org.activiti.bpmn.model.Pool;
 import org.activiti.bpmn.model.Process;
 import org.activiti.designer.eclipse.navigator.TreeNode;
 import org.activiti.designer.util.editor.Bpmn2MemoryModel;
+import org.activiti.designer.util.editor.ModelHandler;
 import org.eclipse.core.resources.IFile;
 
 /**
@@ -127,24 +120,15 @@ public class FileDiagramTreeNode extends AbstractDiagramTreeNode<IFile> {
   }
 
   private Bpmn2MemoryModel buildModel(final IFile modelFile) {
-    final Bpmn2MemoryModel result = new Bpmn2MemoryModel(null, modelFile);
-
-    String filePath = modelFile.getLocationURI().getPath();
-    File bpmnFile = new File(filePath);
-    try {
-      if (bpmnFile.exists()) {
-        final FileInputStream fileStream = new FileInputStream(bpmnFile);
-        final XMLInputFactory xif = XMLInputFactory.newInstance();
-        final InputStreamReader in = new InputStreamReader(fileStream, "UTF-8");
-        final XMLStreamReader xtr = xif.createXMLStreamReader(in);
-        BpmnXMLConverter converter = new BpmnXMLConverter();
-        BpmnModel bpmnModel = converter.convertToBpmnModel(xtr);
-        result.setBpmnModel(bpmnModel);
-      }
-    } catch (Exception e) {
-      e.printStackTrace();
+    // reuse the model of an editor the file is open in
+    final Bpmn2MemoryModel openModel = ModelHandler.getModelByFile(modelFile);
+    if (openModel != null && openModel.getBpmnModel() != null) {
+      return openModel;
     }
 
+    // only the outline of the file is needed for the tree nodes
+    final Bpmn2MemoryModel result = new Bpmn2MemoryModel(null, modelFile);
+    result.setBpmnModel(DiagramOutlineCache.getOutline(modelFile));
     return result;
   }
 
@@ -23,10 +23,6 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.ui.progress.UIJob;
 
 /**
  * @author Tiese Barrell
@@ -95,16 +91,7 @@ public class ProjectTreeContentProvider extends AbstractTreeContentProvider {
       final IProject project = (IProject) source;
       if (isActivitiProject(project)) {
         updateModel(project);
-        new UIJob("Update Project Model in CommonViewer") { //$NON-NLS-1$
-
-          @Override
-          public IStatus runInUIThread(IProgressMonitor monitor) {
-            if (getStructuredViewer() != null && !getStructuredViewer().getControl().isDisposed()) {
-              getStructuredViewer().refresh(project);
-            }
-            return Status.OK_STATUS;
-          }
-        }.schedule();
+        scheduleRefresh(project);
       }
       return false;
     case IResource.FOLDER:
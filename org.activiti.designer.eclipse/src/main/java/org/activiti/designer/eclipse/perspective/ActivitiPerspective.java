@@ -1,6 +1,7 @@
 package org.activiti.designer.eclipse.perspective;
 
 import org.activiti.designer.eclipse.views.navigator.ActivitiNavigator;
+import org.activiti.designer.eclipse.views.performance.PerformanceView;
 import org.eclipse.ui.IFolderLayout;
 import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IPerspectiveFactory;
@@ -31,6 +32,7 @@ public class ActivitiPerspective implements IPerspectiveFactory {
     layout.addShowViewShortcut(IPageLayout.ID_PROBLEM_VIEW);
     layout.addShowViewShortcut(IPageLayout.ID_PROGRESS_VIEW);
     layout.addShowViewShortcut(IPageLayout.ID_TASK_LIST);
+    layout.addShowViewShortcut(PerformanceView.VIEW_ID);
 
     layout.addActionSet(IPageLayout.ID_NAVIGATE_ACTION_SET);
   }
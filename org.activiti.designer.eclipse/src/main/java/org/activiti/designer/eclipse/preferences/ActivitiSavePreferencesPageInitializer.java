@@ -34,6 +34,7 @@ public class ActivitiSavePreferencesPageInitializer extends AbstractPreferenceIn
 
     // Image Marshaller
     store.setDefault(Preferences.SAVE_IMAGE.getPreferenceId(), false);
+    store.setDefault(Preferences.SAVE_IMAGE_SCALE.getPreferenceId(), 100);
 
   }
 }
@@ -48,6 +48,18 @@ public final class PreferencesUtil {
     return store.getString(preference.getPreferenceId());
   }
 
+  /**
+   * Gets an integer preference's value from the preference store.
+   * 
+   * @param preference
+   *          the {@link Preferences} to get
+   * @return the value of the preference or 0 if there is no preference applied
+   */
+  public static final int getIntegerPreference(final Preferences preference) {
+    final IPreferenceStore store = ActivitiPlugin.getDefault().getPreferenceStore();
+    return store.getInt(preference.getPreferenceId());
+  }
+
   /**
    * Gets a boolean preference's value from the preference store.
    * 
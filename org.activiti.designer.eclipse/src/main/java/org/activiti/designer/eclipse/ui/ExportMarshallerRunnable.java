@@ -18,6 +18,7 @@ import java.util.Collection;
 
 import org.activiti.designer.eclipse.extension.export.ExportMarshaller;
 import org.activiti.designer.eclipse.util.ExtensionPointUtil;
+import org.activiti.designer.util.trace.PerformanceTrace;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
@@ -100,7 +101,12 @@ public class ExportMarshallerRunnable implements IRunnableWithProgress {
 
       @Override
       public void run() throws Exception {
-        exportMarshaller.marshallDiagram(diagram, monitor);
+        final long start = PerformanceTrace.begin();
+        try {
+          exportMarshaller.marshallDiagram(diagram, monitor);
+        } finally {
+          PerformanceTrace.end("Export marshaller", exportMarshaller.getMarshallerName(), start);
+        }
       }
     };
     SafeRunner.run(runnable);
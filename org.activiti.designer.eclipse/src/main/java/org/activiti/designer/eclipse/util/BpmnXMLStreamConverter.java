@@ -0,0 +1,125 @@
+package org.activiti.designer.eclipse.util;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.converter.IndentingXMLStreamWriter;
+import org.activiti.bpmn.converter.export.BPMNDIExport;
+import org.activiti.bpmn.converter.export.DefinitionsRootExport;
+import org.activiti.bpmn.converter.export.PoolExport;
+import org.activiti.bpmn.converter.export.ProcessExport;
+import org.activiti.bpmn.converter.export.SignalAndMessageDefinitionExport;
+import org.activiti.bpmn.exceptions.XMLException;
+import org.activiti.bpmn.model.Artifact;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.Process;
+
+/**
+ * {@link BpmnXMLConverter} that writes the XML of a model directly to an output stream instead of
+ * building the whole document in memory first. The document written is the same as the one
+ * produced by {@link BpmnXMLConverter#convertToXML(BpmnModel)}: the definitions, pools, processes
+ * and diagram interchange information are written by the export classes of the library and each
+ * flow element and artifact by the element writer of the converter, which hands the elements to
+ * their converters and writes sub processes with their content. If the element writer cannot be
+ * found, e.g. because the library has changed, the document built in memory is written instead.
+ *
+ * @since 5.12.1
+ *
+ */
+public class BpmnXMLStreamConverter extends BpmnXMLConverter {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final Method FLOW_ELEMENT_WRITER = getElementWriter(FlowElement.class);
+  private static final Method ARTIFACT_WRITER = getElementWriter(Artifact.class);
+
+  /**
+   * Writes the XML of the provided model to the provided stream. The stream is
+   * flushed, but not closed.
+   *
+   * @param model
+   *          the model to write
+   * @param outputStream
+   *          the stream to write the XML to
+   */
+  public void convertToXML(final BpmnModel model, final OutputStream outputStream) {
+    try {
+      if (FLOW_ELEMENT_WRITER == null || ARTIFACT_WRITER == null) {
+        outputStream.write(convertToXML(model));
+        outputStream.flush();
+        return;
+      }
+
+      final Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"), BUFFER_SIZE);
+      final XMLStreamWriter xtw = new IndentingXMLStreamWriter(XMLOutputFactory.newInstance().createXMLStreamWriter(out));
+
+      DefinitionsRootExport.writeRootElement(model, xtw);
+      SignalAndMessageDefinitionExport.writeSignalsAndMessages(model, xtw);
+      PoolExport.writePools(model, xtw);
+
+      for (final Process process : model.getProcesses()) {
+        if (process.getFlowElements().isEmpty() && process.getLanes().isEmpty()) {
+          // empty process, ignore it
+          continue;
+        }
+
+        ProcessExport.writeProcess(process, xtw);
+
+        for (final FlowElement flowElement : process.getFlowElements()) {
+          FLOW_ELEMENT_WRITER.invoke(this, flowElement, model, xtw);
+        }
+
+        for (final Artifact artifact : process.getArtifacts()) {
+          ARTIFACT_WRITER.invoke(this, artifact, model, xtw);
+        }
+
+        // end process element
+        xtw.writeEndElement();
+      }
+
+      BPMNDIExport.writeBPMNDI(model, xtw);
+
+      // end definitions root element
+      xtw.writeEndElement();
+      xtw.writeEndDocument();
+
+      xtw.flush();
+      xtw.close();
+      out.flush();
+
+    } catch (InvocationTargetException e) {
+      LOGGER.error("Error writing BPMN XML", e.getCause());
+      throw new XMLException("Error writing BPMN XML", e.getCause());
+    } catch (Exception e) {
+      LOGGER.error("Error writing BPMN XML", e);
+      throw new XMLException("Error writing BPMN XML", e);
+    }
+  }
+
+  /**
+   * Gets the method of the converter that writes elements of the provided type,
+   * including the content of sub processes.
+   *
+   * @return the method or null if the converter has no such method
+   */
+  private static Method getElementWriter(final Class< ? > elementType) {
+    try {
+      final Method result = BpmnXMLConverter.class.getDeclaredMethod("createXML", elementType, BpmnModel.class, XMLStreamWriter.class);
+      result.setAccessible(true);
+      return result;
+    } catch (Exception e) {
+      LOGGER.warn("Unable to find the writer of " + elementType.getSimpleName() + " elements, the XML is built in memory", e);
+      return null;
+    }
+  }
+
+}
@@ -14,12 +14,15 @@
 package org.activiti.designer.eclipse.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.activiti.designer.eclipse.common.ActivitiPlugin;
 import org.activiti.designer.eclipse.extension.export.ExportMarshaller;
@@ -27,6 +30,10 @@ import org.activiti.designer.eclipse.extension.icon.IconProvider;
 import org.activiti.designer.eclipse.extension.validation.ProcessValidator;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtensionDelta;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IRegistryChangeEvent;
+import org.eclipse.core.runtime.IRegistryChangeListener;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.swt.graphics.Image;
 
@@ -39,6 +46,15 @@ import org.eclipse.swt.graphics.Image;
  */
 public final class ExtensionPointUtil {
 
+  private static final Set<String> EXTENSION_POINT_IDS = new HashSet<String>(Arrays.asList(ActivitiPlugin.EXPORT_MARSHALLER_EXTENSIONPOINT_ID,
+          ActivitiPlugin.PROCESS_VALIDATOR_EXTENSIONPOINT_ID, ActivitiPlugin.ICON_PROVIDER_EXTENSIONPOINT_ID));
+
+  private static Map<String, ExportMarshaller> exportMarshallers;
+  private static Map<String, ProcessValidator> processValidators;
+  private static List<IconProvider> iconProviders;
+
+  private static IRegistryChangeListener registryChangeListener;
+
   private ExtensionPointUtil() {
   }
 
@@ -72,11 +88,15 @@ public final class ExtensionPointUtil {
 
     final List<IconProvider> providers = getPrioritizedIconProviders();
 
-    for (final IconProvider provider : providers) {
+    // indexed access to not create an iterator for every label in the navigator
+    for (int i = 0; i < providers.size(); i++) {
+      final IconProvider provider = providers.get(i);
       try {
         result = provider.getIcon(context);
       } catch (RuntimeException e) {
-        // no-op, provider has no support for this context
+        // provider has no support for this context. Icons depend on the state
+        // of the element, so the provider is still asked for other elements
+        // of the same type
       }
 
       if (result != null) {
@@ -88,12 +108,39 @@ public final class ExtensionPointUtil {
     return result;
 
   }
-  private static final List<IconProvider> getPrioritizedIconProviders() {
+
+  /**
+   * Drops the cached extensions, so they are read from the extension registry
+   * again when they are needed next. Invoked when extensions are added to or
+   * removed from the registry and when the plugin is stopped.
+   */
+  public static synchronized void clearCache() {
+    exportMarshallers = null;
+    processValidators = null;
+    iconProviders = null;
+  }
+
+  /**
+   * Stops listening for changes of the extension registry and drops the cached
+   * extensions.
+   */
+  public static synchronized void dispose() {
+    if (registryChangeListener != null) {
+      Platform.getExtensionRegistry().removeRegistryChangeListener(registryChangeListener);
+      registryChangeListener = null;
+    }
+    clearCache();
+  }
+
+  private static synchronized List<IconProvider> getPrioritizedIconProviders() {
+
+    if (iconProviders != null) {
+      return iconProviders;
+    }
 
     final List<IconProvider> result = new ArrayList<IconProvider>();
 
-    final IConfigurationElement[] providerConfiguration = Platform.getExtensionRegistry().getConfigurationElementsFor(
-            ActivitiPlugin.ICON_PROVIDER_EXTENSIONPOINT_ID);
+    final IConfigurationElement[] providerConfiguration = getConfigurationElementsFor(ActivitiPlugin.ICON_PROVIDER_EXTENSIONPOINT_ID);
 
     for (final IConfigurationElement element : providerConfiguration) {
       Object o;
@@ -110,15 +157,19 @@ public final class ExtensionPointUtil {
 
     Collections.sort(result, new IconProviderComparator());
 
-    return result;
+    iconProviders = Collections.unmodifiableList(result);
+    return iconProviders;
   }
 
-  private static final Map<String, ExportMarshaller> getExportMarshallersAndNames() {
+  private static synchronized Map<String, ExportMarshaller> getExportMarshallersAndNames() {
+
+    if (exportMarshallers != null) {
+      return exportMarshallers;
+    }
 
     final Map<String, ExportMarshaller> result = new HashMap<String, ExportMarshaller>();
 
-    final IConfigurationElement[] marshallerConfiguration = Platform.getExtensionRegistry().getConfigurationElementsFor(
-            ActivitiPlugin.EXPORT_MARSHALLER_EXTENSIONPOINT_ID);
+    final IConfigurationElement[] marshallerConfiguration = getConfigurationElementsFor(ActivitiPlugin.EXPORT_MARSHALLER_EXTENSIONPOINT_ID);
 
     for (IConfigurationElement e : marshallerConfiguration) {
       Object o;
@@ -132,14 +183,20 @@ public final class ExtensionPointUtil {
         e1.printStackTrace();
       }
     }
-    return result;
+
+    exportMarshallers = Collections.unmodifiableMap(result);
+    return exportMarshallers;
   }
 
-  private static final Map<String, ProcessValidator> getProcessValidatorsAndIds() {
+  private static synchronized Map<String, ProcessValidator> getProcessValidatorsAndIds() {
+
+    if (processValidators != null) {
+      return processValidators;
+    }
+
     final Map<String, ProcessValidator> result = new HashMap<String, ProcessValidator>();
 
-    final IConfigurationElement[] validatorConfiguration = Platform.getExtensionRegistry().getConfigurationElementsFor(
-            ActivitiPlugin.PROCESS_VALIDATOR_EXTENSIONPOINT_ID);
+    final IConfigurationElement[] validatorConfiguration = getConfigurationElementsFor(ActivitiPlugin.PROCESS_VALIDATOR_EXTENSIONPOINT_ID);
 
     if (validatorConfiguration.length > 0) {
       for (final IConfigurationElement e : validatorConfiguration) {
@@ -156,7 +213,32 @@ public final class ExtensionPointUtil {
 
       }
     }
-    return result;
+
+    processValidators = Collections.unmodifiableMap(result);
+    return processValidators;
+  }
+
+  private static IConfigurationElement[] getConfigurationElementsFor(final String extensionPointId) {
+    final IExtensionRegistry registry = Platform.getExtensionRegistry();
+    if (registryChangeListener == null) {
+      registryChangeListener = new ExtensionRegistryChangeListener();
+      registry.addRegistryChangeListener(registryChangeListener);
+    }
+    return registry.getConfigurationElementsFor(extensionPointId);
+  }
+
+  private static class ExtensionRegistryChangeListener implements IRegistryChangeListener {
+
+    @Override
+    public void registryChanged(final IRegistryChangeEvent event) {
+      for (final IExtensionDelta delta : event.getExtensionDeltas()) {
+        if (EXTENSION_POINT_IDS.contains(delta.getExtensionPoint().getUniqueIdentifier())) {
+          clearCache();
+          return;
+        }
+      }
+    }
+
   }
 
   private static class IconProviderComparator implements Comparator<IconProvider> {
@@ -1,12 +1,27 @@
 package org.activiti.designer.eclipse.util;
 
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.activiti.bpmn.model.FlowElement;
+import org.activiti.designer.eclipse.Logger;
 import org.apache.commons.lang.StringUtils;
 
 public class FlowElementUtil {
 
+  /**
+   * The resolved getters per element class. The classes are weakly referenced
+   * and the getters softly, so element classes of extensions can be unloaded
+   * with their class loader.
+   */
+  private static final Map<Class< ? >, ConcurrentMap<String, Accessor>> ACCESSORS = Collections
+          .synchronizedMap(new WeakHashMap<Class< ? >, ConcurrentMap<String, Accessor>>());
+
   public interface ComparableField {
 
     public String getGetter();
@@ -28,20 +43,6 @@ public class FlowElementUtil {
 
   }
 
-  public static enum ExtensionField implements ComparableField {
-    NAME("getName"), EXPRESSION("getExpression");
-
-    private final String getter;
-
-    ExtensionField(String getter) {
-      this.getter = getter;
-    }
-
-    public String getGetter() {
-      return this.getter;
-    }
-  }
-
   public static boolean elementsNeedUpdate(FlowElement source, FlowElement target, ComparableField... properties) {
 
     boolean isDifferent = false;
@@ -52,8 +53,13 @@ public class FlowElementUtil {
 
         if (property.getClass() == StringField.class) {
 
-          Method sourceMethod = source.getClass().getMethod(property.getGetter(), null);
-          Method targetMethod = target.getClass().getMethod(property.getGetter(), null);
+          // the accessors are resolved once per class and getter
+          Method sourceMethod = getAccessor(source.getClass(), property.getGetter());
+          Method targetMethod = getAccessor(target.getClass(), property.getGetter());
+
+          if (sourceMethod == null || targetMethod == null) {
+            continue;
+          }
 
           String sourceValue = (String) sourceMethod.invoke(source);
           String targetValue = (String) targetMethod.invoke(target);
@@ -64,25 +70,8 @@ public class FlowElementUtil {
           }
 
         }
-        
-        if (property.getClass() == ExtensionField.class) {
-          
-          Method sourceMethod = source.getClass().getMethod("getActivitiListeners", null);
-          Method targetMethod = target.getClass().getMethod("getActivitiListeners", null);
-
-          /*List<ActivitiListener> sourceListeners = (List<ActivitiListener>) sourceMethod.invoke(source);
-          List<ActivitiListener> targetListeners = (List<ActivitiListener>) targetMethod.invoke(source);
-          
-          for (int i = 0; i < sourceListeners.size(); i++) {
-            
-            ActivitiListener sourceListener = sourceListeners.get(i);
-            sourceListener.getImplementation();
-            
-          }*/
-          
-        }
       } catch (Exception e) {
-        e.printStackTrace();
+        Logger.logError("Unable to compare " + property + " of " + source.getId() + " and " + target.getId(), e);
       }
 
     }
@@ -90,4 +79,97 @@ public class FlowElementUtil {
     return isDifferent;
   }
 
+  /**
+   * Gets a hash of the type of the element and the values of the provided
+   * fields. Elements with equal types and field values have equal hashes, so
+   * callers that keep the hash of an element can skip it while the hash is
+   * unchanged. Fields the element does not have are left out.
+   * 
+   * @param element
+   *          the element to hash
+   * @param properties
+   *          the fields to include in the hash
+   * @return the hash of the element
+   */
+  public static int getStructuralHash(FlowElement element, ComparableField... properties) {
+
+    int result = element.getClass().getName().hashCode();
+
+    for (ComparableField property : properties) {
+
+      try {
+
+        if (property.getClass() == StringField.class) {
+
+          Method method = getAccessor(element.getClass(), property.getGetter());
+
+          if (method == null) {
+            continue;
+          }
+
+          String value = (String) method.invoke(element);
+          result = 31 * result + (value == null ? 0 : value.hashCode());
+        }
+      } catch (Exception e) {
+        Logger.logError("Unable to hash " + property + " of " + element.getId(), e);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Gets the public getter with the provided name of the element class,
+   * resolving it on first use and again once the cached getter was collected.
+   * 
+   * @return the getter or null if the class has no such getter
+   */
+  private static Method getAccessor(Class< ? > elementClass, String getter) {
+
+    ConcurrentMap<String, Accessor> classAccessors;
+    synchronized (ACCESSORS) {
+      classAccessors = ACCESSORS.get(elementClass);
+      if (classAccessors == null) {
+        classAccessors = new ConcurrentHashMap<String, Accessor>();
+        ACCESSORS.put(elementClass, classAccessors);
+      }
+    }
+
+    Accessor accessor = classAccessors.get(getter);
+    if (accessor != null && accessor.exists == false) {
+      return null;
+    }
+
+    Method method = accessor == null ? null : accessor.method.get();
+    if (method == null) {
+      try {
+        method = elementClass.getMethod(getter);
+        accessor = new Accessor(method);
+      } catch (NoSuchMethodException e) {
+        Logger.logError("Unable to find " + getter + " of " + elementClass.getName(), e);
+        accessor = new Accessor(null);
+      }
+      classAccessors.put(getter, accessor);
+    }
+
+    return method;
+  }
+
+  /**
+   * A resolved getter. The method is only softly referenced because it refers
+   * to its class, which would keep the weak key of the class alive. Missing
+   * getters are remembered as well, so they are only looked up once.
+   */
+  private static class Accessor {
+
+    private final boolean exists;
+    private final SoftReference<Method> method;
+
+    public Accessor(Method method) {
+      this.exists = method != null;
+      this.method = new SoftReference<Method>(method);
+    }
+
+  }
+
 }
@@ -0,0 +1,233 @@
+package org.activiti.designer.eclipse.views.performance;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import org.activiti.designer.util.trace.PerformanceTrace;
+import org.activiti.designer.util.trace.PerformanceTrace.PhaseSummary;
+import org.activiti.designer.util.trace.PerformanceTrace.TraceEvent;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IAction;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ITableLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.SashForm;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Shows the timings recorded by the {@link PerformanceTrace}: the number and duration of the
+ * events of each phase and the most recent events. Tracing can be switched on and off from the
+ * tool bar of the view and the recorded events can be exported as a Chrome trace to attach to bug
+ * reports. The view does not update itself while events are recorded, it is refreshed on request.
+ *
+ * @since 5.12.1
+ *
+ */
+public class PerformanceView extends ViewPart {
+
+  public static final String VIEW_ID = "org.activiti.designer.eclipse.view.performance";
+
+  private static final String[] SUMMARY_COLUMNS = new String[] { "Phase", "Count", "Total (ms)", "Average (ms)", "Max (ms)" };
+  private static final int[] SUMMARY_WIDTHS = new int[] { 200, 70, 90, 90, 90 };
+
+  private static final String[] EVENT_COLUMNS = new String[] { "Start (ms)", "Phase", "Duration (ms)", "Detail", "Thread" };
+  private static final int[] EVENT_WIDTHS = new int[] { 90, 200, 90, 250, 150 };
+
+  private TableViewer summaryViewer;
+  private TableViewer eventViewer;
+
+  @Override
+  public void createPartControl(final Composite parent) {
+    final SashForm sashForm = new SashForm(parent, SWT.VERTICAL);
+
+    summaryViewer = createTableViewer(sashForm, SUMMARY_COLUMNS, SUMMARY_WIDTHS);
+    summaryViewer.setLabelProvider(new SummaryLabelProvider());
+
+    eventViewer = createTableViewer(sashForm, EVENT_COLUMNS, EVENT_WIDTHS);
+    eventViewer.setLabelProvider(new EventLabelProvider());
+
+    sashForm.setWeights(new int[] { 1, 2 });
+
+    createActions();
+    refresh();
+  }
+
+  @Override
+  public void setFocus() {
+    summaryViewer.getControl().setFocus();
+  }
+
+  private TableViewer createTableViewer(final Composite parent, final String[] columns, final int[] widths) {
+    final TableViewer result = new TableViewer(parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL);
+    final Table table = result.getTable();
+    table.setHeaderVisible(true);
+    table.setLinesVisible(true);
+    for (int i = 0; i < columns.length; i++) {
+      final TableColumn column = new TableColumn(table, i == 0 ? SWT.LEFT : SWT.RIGHT);
+      column.setText(columns[i]);
+      column.setWidth(widths[i]);
+    }
+    result.setContentProvider(new ArrayContentProvider());
+    return result;
+  }
+
+  private void createActions() {
+    final ISharedImages sharedImages = PlatformUI.getWorkbench().getSharedImages();
+
+    final Action enableAction = new Action("Record", IAction.AS_CHECK_BOX) {
+
+      @Override
+      public void run() {
+        PerformanceTrace.setEnabled(isChecked());
+      }
+    };
+    enableAction.setToolTipText("Record the timings of the Activiti Designer");
+    enableAction.setImageDescriptor(sharedImages.getImageDescriptor(ISharedImages.IMG_ELCL_SYNCED));
+    enableAction.setChecked(PerformanceTrace.isEnabled());
+
+    final Action refreshAction = new Action("Refresh") {
+
+      @Override
+      public void run() {
+        refresh();
+      }
+    };
+    refreshAction.setToolTipText("Show the timings recorded so far");
+    refreshAction.setImageDescriptor(sharedImages.getImageDescriptor(ISharedImages.IMG_TOOL_REDO));
+
+    final Action clearAction = new Action("Clear") {
+
+      @Override
+      public void run() {
+        PerformanceTrace.clear();
+        refresh();
+      }
+    };
+    clearAction.setToolTipText("Clear the recorded timings");
+    clearAction.setImageDescriptor(sharedImages.getImageDescriptor(ISharedImages.IMG_ETOOL_CLEAR));
+
+    final Action exportAction = new Action("Export Chrome Trace...") {
+
+      @Override
+      public void run() {
+        exportChromeTrace();
+      }
+    };
+    exportAction.setToolTipText("Export the recorded events as Chrome trace");
+    exportAction.setImageDescriptor(sharedImages.getImageDescriptor(ISharedImages.IMG_ETOOL_SAVEAS_EDIT));
+
+    final IToolBarManager toolBarManager = getViewSite().getActionBars().getToolBarManager();
+    toolBarManager.add(enableAction);
+    toolBarManager.add(refreshAction);
+    toolBarManager.add(clearAction);
+    toolBarManager.add(exportAction);
+  }
+
+  private void refresh() {
+    summaryViewer.setInput(PerformanceTrace.getSummaries());
+
+    // most recent events first
+    final List<TraceEvent> events = PerformanceTrace.getEvents();
+    Collections.reverse(events);
+    eventViewer.setInput(events);
+  }
+
+  private void exportChromeTrace() {
+    final FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+    dialog.setFilterExtensions(new String[] { "*.json" });
+    dialog.setFileName("activiti-designer-trace.json");
+    dialog.setOverwrite(true);
+    final String fileName = dialog.open();
+    if (fileName == null) {
+      return;
+    }
+
+    try {
+      final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF-8"));
+      try {
+        PerformanceTrace.writeChromeTrace(writer);
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      MessageDialog.openError(getSite().getShell(), "Export Chrome Trace", "Unable to write " + fileName + ": " + e.getMessage());
+    }
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.format("%.3f", nanos / 1000000d);
+  }
+
+  private static class SummaryLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+    @Override
+    public Image getColumnImage(final Object element, final int columnIndex) {
+      return null;
+    }
+
+    @Override
+    public String getColumnText(final Object element, final int columnIndex) {
+      final PhaseSummary summary = (PhaseSummary) element;
+      switch (columnIndex) {
+      case 0:
+        return summary.getPhase();
+      case 1:
+        return Long.toString(summary.getCount());
+      case 2:
+        return toMillis(summary.getTotalNanos());
+      case 3:
+        return toMillis(summary.getTotalNanos() / Math.max(1L, summary.getCount()));
+      case 4:
+        return toMillis(summary.getMaxNanos());
+      default:
+        return null;
+      }
+    }
+
+  }
+
+  private static class EventLabelProvider extends LabelProvider implements ITableLabelProvider {
+
+    @Override
+    public Image getColumnImage(final Object element, final int columnIndex) {
+      return null;
+    }
+
+    @Override
+    public String getColumnText(final Object element, final int columnIndex) {
+      final TraceEvent event = (TraceEvent) element;
+      switch (columnIndex) {
+      case 0:
+        return toMillis(event.getStartNanos());
+      case 1:
+        return event.getPhase();
+      case 2:
+        return toMillis(event.getDurationNanos());
+      case 3:
+        return event.getDetail();
+      case 4:
+        return event.getThreadName();
+      default:
+        return null;
+      }
+    }
+
+  }
+
+}
@@ -49,6 +49,7 @@ public class CreateAlfrescoMailTaskFeature extends AbstractCreateFastBPMNFeature
     } else if (parentObject instanceof Lane) {
       final Lane lane = (Lane) parentObject;
       lane.getFlowReferences().add(newMailTask.getId());
+      ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).invalidateLanes();
       lane.getParentProcess().addFlowElement(newMailTask);
       
     } else {
@@ -44,6 +44,7 @@ public class CreateAlfrescoScriptTaskFeature extends AbstractCreateFastBPMNFeatu
     } else if (parentObject instanceof Lane) {
       final Lane lane = (Lane) parentObject;
       lane.getFlowReferences().add(newScriptTask.getId());
+      ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).invalidateLanes();
       lane.getParentProcess().addFlowElement(newScriptTask);
       
     } else {
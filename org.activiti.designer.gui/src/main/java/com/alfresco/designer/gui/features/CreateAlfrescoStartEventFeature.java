@@ -50,6 +50,7 @@ public class CreateAlfrescoStartEventFeature extends AbstractCreateBPMNFeature {
     } else if (parentObject instanceof Lane) {
       final Lane lane = (Lane) parentObject;
       lane.getFlowReferences().add(startEvent.getId());
+      ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).invalidateLanes();
       lane.getParentProcess().addFlowElement(startEvent);
       
     } else {
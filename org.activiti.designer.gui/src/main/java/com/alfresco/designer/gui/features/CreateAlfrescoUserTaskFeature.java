@@ -50,6 +50,7 @@ public class CreateAlfrescoUserTaskFeature extends AbstractCreateFastBPMNFeature
     } else if (parentObject instanceof Lane) {
       final Lane lane = (Lane) parentObject;
       lane.getFlowReferences().add(newUserTask.getId());
+      ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).invalidateLanes();
       lane.getParentProcess().addFlowElement(newUserTask);
       
     } else {
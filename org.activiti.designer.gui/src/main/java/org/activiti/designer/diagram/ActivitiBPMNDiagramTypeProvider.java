@@ -37,5 +37,12 @@ public class ActivitiBPMNDiagramTypeProvider extends AbstractDiagramTypeProvider
     return true;
   }
 
+  @Override
+  public void dispose() {
+    // release the links to the business objects of the closed diagram
+    ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().clear();
+    super.dispose();
+  }
+
 
 }
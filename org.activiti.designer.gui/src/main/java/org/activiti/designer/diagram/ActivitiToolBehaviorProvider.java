@@ -1,9 +1,9 @@
 package org.activiti.designer.diagram;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -35,6 +35,7 @@ import org.activiti.bpmn.model.TimerEventDefinition;
 import org.activiti.bpmn.model.UserTask;
 import org.activiti.bpmn.model.alfresco.AlfrescoStartEvent;
 import org.activiti.designer.PluginImage;
+import org.activiti.designer.diagram.PaletteCache.PaletteModel;
 import org.activiti.designer.eclipse.preferences.PreferencesUtil;
 import org.activiti.designer.features.AbstractCreateBPMNFeature;
 import org.activiti.designer.features.ChangeElementTypeFeature;
@@ -78,7 +79,6 @@ import org.activiti.designer.integration.palette.PaletteEntry;
 import org.activiti.designer.util.ActivitiConstants;
 import org.activiti.designer.util.eclipse.ActivitiUiUtil;
 import org.activiti.designer.util.extension.CustomServiceTaskContext;
-import org.activiti.designer.util.extension.ExtensionUtil;
 import org.activiti.designer.util.preferences.Preferences;
 import org.activiti.designer.util.workspace.ActivitiWorkspaceUtil;
 import org.apache.commons.lang.StringUtils;
@@ -114,11 +114,7 @@ import org.eclipse.graphiti.tb.ContextMenuEntry;
 import org.eclipse.graphiti.tb.DefaultToolBehaviorProvider;
 import org.eclipse.graphiti.tb.IContextButtonPadData;
 import org.eclipse.graphiti.tb.IContextMenuEntry;
-import org.eclipse.graphiti.ui.internal.GraphitiUIPlugin;
 import org.eclipse.graphiti.ui.internal.services.GraphitiUiInternal;
-import org.eclipse.jface.resource.ImageRegistry;
-import org.eclipse.swt.graphics.Image;
-import org.eclipse.ui.PlatformUI;
 
 import com.alfresco.designer.gui.features.CreateAlfrescoMailTaskFeature;
 import com.alfresco.designer.gui.features.CreateAlfrescoScriptTaskFeature;
@@ -127,8 +123,73 @@ import com.alfresco.designer.gui.features.CreateAlfrescoUserTaskFeature;
 
 public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
 
+  private static final String COMPARTMENT_CONNECTION = "Connection";
+  private static final String COMPARTMENT_EVENT = "Event";
+  private static final String COMPARTMENT_TASK = "Task";
+  private static final String COMPARTMENT_GATEWAY = "Gateway";
+  private static final String COMPARTMENT_CONTAINER = "Container";
+  private static final String COMPARTMENT_BOUNDARY_EVENT = "Boundary event";
+  private static final String COMPARTMENT_INTERMEDIATE_EVENT = "Intermediate event";
+  private static final String COMPARTMENT_ARTIFACTS = "Artifacts";
+  private static final String COMPARTMENT_ALFRESCO = "Alfresco";
+
+  // the compartments of the tools of the default palette by their lower case
+  // label
+  private static final Map<String, String> COMPARTMENTS_BY_TOOL_LABEL = new HashMap<String, String>();
+
+  static {
+    COMPARTMENTS_BY_TOOL_LABEL.put("sequenceflow", COMPARTMENT_CONNECTION);
+    COMPARTMENTS_BY_TOOL_LABEL.put("association", COMPARTMENT_CONNECTION);
+    COMPARTMENTS_BY_TOOL_LABEL.put("startevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("timerstartevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("errorstartevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("endevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("errorendevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("terminateendevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("usertask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("messagestartevent", COMPARTMENT_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("scripttask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("servicetask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("mailtask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("manualtask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("receivetask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("businessruletask", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("timerboundaryevent", COMPARTMENT_BOUNDARY_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("errorboundaryevent", COMPARTMENT_BOUNDARY_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("signalboundaryevent", COMPARTMENT_BOUNDARY_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("messageboundaryevent", COMPARTMENT_BOUNDARY_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("timercatchingevent", COMPARTMENT_INTERMEDIATE_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("signalcatchingevent", COMPARTMENT_INTERMEDIATE_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("messagecatchingevent", COMPARTMENT_INTERMEDIATE_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("signalthrowingevent", COMPARTMENT_INTERMEDIATE_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("nonethrowingevent", COMPARTMENT_INTERMEDIATE_EVENT);
+    COMPARTMENTS_BY_TOOL_LABEL.put("parallelgateway", COMPARTMENT_GATEWAY);
+    COMPARTMENTS_BY_TOOL_LABEL.put("exclusivegateway", COMPARTMENT_GATEWAY);
+    COMPARTMENTS_BY_TOOL_LABEL.put("inclusivegateway", COMPARTMENT_GATEWAY);
+    COMPARTMENTS_BY_TOOL_LABEL.put("eventgateway", COMPARTMENT_GATEWAY);
+    COMPARTMENTS_BY_TOOL_LABEL.put("subprocess", COMPARTMENT_CONTAINER);
+    COMPARTMENTS_BY_TOOL_LABEL.put("pool", COMPARTMENT_CONTAINER);
+    COMPARTMENTS_BY_TOOL_LABEL.put("lane", COMPARTMENT_CONTAINER);
+    COMPARTMENTS_BY_TOOL_LABEL.put("eventsubprocess", COMPARTMENT_CONTAINER);
+    COMPARTMENTS_BY_TOOL_LABEL.put("callactivity", COMPARTMENT_TASK);
+    COMPARTMENTS_BY_TOOL_LABEL.put("alfrescousertask", COMPARTMENT_ALFRESCO);
+    COMPARTMENTS_BY_TOOL_LABEL.put("alfrescostartevent", COMPARTMENT_ALFRESCO);
+    COMPARTMENTS_BY_TOOL_LABEL.put("alfrescoscripttask", COMPARTMENT_ALFRESCO);
+    COMPARTMENTS_BY_TOOL_LABEL.put("alfrescomailtask", COMPARTMENT_ALFRESCO);
+    COMPARTMENTS_BY_TOOL_LABEL.put("annotation", COMPARTMENT_ARTIFACTS);
+  }
+
   private static final Map<Class< ? extends ICreateFeature>, PaletteEntry> toolMapping = new HashMap<Class< ? extends ICreateFeature>, PaletteEntry>();
 
+  private Set<PaletteEntry> disabledPaletteEntries;
+  private boolean paletteAlfrescoEnabled;
+  private List<IPaletteCompartmentEntry> standardCompartments;
+
+  private Map<String, List<CustomServiceTaskContext>> customServiceTaskDrawers;
+  private List<IPaletteCompartmentEntry> customServiceTaskCompartments;
+
+  private IPaletteCompartmentEntry[] palette;
+
   public ActivitiToolBehaviorProvider(IDiagramTypeProvider dtp) {
     super(dtp);
 
@@ -534,27 +595,62 @@ public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
 
     final IProject project = ActivitiUiUtil.getProjectFromDiagram(getDiagramTypeProvider().getDiagram());
 
+    final PaletteModel paletteModel = PaletteCache.getPaletteModel(project);
+    final boolean alfrescoEnabled = PreferencesUtil.getBooleanPreference(Preferences.ALFRESCO_ENABLE);
+
+    // only rebuild the compartments affected by a change of the extensions or
+    // preferences
+    boolean changed = false;
+    if (standardCompartments == null || paletteModel.getDisabledPaletteEntries() != disabledPaletteEntries
+            || alfrescoEnabled != paletteAlfrescoEnabled) {
+      disabledPaletteEntries = paletteModel.getDisabledPaletteEntries();
+      paletteAlfrescoEnabled = alfrescoEnabled;
+      standardCompartments = createStandardCompartments(disabledPaletteEntries, alfrescoEnabled);
+      changed = true;
+    }
+    if (customServiceTaskCompartments == null || paletteModel.getCustomServiceTaskDrawers() != customServiceTaskDrawers) {
+      customServiceTaskDrawers = paletteModel.getCustomServiceTaskDrawers();
+      customServiceTaskCompartments = createCustomServiceTaskCompartments(customServiceTaskDrawers);
+      changed = true;
+    }
+
+    if (changed) {
+      final List<IPaletteCompartmentEntry> ret = new ArrayList<IPaletteCompartmentEntry>(standardCompartments);
+      ret.addAll(customServiceTaskCompartments);
+      palette = ret.toArray(new IPaletteCompartmentEntry[ret.size()]);
+    }
+
+    return palette;
+  }
+
+  /**
+   * Creates the compartments holding the tools of the default palette, leaving
+   * out the disabled palette entries.
+   */
+  private List<IPaletteCompartmentEntry> createStandardCompartments(final Set<PaletteEntry> disabledPaletteEntries, final boolean alfrescoEnabled) {
+
     final List<IPaletteCompartmentEntry> ret = new ArrayList<IPaletteCompartmentEntry>();
 
     // add compartments from super class if not disabled
     IPaletteCompartmentEntry[] superCompartments = super.getPalette();
 
     // create new compartments
-    IPaletteCompartmentEntry connectionCompartmentEntry = new PaletteCompartmentEntry("Connection", null);
-    IPaletteCompartmentEntry eventCompartmentEntry = new PaletteCompartmentEntry("Event", null);
-    IPaletteCompartmentEntry taskCompartmentEntry = new PaletteCompartmentEntry("Task", null);
-    IPaletteCompartmentEntry gatewayCompartmentEntry = new PaletteCompartmentEntry("Gateway", null);
-    IPaletteCompartmentEntry containerCompartmentEntry = new PaletteCompartmentEntry("Container", null);
-    IPaletteCompartmentEntry boundaryEventCompartmentEntry = new PaletteCompartmentEntry("Boundary event", null);
-    IPaletteCompartmentEntry intermediateEventCompartmentEntry = new PaletteCompartmentEntry("Intermediate event", null);
-    IPaletteCompartmentEntry artifactsCompartmentEntry = new PaletteCompartmentEntry("Artifacts", null);
-    IPaletteCompartmentEntry alfrescoCompartmentEntry = new PaletteCompartmentEntry("Alfresco", PluginImage.IMG_ALFRESCO_LOGO.getImageKey());
+    final Map<String, IPaletteCompartmentEntry> compartments = new LinkedHashMap<String, IPaletteCompartmentEntry>();
+    compartments.put(COMPARTMENT_CONNECTION, new PaletteCompartmentEntry(COMPARTMENT_CONNECTION, null));
+    compartments.put(COMPARTMENT_EVENT, new PaletteCompartmentEntry(COMPARTMENT_EVENT, null));
+    compartments.put(COMPARTMENT_TASK, new PaletteCompartmentEntry(COMPARTMENT_TASK, null));
+    compartments.put(COMPARTMENT_CONTAINER, new PaletteCompartmentEntry(COMPARTMENT_CONTAINER, null));
+    compartments.put(COMPARTMENT_GATEWAY, new PaletteCompartmentEntry(COMPARTMENT_GATEWAY, null));
+    compartments.put(COMPARTMENT_BOUNDARY_EVENT, new PaletteCompartmentEntry(COMPARTMENT_BOUNDARY_EVENT, null));
+    compartments.put(COMPARTMENT_INTERMEDIATE_EVENT, new PaletteCompartmentEntry(COMPARTMENT_INTERMEDIATE_EVENT, null));
+    compartments.put(COMPARTMENT_ARTIFACTS, new PaletteCompartmentEntry(COMPARTMENT_ARTIFACTS, null));
+    compartments.put(COMPARTMENT_ALFRESCO, new PaletteCompartmentEntry(COMPARTMENT_ALFRESCO, PluginImage.IMG_ALFRESCO_LOGO.getImageKey()));
 
     for (final IPaletteCompartmentEntry entry : superCompartments) {
 
       // Prune any disabled palette entries in the Objects compartment
       if ("Objects".equals(entry.getLabel())) {
-        pruneDisabledPaletteEntries(project, entry);
+        pruneDisabledPaletteEntries(disabledPaletteEntries, entry);
       }
     }
 
@@ -562,147 +658,42 @@ public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
       final List<IToolEntry> toolEntries = iPaletteCompartmentEntry.getToolEntries();
 
       for (IToolEntry toolEntry : toolEntries) {
-        if ("sequenceflow".equalsIgnoreCase(toolEntry.getLabel())) {
-          connectionCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("association".equalsIgnoreCase(toolEntry.getLabel())) {
-          connectionCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("startevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("timerstartevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("errorstartevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("endevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("errorendevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("terminateendevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("usertask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("messagestartevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          eventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("scripttask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("servicetask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("mailtask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("manualtask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("receivetask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("businessruletask".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("timerboundaryevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          boundaryEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("errorboundaryevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          boundaryEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("signalboundaryevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          boundaryEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("messageboundaryevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          boundaryEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("timercatchingevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          intermediateEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("signalcatchingevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          intermediateEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("messagecatchingevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          intermediateEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("signalthrowingevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          intermediateEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("nonethrowingevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          intermediateEventCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("parallelgateway".equalsIgnoreCase(toolEntry.getLabel())) {
-          gatewayCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("exclusivegateway".equalsIgnoreCase(toolEntry.getLabel())) {
-          gatewayCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("inclusivegateway".equalsIgnoreCase(toolEntry.getLabel())) {
-          gatewayCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("eventgateway".equalsIgnoreCase(toolEntry.getLabel())) {
-          gatewayCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("subprocess".equalsIgnoreCase(toolEntry.getLabel())) {
-          containerCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("pool".equalsIgnoreCase(toolEntry.getLabel())) {
-          containerCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("lane".equalsIgnoreCase(toolEntry.getLabel())) {
-          containerCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("eventsubprocess".equalsIgnoreCase(toolEntry.getLabel())) {
-          containerCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("callactivity".equalsIgnoreCase(toolEntry.getLabel())) {
-          taskCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("alfrescousertask".equalsIgnoreCase(toolEntry.getLabel())) {
-          alfrescoCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("alfrescostartevent".equalsIgnoreCase(toolEntry.getLabel())) {
-          alfrescoCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("alfrescoscripttask".equalsIgnoreCase(toolEntry.getLabel())) {
-          alfrescoCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("alfrescomailtask".equalsIgnoreCase(toolEntry.getLabel())) {
-          alfrescoCompartmentEntry.getToolEntries().add(toolEntry);
-        } else if ("annotation".equalsIgnoreCase(toolEntry.getLabel())) {
-          artifactsCompartmentEntry.getToolEntries().add(toolEntry);
+        if (toolEntry.getLabel() != null) {
+          final String compartment = COMPARTMENTS_BY_TOOL_LABEL.get(toolEntry.getLabel().toLowerCase());
+          if (compartment != null) {
+            compartments.get(compartment).getToolEntries().add(toolEntry);
+          }
         }
       }
     }
-    // Always add the connection compartment
-    ret.add(connectionCompartmentEntry);
 
-    if (eventCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(eventCompartmentEntry);
-    }
-    if (taskCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(taskCompartmentEntry);
-    }
-    if (containerCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(containerCompartmentEntry);
-    }
-    if (gatewayCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(gatewayCompartmentEntry);
-    }
-    if (boundaryEventCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(boundaryEventCompartmentEntry);
-    }
-    if (intermediateEventCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(intermediateEventCompartmentEntry);
-    }
-    if (!artifactsCompartmentEntry.getToolEntries().isEmpty()) {
-      ret.add(artifactsCompartmentEntry);
-    }
-    if (PreferencesUtil.getBooleanPreference(Preferences.ALFRESCO_ENABLE) && alfrescoCompartmentEntry.getToolEntries().size() > 0) {
-      ret.add(alfrescoCompartmentEntry);
+    for (final IPaletteCompartmentEntry compartment : compartments.values()) {
+      if (COMPARTMENT_CONNECTION.equals(compartment.getLabel())) {
+        // Always add the connection compartment
+        ret.add(compartment);
+      } else if (COMPARTMENT_ALFRESCO.equals(compartment.getLabel())) {
+        if (alfrescoEnabled && !compartment.getToolEntries().isEmpty()) {
+          ret.add(compartment);
+        }
+      } else if (!compartment.getToolEntries().isEmpty()) {
+        ret.add(compartment);
+      }
     }
 
-    final Map<String, List<CustomServiceTaskContext>> tasksInDrawers = new HashMap<String, List<CustomServiceTaskContext>>();
-
-    final List<CustomServiceTaskContext> customServiceTaskContexts = ExtensionUtil.getCustomServiceTaskContexts(project);
+    return ret;
+  }
 
-    final ImageRegistry reg = GraphitiUIPlugin.getDefault().getImageRegistry();
-    for (final CustomServiceTaskContext taskContext : customServiceTaskContexts) {
-      if (reg.get(taskContext.getSmallImageKey()) == null) {
-        reg.put(taskContext.getSmallImageKey(),
-                new Image(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell().getDisplay(), taskContext.getSmallIconStream()));
-      }
-      if (reg.get(taskContext.getLargeImageKey()) == null) {
-        reg.put(taskContext.getLargeImageKey(),
-                new Image(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell().getDisplay(), taskContext.getLargeIconStream()));
-      }
-      if (reg.get(taskContext.getShapeImageKey()) == null) {
-        reg.put(taskContext.getShapeImageKey(),
-                new Image(PlatformUI.getWorkbench().getActiveWorkbenchWindow().getShell().getDisplay(), taskContext.getShapeIconStream()));
-      }
-    }
+  /**
+   * Creates a compartment for each drawer the custom service tasks contribute
+   * to. The icons of the tasks have been registered by the
+   * {@link PaletteCache}.
+   */
+  private List<IPaletteCompartmentEntry> createCustomServiceTaskCompartments(final Map<String, List<CustomServiceTaskContext>> tasksInDrawers) {
 
-    for (final CustomServiceTaskContext taskContext : customServiceTaskContexts) {
-      if (!tasksInDrawers.containsKey(taskContext.getServiceTask().contributeToPaletteDrawer())) {
-        tasksInDrawers.put(taskContext.getServiceTask().contributeToPaletteDrawer(), new ArrayList<CustomServiceTaskContext>());
-      }
-      tasksInDrawers.get(taskContext.getServiceTask().contributeToPaletteDrawer()).add(taskContext);
-    }
+    final List<IPaletteCompartmentEntry> ret = new ArrayList<IPaletteCompartmentEntry>();
 
     for (final Entry<String, List<CustomServiceTaskContext>> drawer : tasksInDrawers.entrySet()) {
 
-      // Sort the list
-      Collections.sort(drawer.getValue());
-
       final IPaletteCompartmentEntry paletteCompartmentEntry = new PaletteCompartmentEntry(drawer.getKey(), null);
 
       for (final CustomServiceTaskContext currentDrawerItem : drawer.getValue()) {
@@ -715,7 +706,7 @@ public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
       ret.add(paletteCompartmentEntry);
     }
 
-    return ret.toArray(new IPaletteCompartmentEntry[ret.size()]);
+    return ret;
   }
 
   /**
@@ -725,9 +716,7 @@ public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
    * @param entry
    *          the compartment being pruned
    */
-  private void pruneDisabledPaletteEntries(final IProject project, final IPaletteCompartmentEntry entry) {
-
-    final Set<PaletteEntry> disabledPaletteEntries = ExtensionUtil.getDisabledPaletteEntries(project);
+  private void pruneDisabledPaletteEntries(final Set<PaletteEntry> disabledPaletteEntries, final IPaletteCompartmentEntry entry) {
 
     if (!disabledPaletteEntries.isEmpty()) {
 
@@ -750,9 +739,9 @@ public class ActivitiToolBehaviorProvider extends DefaultToolBehaviorProvider {
           }
         }
       }
-    }
+    }
   }
-
+
   private boolean subProcessDiagramExists(SubProcess subProcess) {
     Resource resource = getDiagramTypeProvider().getDiagram().eResource();
 
@@ -0,0 +1,213 @@
+package org.activiti.designer.diagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.activiti.designer.integration.palette.PaletteEntry;
+import org.activiti.designer.util.extension.CustomServiceTaskContext;
+import org.activiti.designer.util.extension.ExtensionUtil;
+import org.activiti.designer.util.trace.PerformanceTrace;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.graphiti.ui.internal.GraphitiUIPlugin;
+import org.eclipse.jface.resource.ImageRegistry;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Caches the parts of the palette that are determined by the extensions of a project: the
+ * disabled palette entries and the custom service tasks by drawer. Entries are keyed by the
+ * project and are only valid as long as the fingerprint of the project's extensions is unchanged.
+ * When an entry is rebuilt, the parts that did not change are taken over from the previous entry,
+ * so users of the cache can tell by identity which parts they need to rebuild. The entry of a
+ * project is dropped when the project is closed or deleted.
+ *
+ * @since 5.12.1
+ *
+ */
+final class PaletteCache {
+
+  /**
+   * The models by project. The map is synchronized on its own, so the resource
+   * listener can drop entries without waiting for a model being built.
+   */
+  private static final Map<IProject, PaletteModel> MODELS = Collections.synchronizedMap(new HashMap<IProject, PaletteModel>());
+
+  private static final IResourceChangeListener PROJECT_LISTENER = new IResourceChangeListener() {
+
+    @Override
+    public void resourceChanged(final IResourceChangeEvent event) {
+      if (event.getResource() instanceof IProject) {
+        MODELS.remove(event.getResource());
+      }
+    }
+  };
+
+  private static boolean listening;
+
+  private PaletteCache() {
+
+  }
+
+  /**
+   * Gets the palette model for the provided project, rebuilding it if the
+   * extensions of the project have changed since it was built.
+   *
+   * @param project
+   *          the project of the diagram
+   * @return the palette model of the project
+   */
+  public static synchronized PaletteModel getPaletteModel(final IProject project) {
+    if (!listening) {
+      ResourcesPlugin.getWorkspace().addResourceChangeListener(PROJECT_LISTENER, IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+      listening = true;
+    }
+
+    final String fingerprint = ExtensionUtil.getExtensionFingerprint(project);
+
+    final PaletteModel previousModel = MODELS.get(project);
+    if (previousModel != null && previousModel.fingerprint.equals(fingerprint)) {
+      return previousModel;
+    }
+
+    final long start = PerformanceTrace.begin();
+    try {
+      final PaletteModel model = buildPaletteModel(fingerprint, previousModel, project);
+      if (project.isOpen()) {
+        MODELS.put(project, model);
+      }
+      return model;
+    } finally {
+      PerformanceTrace.end("Palette model", project.getName(), start);
+    }
+  }
+
+  /**
+   * Builds the palette model of the project, taking over the parts of the
+   * previous model that did not change.
+   */
+  private static PaletteModel buildPaletteModel(final String fingerprint, final PaletteModel previousModel, final IProject project) {
+    Set<PaletteEntry> disabledPaletteEntries = Collections.unmodifiableSet(ExtensionUtil.getDisabledPaletteEntries(project));
+
+    final List<CustomServiceTaskContext> customServiceTaskContexts = ExtensionUtil.getCustomServiceTaskContexts(project);
+    Map<String, List<CustomServiceTaskContext>> customServiceTaskDrawers = getDrawers(customServiceTaskContexts);
+    List<String> customServiceTaskSignature = getSignature(customServiceTaskDrawers);
+
+    if (previousModel != null) {
+      if (previousModel.disabledPaletteEntries.equals(disabledPaletteEntries)) {
+        disabledPaletteEntries = previousModel.disabledPaletteEntries;
+      }
+      if (previousModel.customServiceTaskSignature.equals(customServiceTaskSignature)) {
+        customServiceTaskDrawers = previousModel.customServiceTaskDrawers;
+        customServiceTaskSignature = previousModel.customServiceTaskSignature;
+      }
+    }
+
+    if (previousModel == null || customServiceTaskDrawers != previousModel.customServiceTaskDrawers) {
+      registerImages(customServiceTaskContexts);
+    }
+
+    return new PaletteModel(fingerprint, disabledPaletteEntries, customServiceTaskDrawers, customServiceTaskSignature);
+  }
+
+  /**
+   * Groups the contexts by the drawer their tasks contribute to, sorted within
+   * each drawer.
+   */
+  private static Map<String, List<CustomServiceTaskContext>> getDrawers(final List<CustomServiceTaskContext> customServiceTaskContexts) {
+    final Map<String, List<CustomServiceTaskContext>> result = new LinkedHashMap<String, List<CustomServiceTaskContext>>();
+    for (final CustomServiceTaskContext taskContext : customServiceTaskContexts) {
+      final String drawer = taskContext.getServiceTask().contributeToPaletteDrawer();
+      if (!result.containsKey(drawer)) {
+        result.put(drawer, new ArrayList<CustomServiceTaskContext>());
+      }
+      result.get(drawer).add(taskContext);
+    }
+
+    for (final Map.Entry<String, List<CustomServiceTaskContext>> drawer : result.entrySet()) {
+      Collections.sort(drawer.getValue());
+      drawer.setValue(Collections.unmodifiableList(drawer.getValue()));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Describes the drawers by their names and the classes and icons of their
+   * tasks. Tasks are instantiated anew on every discovery, so the drawers
+   * cannot be compared directly.
+   */
+  private static List<String> getSignature(final Map<String, List<CustomServiceTaskContext>> customServiceTaskDrawers) {
+    final List<String> result = new ArrayList<String>();
+    for (final Map.Entry<String, List<CustomServiceTaskContext>> drawer : customServiceTaskDrawers.entrySet()) {
+      result.add(drawer.getKey());
+      for (final CustomServiceTaskContext taskContext : drawer.getValue()) {
+        result.add(taskContext.getServiceTask().getClass().getCanonicalName() + ':' + taskContext.getServiceTask().getName() + ':'
+                + taskContext.getServiceTask().getDescription() + ':' + taskContext.getSmallImageKey());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Decodes the icons of the custom service tasks into the shared image
+   * registry, unless they have been decoded before.
+   */
+  private static void registerImages(final List<CustomServiceTaskContext> customServiceTaskContexts) {
+    final ImageRegistry reg = GraphitiUIPlugin.getDefault().getImageRegistry();
+    for (final CustomServiceTaskContext taskContext : customServiceTaskContexts) {
+      if (reg.get(taskContext.getSmallImageKey()) == null) {
+        reg.put(taskContext.getSmallImageKey(), new Image(PlatformUI.getWorkbench().getDisplay(), taskContext.getSmallIconStream()));
+      }
+      if (reg.get(taskContext.getLargeImageKey()) == null) {
+        reg.put(taskContext.getLargeImageKey(), new Image(PlatformUI.getWorkbench().getDisplay(), taskContext.getLargeIconStream()));
+      }
+      if (reg.get(taskContext.getShapeImageKey()) == null) {
+        reg.put(taskContext.getShapeImageKey(), new Image(PlatformUI.getWorkbench().getDisplay(), taskContext.getShapeIconStream()));
+      }
+    }
+  }
+
+  /**
+   * The extension dependent parts of the palette of a project.
+   */
+  static final class PaletteModel {
+
+    private final String fingerprint;
+    private final Set<PaletteEntry> disabledPaletteEntries;
+    private final Map<String, List<CustomServiceTaskContext>> customServiceTaskDrawers;
+    private final List<String> customServiceTaskSignature;
+
+    private PaletteModel(final String fingerprint, final Set<PaletteEntry> disabledPaletteEntries,
+            final Map<String, List<CustomServiceTaskContext>> customServiceTaskDrawers, final List<String> customServiceTaskSignature) {
+      this.fingerprint = fingerprint;
+      this.disabledPaletteEntries = disabledPaletteEntries;
+      this.customServiceTaskDrawers = customServiceTaskDrawers;
+      this.customServiceTaskSignature = customServiceTaskSignature;
+    }
+
+    /**
+     * Gets the palette entries disabled by the extensions. The same instance
+     * is returned as long as the disabled entries do not change.
+     */
+    public Set<PaletteEntry> getDisabledPaletteEntries() {
+      return disabledPaletteEntries;
+    }
+
+    /**
+     * Gets the custom service tasks by the drawer they contribute to. The same
+     * instance is returned as long as the custom service tasks do not change.
+     */
+    public Map<String, List<CustomServiceTaskContext>> getCustomServiceTaskDrawers() {
+      return customServiceTaskDrawers;
+    }
+
+  }
+
+}
@@ -25,7 +25,7 @@ public abstract class AbstractCreateBPMNConnectionFeature extends AbstractCreate
   protected abstract Class<? extends BaseElement> getFeatureClass();
 
   protected String getNextId() {
-    return ActivitiUiUtil.getNextId(getFeatureClass(), getFeatureIdKey(), getDiagram());
+    return ActivitiUiUtil.getNextId(getFeatureIdKey(), getDiagram());
   }
 
 }
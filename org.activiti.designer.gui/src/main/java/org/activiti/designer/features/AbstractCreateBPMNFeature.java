@@ -12,6 +12,7 @@ import org.activiti.bpmn.model.BoundaryEvent;
 import org.activiti.bpmn.model.CallActivity;
 import org.activiti.bpmn.model.Event;
 import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
 import org.activiti.bpmn.model.FlowNode;
 import org.activiti.bpmn.model.Gateway;
 import org.activiti.bpmn.model.Lane;
@@ -55,11 +56,11 @@ public abstract class AbstractCreateBPMNFeature extends AbstractCreateFeature {
   protected abstract String getFeatureIdKey();
 
   protected String getNextId(BaseElement element) {
-    return ActivitiUiUtil.getNextId(element.getClass(), getFeatureIdKey(), getDiagram());
+    return ActivitiUiUtil.getNextId(getFeatureIdKey(), getDiagram());
   }
   
   protected String getNextId(BaseElement element, String featureIdKey) {
-    return ActivitiUiUtil.getNextId(element.getClass(), featureIdKey, getDiagram());
+    return ActivitiUiUtil.getNextId(featureIdKey, getDiagram());
   }
   
   public boolean canCreate(ICreateContext context) {
@@ -94,6 +95,8 @@ public abstract class AbstractCreateBPMNFeature extends AbstractCreateFeature {
     } else {
       throw new IllegalArgumentException("Container must be Process or SubProcess.");
     }
+    
+    ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).addToIndex(baseElement, (FlowElementsContainer) container);
   }
   
   /**
@@ -145,6 +148,7 @@ public abstract class AbstractCreateBPMNFeature extends AbstractCreateFeature {
         {
           final FlowElement flowElement = (FlowElement) baseElement;
           lane.getFlowReferences().add(flowElement.getId());
+          ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).invalidateLanes();
         }
   
         addFlowNodeOrArtifact(baseElement, lane.getParentProcess());
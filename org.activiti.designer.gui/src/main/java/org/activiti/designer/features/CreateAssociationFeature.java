@@ -72,13 +72,15 @@ public class CreateAssociationFeature extends AbstractCreateBPMNConnectionFeatur
     final ContainerShape targetContainer = (ContainerShape) context.getSourcePictogramElement();
     final ContainerShape parentContainer = targetContainer.getContainer();
     
+    final Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
     if (parentContainer instanceof Diagram) {
-      final Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
       if (model.getBpmnModel().getPools().size() > 0) {
         String poolRef = model.getBpmnModel().getPools().get(0).getId();
         model.getBpmnModel().getProcess(poolRef).addArtifact(association);
+        model.addToIndex(association, model.getBpmnModel().getProcess(poolRef));
       } else {
         model.getBpmnModel().getMainProcess().addArtifact(association);
+        model.addToIndex(association, model.getBpmnModel().getMainProcess());
       }
     } else {
       final Object parentBo = getBusinessObjectForPictogramElement(parentContainer);
@@ -86,9 +88,11 @@ public class CreateAssociationFeature extends AbstractCreateBPMNConnectionFeatur
       if (parentBo instanceof SubProcess) {
         final SubProcess subProcess = (SubProcess) parentBo;
         subProcess.addArtifact(association);
+        model.addToIndex(association, subProcess);
       } else if (parentBo instanceof Lane) {
         final Lane lane = (Lane) parentBo;
         lane.getParentProcess().addArtifact(association);
+        model.addToIndex(association, lane.getParentProcess());
       }
     }
     
@@ -11,6 +11,7 @@ import org.activiti.bpmn.model.StartEvent;
 import org.activiti.bpmn.model.SubProcess;
 import org.activiti.designer.PluginImage;
 import org.activiti.designer.eclipse.preferences.PreferencesUtil;
+import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.activiti.designer.util.preferences.Preferences;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -118,18 +119,22 @@ public class CreateSequenceFlowFeature extends AbstractCreateBPMNConnectionFeatu
       targetContainer = (ContainerShape) context.getSourcePictogramElement();
     }
       
+    Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
     ContainerShape parentContainer = targetContainer.getContainer();
     if (parentContainer instanceof Diagram) {
-      ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).getBpmnModel().getMainProcess().addFlowElement(sequenceFlow);
+      model.getBpmnModel().getMainProcess().addFlowElement(sequenceFlow);
+      model.addToIndex(sequenceFlow, model.getBpmnModel().getMainProcess());
 
     } else {
       Object parentObject = getBusinessObjectForPictogramElement(parentContainer);
       if (parentObject instanceof SubProcess) {
         ((SubProcess) parentObject).addFlowElement(sequenceFlow);
+        model.addToIndex(sequenceFlow, (SubProcess) parentObject);
 
       } else if (parentObject instanceof Lane) {
         Lane lane = (Lane) parentObject;
         lane.getParentProcess().addFlowElement(sequenceFlow);
+        model.addToIndex(sequenceFlow, lane.getParentProcess());
       }
     }
     
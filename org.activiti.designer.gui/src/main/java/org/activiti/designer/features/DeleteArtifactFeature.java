@@ -14,6 +14,7 @@ import org.activiti.bpmn.model.FlowNode;
 import org.activiti.bpmn.model.Process;
 import org.activiti.bpmn.model.SubProcess;
 import org.activiti.bpmn.model.TextAnnotation;
+import org.activiti.designer.diagram.ActivitiBPMNFeatureProvider;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.graphiti.features.IFeatureProvider;
@@ -38,6 +39,7 @@ public class DeleteArtifactFeature extends DefaultDeleteFeature {
 	}
 	
 	private void removeElement(BaseElement element) {
+	  ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().remove(element);
   	List<Process> processes = ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).getBpmnModel().getProcesses();
     for (Process process : processes) {
       process.removeArtifact(element.getId());
@@ -21,6 +21,7 @@ import org.activiti.bpmn.model.Process;
 import org.activiti.bpmn.model.SequenceFlow;
 import org.activiti.bpmn.model.SubProcess;
 import org.activiti.bpmn.model.Task;
+import org.activiti.designer.diagram.ActivitiBPMNFeatureProvider;
 import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -76,12 +77,29 @@ public class DeleteFlowElementFeature extends DefaultDeleteFeature {
 	}
 	
 	private void removeElement(BaseElement element) {
-  	List<Process> processes = ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).getBpmnModel().getProcesses();
+	  ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().remove(element);
+	  Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
+	  
+	  // look up the owning process or sub process and lane in the model index first
+	  FlowElementsContainer container = model.getParentContainer(element.getId());
+	  if (container != null) {
+	    Lane lane = model.getLane(element.getId());
+	    if (lane != null) {
+	      lane.getFlowReferences().remove(element.getId());
+	      model.invalidateLanes();
+	    }
+	    container.removeFlowElement(element.getId());
+	    model.removeFromIndex(element.getId());
+	    return;
+	  }
+	  
+  	List<Process> processes = model.getBpmnModel().getProcesses();
     for (Process process : processes) {
       process.removeFlowElement(element.getId());
       removeElementInLanes(element.getId(), process.getLanes());
       removeElementInProcess(element, process);
     }
+    model.invalidateLanes();
 	}
 	
 	private void removeElementInLanes(String elementId, List<Lane> laneList) {
@@ -12,6 +12,7 @@ import org.activiti.bpmn.model.Pool;
 import org.activiti.bpmn.model.Process;
 import org.activiti.bpmn.model.SequenceFlow;
 import org.activiti.bpmn.model.SubProcess;
+import org.activiti.designer.diagram.ActivitiBPMNFeatureProvider;
 import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -73,6 +74,7 @@ public class DeleteLaneFeature extends DefaultDeleteFeature {
 		  if(laneProcess.getLanes().size() == 1) {
         Process process = model.getBpmnModel().getProcess(parentPool.getId());
         model.getBpmnModel().getProcesses().remove(process);
+        model.invalidateIndex();
         model.getBpmnModel().getPools().remove(parentPool);
         PictogramElement poolElement = getFeatureProvider().getPictogramElementForBusinessObject(parentPool);
         IRemoveContext poolRc = new RemoveContext(poolElement);
@@ -115,10 +117,13 @@ public class DeleteLaneFeature extends DefaultDeleteFeature {
 		    removeElement(subFlowElement);
       }
 		  lane.getParentProcess().getLanes().remove(lane);
+		  model.invalidateLanes();
+		  ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().remove(lane);
 		}
 	}
 	
 	private void removeElement(BaseElement element) {
+	  ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().remove(element);
   	List<Process> processes = ModelHandler.getModel(EcoreUtil.getURI(getDiagram())).getBpmnModel().getProcesses();
     for (Process process : processes) {
       process.removeFlowElement(element.getId());
@@ -2,6 +2,7 @@ package org.activiti.designer.features;
 
 import org.activiti.bpmn.model.Pool;
 import org.activiti.bpmn.model.Process;
+import org.activiti.designer.diagram.ActivitiBPMNFeatureProvider;
 import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -53,7 +54,9 @@ public class DeletePoolFeature extends AbstractCustomFeature {
         Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
         Process process = model.getBpmnModel().getProcess(pool.getId());
         model.getBpmnModel().getProcesses().remove(process);
+        model.invalidateIndex();
         model.getBpmnModel().getPools().remove(pool);
+        ((ActivitiBPMNFeatureProvider) getFeatureProvider()).getPojoIndependenceSolver().remove(pool);
         IRemoveContext rc = new RemoveContext(pictogramElement);
         IFeatureProvider featureProvider = getFeatureProvider();
         IRemoveFeature removeFeature = featureProvider.getRemoveFeature(rc);
@@ -85,6 +85,7 @@ public class MoveActivityFeature extends DefaultMoveShapeFeature {
 		    } else if (containerBo instanceof Lane) {
 		      Lane lane = (Lane) containerBo;
           lane.getFlowReferences().remove(activity.getId());
+          model.invalidateLanes();
           lane.getParentProcess().removeFlowElement(activity.getId());
           for (SequenceFlow flow : activity.getOutgoingFlows()) {
             lane.getParentProcess().removeFlowElement(flow.getId());
@@ -110,21 +111,28 @@ public class MoveActivityFeature extends DefaultMoveShapeFeature {
         if (containerBo instanceof SubProcess) {
           SubProcess subProcess = (SubProcess) containerBo;
           subProcess.addFlowElement(activity);
+          model.addToIndex(activity, subProcess);
           for (SequenceFlow flow : activity.getOutgoingFlows()) {
             subProcess.addFlowElement(flow);
+            model.addToIndex(flow, subProcess);
           }
           for (BoundaryEvent event : activity.getBoundaryEvents()) {
             subProcess.addFlowElement(event);
+            model.addToIndex(event, subProcess);
           }
         } else if (containerBo instanceof Lane) {
           Lane lane = (Lane) containerBo;
           lane.getFlowReferences().add(activity.getId());
+          model.invalidateLanes();
           lane.getParentProcess().addFlowElement(activity);
+          model.addToIndex(activity, lane.getParentProcess());
           for (SequenceFlow flow : activity.getOutgoingFlows()) {
             lane.getParentProcess().addFlowElement(flow);
+            model.addToIndex(flow, lane.getParentProcess());
           }
           for (BoundaryEvent event : activity.getBoundaryEvents()) {
             lane.getParentProcess().addFlowElement(event);
+            model.addToIndex(event, lane.getParentProcess());
           }
         }
       } else {
@@ -132,11 +140,14 @@ public class MoveActivityFeature extends DefaultMoveShapeFeature {
           model.addMainProcess();
         }
         model.getBpmnModel().getMainProcess().addFlowElement(activity);
+        model.addToIndex(activity, model.getBpmnModel().getMainProcess());
         for (SequenceFlow flow : activity.getOutgoingFlows()) {
           model.getBpmnModel().getMainProcess().addFlowElement(flow);
+          model.addToIndex(flow, model.getBpmnModel().getMainProcess());
         }
         for (BoundaryEvent event : activity.getBoundaryEvents()) {
           model.getBpmnModel().getMainProcess().addFlowElement(event);
+          model.addToIndex(event, model.getBpmnModel().getMainProcess());
         }
       }
 		}
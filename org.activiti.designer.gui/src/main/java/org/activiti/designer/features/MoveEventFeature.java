@@ -46,6 +46,7 @@ public class MoveEventFeature extends DefaultMoveShapeFeature {
 		    } else if (containerBo instanceof Lane) {
 		      Lane lane = (Lane) containerBo;
           lane.getFlowReferences().remove(event.getId());
+          model.invalidateLanes();
           lane.getParentProcess().removeFlowElement(event.getId());
           for (SequenceFlow flow : event.getOutgoingFlows()) {
             lane.getParentProcess().removeFlowElement(flow.getId());
@@ -63,21 +64,28 @@ public class MoveEventFeature extends DefaultMoveShapeFeature {
         if (containerBo instanceof SubProcess) {
           SubProcess subProcess = (SubProcess) containerBo;
           subProcess.addFlowElement(event);
+          model.addToIndex(event, subProcess);
           for (SequenceFlow flow : event.getOutgoingFlows()) {
             subProcess.addFlowElement(flow);
+            model.addToIndex(flow, subProcess);
           }
         } else if (containerBo instanceof Lane) {
           Lane lane = (Lane) containerBo;
           lane.getFlowReferences().add(event.getId());
+          model.invalidateLanes();
           lane.getParentProcess().addFlowElement(event);
+          model.addToIndex(event, lane.getParentProcess());
           for (SequenceFlow flow : event.getOutgoingFlows()) {
             lane.getParentProcess().addFlowElement(flow);
+            model.addToIndex(flow, lane.getParentProcess());
           }
         }
       } else {
         model.getBpmnModel().getMainProcess().addFlowElement(event);
+        model.addToIndex(event, model.getBpmnModel().getMainProcess());
         for (SequenceFlow flow : event.getOutgoingFlows()) {
           model.getBpmnModel().getMainProcess().addFlowElement(flow);
+          model.addToIndex(flow, model.getBpmnModel().getMainProcess());
         }
       }
 		}
@@ -46,6 +46,7 @@ public class MoveGatewayFeature extends DefaultMoveShapeFeature {
 		    } else if (containerBo instanceof Lane) {
 		      Lane lane = (Lane) containerBo;
           lane.getFlowReferences().remove(gateway.getId());
+          model.invalidateLanes();
           lane.getParentProcess().removeFlowElement(gateway.getId());
           for (SequenceFlow flow : gateway.getOutgoingFlows()) {
             lane.getParentProcess().removeFlowElement(flow.getId());
@@ -63,21 +64,28 @@ public class MoveGatewayFeature extends DefaultMoveShapeFeature {
         if (containerBo instanceof SubProcess) {
           SubProcess subProcess = (SubProcess) containerBo;
           subProcess.addFlowElement(gateway);
+          model.addToIndex(gateway, subProcess);
           for (SequenceFlow flow : gateway.getOutgoingFlows()) {
             subProcess.addFlowElement(flow);
+            model.addToIndex(flow, subProcess);
           }
         } else if (containerBo instanceof Lane) {
           Lane lane = (Lane) containerBo;
           lane.getFlowReferences().add(gateway.getId());
+          model.invalidateLanes();
           lane.getParentProcess().addFlowElement(gateway);
+          model.addToIndex(gateway, lane.getParentProcess());
           for (SequenceFlow flow : gateway.getOutgoingFlows()) {
             lane.getParentProcess().addFlowElement(flow);
+            model.addToIndex(flow, lane.getParentProcess());
           }
         }
       } else {
         model.getBpmnModel().getMainProcess().addFlowElement(gateway);
+        model.addToIndex(gateway, model.getBpmnModel().getMainProcess());
         for (SequenceFlow flow : gateway.getOutgoingFlows()) {
           model.getBpmnModel().getMainProcess().addFlowElement(flow);
+          model.addToIndex(flow, model.getBpmnModel().getMainProcess());
         }
       }
 		}
@@ -0,0 +1,268 @@
+package org.activiti.designer.popupmenus;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.activiti.designer.Activator;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
+
+/**
+ * Packages the processes of a project into a business archive (.bar) and its classes into a jar
+ * in the deployment folder of the project. The project is traversed once to find the resources
+ * to package and the resources are streamed straight into the archives. The archives are only
+ * rebuilt if one of the packaged resources has changed since they were last built.
+ *
+ * @since 5.12.1
+ *
+ */
+class DeploymentPackager {
+
+  private static final String DEPLOYMENT_FOLDER = "deployment";
+  private static final IPath CLASSES_FOLDER = new Path("target/classes");
+
+  private static final QualifiedName PROPERTY_PACKAGE_FINGERPRINT = new QualifiedName(Activator.PLUGIN_ID, "deploymentPackageFingerprint");
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final IProject project;
+  private final IPath classesPath;
+
+  private final List<PackageEntry> bpmnEntries = new ArrayList<PackageEntry>();
+  private final List<PackageEntry> bpmn20Entries = new ArrayList<PackageEntry>();
+  private final List<PackageEntry> barEntries = new ArrayList<PackageEntry>();
+  private final List<PackageEntry> jarEntries = new ArrayList<PackageEntry>();
+
+  public DeploymentPackager(final IProject project) {
+    this.project = project;
+    this.classesPath = project.getFullPath().append(CLASSES_FOLDER);
+  }
+
+  /**
+   * Builds the archives of the project, unless they are up to date.
+   *
+   * @param monitor
+   *          the monitor to report progress to
+   * @return true if the archives were built, false if the project has no
+   *         processes or the archives are up to date
+   */
+  public boolean buildPackages(final IProgressMonitor monitor) throws CoreException, IOException {
+
+    collectEntries();
+
+    if (bpmnEntries.isEmpty() && bpmn20Entries.isEmpty()) {
+      return false;
+    }
+
+    // .bpmn files are listed before .bpmn20.xml files, the first one names the
+    // archives
+    final List<PackageEntry> processEntries = new ArrayList<PackageEntry>(bpmnEntries);
+    processEntries.addAll(bpmn20Entries);
+    processEntries.addAll(barEntries);
+
+    final String processFilename = processEntries.get(0).file.getName();
+    final String processName = processFilename.substring(0, processFilename.indexOf("."));
+
+    final IFolder deploymentFolder = project.getFolder(DEPLOYMENT_FOLDER);
+    final IFile barFile = deploymentFolder.getFile(processName + ".bar");
+    final IFile jarFile = deploymentFolder.getFile(processName + ".jar");
+
+    final String fingerprint = getFingerprint(processName, processEntries);
+    if (fingerprint.equals(project.getSessionProperty(PROPERTY_PACKAGE_FINGERPRINT)) && barFile.exists()
+            && (jarEntries.isEmpty() || jarFile.exists())) {
+      return false;
+    }
+
+    monitor.beginTask("Creating deployment artifacts", processEntries.size() + jarEntries.size() + 1);
+
+    if (deploymentFolder.exists()) {
+      deploymentFolder.delete(true, new NullProgressMonitor());
+    }
+    deploymentFolder.create(true, true, new NullProgressMonitor());
+    project.setSessionProperty(PROPERTY_PACKAGE_FINGERPRINT, null);
+
+    writeArchive(barFile, processEntries, monitor);
+    if (!jarEntries.isEmpty()) {
+      writeArchive(jarFile, jarEntries, monitor);
+    }
+
+    // refresh the output folder to reflect changes
+    deploymentFolder.refreshLocal(IResource.DEPTH_INFINITE, new NullProgressMonitor());
+    monitor.worked(1);
+
+    project.setSessionProperty(PROPERTY_PACKAGE_FINGERPRINT, fingerprint);
+
+    monitor.done();
+    return true;
+  }
+
+  /**
+   * Visits the resources of the project once and sorts the files to package
+   * into the archives they belong in.
+   */
+  private void collectEntries() throws CoreException {
+    project.accept(new IResourceProxyVisitor() {
+
+      @Override
+      public boolean visit(final IResourceProxy proxy) throws CoreException {
+        switch (proxy.getType()) {
+        case IResource.FILE:
+          addEntry(proxy);
+          return false;
+        case IResource.FOLDER:
+          final IPath folderPath = proxy.requestFullPath();
+          if (folderPath.isPrefixOf(classesPath)) {
+            // on the way to the classes folder
+            return true;
+          }
+          if (!classesPath.isPrefixOf(folderPath) && classesPath.removeLastSegments(1).isPrefixOf(folderPath)) {
+            // other build output
+            return false;
+          }
+          return !proxy.getName().contains("target");
+        default:
+          return true;
+        }
+      }
+    }, IResource.NONE);
+  }
+
+  private void addEntry(final IResourceProxy proxy) {
+    final String name = proxy.getName();
+    final IPath path = proxy.requestFullPath();
+
+    if (classesPath.isPrefixOf(path)) {
+      if (name.endsWith(".class") || name.endsWith(".gif")) {
+        jarEntries.add(new PackageEntry(path.removeFirstSegments(3).toPortableString(), (IFile) proxy.requestResource(), proxy.getModificationStamp()));
+      }
+    } else if (name.endsWith(".bpmn")) {
+      // .bpmn files are not parsed by the Activiti Engine before version 5.10
+      final String entryName = name.substring(0, name.lastIndexOf(".")) + ".bpmn20.xml";
+      bpmnEntries.add(new PackageEntry(entryName, (IFile) proxy.requestResource(), proxy.getModificationStamp()));
+    } else if (name.endsWith(".bpmn20.xml")) {
+      bpmn20Entries.add(new PackageEntry(name, (IFile) proxy.requestResource(), proxy.getModificationStamp()));
+    } else if (name.endsWith(".form")) {
+      // forms keep their package, relative to the resources folder
+      final String entryName = path.removeFirstSegments(4).removeLastSegments(1).append(name).toPortableString();
+      barEntries.add(new PackageEntry(entryName, (IFile) proxy.requestResource(), proxy.getModificationStamp()));
+    } else if (name.endsWith(".png") || name.endsWith(".drl")) {
+      barEntries.add(new PackageEntry(name, (IFile) proxy.requestResource(), proxy.getModificationStamp()));
+    }
+  }
+
+  private void writeArchive(final IFile archiveFile, final List<PackageEntry> entries, final IProgressMonitor monitor) throws CoreException,
+          IOException {
+    final Set<String> entryNames = new HashSet<String>();
+    final byte[] buffer = new byte[BUFFER_SIZE];
+
+    final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile.getLocation().toFile())));
+    try {
+      for (final PackageEntry entry : entries) {
+        if (monitor.isCanceled()) {
+          throw new OperationCanceledException();
+        }
+
+        // the first resource wins if several resources end up at the same
+        // location
+        if (entryNames.add(entry.name)) {
+          out.putNextEntry(new ZipEntry(entry.name));
+          copy(entry.file.getContents(true), out, buffer);
+          out.closeEntry();
+        }
+        monitor.worked(1);
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  private void copy(final InputStream in, final OutputStream out, final byte[] buffer) throws IOException {
+    try {
+      int read = in.read(buffer);
+      while (read != -1) {
+        out.write(buffer, 0, read);
+        read = in.read(buffer);
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Gets a digest of the names, locations and modification stamps of all
+   * resources that are packaged.
+   */
+  private String getFingerprint(final String processName, final List<PackageEntry> processEntries) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      update(digest, processName);
+      for (final PackageEntry entry : processEntries) {
+        update(digest, entry);
+      }
+      update(digest, "|");
+      for (final PackageEntry entry : jarEntries) {
+        update(digest, entry);
+      }
+
+      final StringBuilder result = new StringBuilder();
+      for (final byte b : digest.digest()) {
+        result.append(Integer.toHexString((b & 0xff) | 0x100).substring(1));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void update(final MessageDigest digest, final PackageEntry entry) {
+    update(digest, entry.name);
+    update(digest, entry.file.getFullPath().toPortableString());
+    update(digest, Long.toString(entry.modificationStamp));
+  }
+
+  private void update(final MessageDigest digest, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      digest.update((byte) (c >> 8));
+      digest.update((byte) c);
+    }
+    digest.update((byte) 0);
+  }
+
+  private static class PackageEntry {
+
+    private final String name;
+    private final IFile file;
+    private final long modificationStamp;
+
+    public PackageEntry(final String name, final IFile file, final long modificationStamp) {
+      this.name = name;
+      this.file = file;
+      this.modificationStamp = modificationStamp;
+    }
+
+  }
+
+}
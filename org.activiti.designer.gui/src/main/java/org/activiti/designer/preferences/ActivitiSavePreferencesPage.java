@@ -4,6 +4,7 @@ import org.activiti.designer.eclipse.common.ActivitiPlugin;
 import org.activiti.designer.util.preferences.Preferences;
 import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
@@ -25,6 +26,11 @@ public class ActivitiSavePreferencesPage extends FieldEditorPreferencePage imple
 
     addField(new BooleanFieldEditor(Preferences.SAVE_IMAGE.getPreferenceId(),
             "&Create process definition image when saving the diagram", group));
+
+    IntegerFieldEditor imageScaleEditor = new IntegerFieldEditor(Preferences.SAVE_IMAGE_SCALE.getPreferenceId(),
+            "Process definition image &scale (%)", group);
+    imageScaleEditor.setValidRange(10, 400);
+    addField(imageScaleEditor);
   }
   @Override
   public void init(IWorkbench workbench) {
@@ -172,6 +172,10 @@ public class PropertyBpmnSection extends ActivitiPropertySection implements ITab
               updateParentLane(element.getId(), idText.getText());
               updateFlows(element, idText.getText());
               element.setId(idText.getText());
+              Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(getDiagram()));
+              model.invalidateIndex();
+              model.registerId(idText.getText());
+              model.invalidateDiagramInterchange();
             }
             
             @Override
@@ -36,6 +36,7 @@ import org.activiti.designer.features.CreateServiceTaskFeature;
 import org.activiti.designer.features.CreateStartEventFeature;
 import org.activiti.designer.features.CreateUserTaskFeature;
 import org.activiti.designer.util.eclipse.ActivitiUiUtil;
+import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.activiti.designer.util.extension.ExtensionUtil;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -117,7 +118,9 @@ public final class CloneUtil {
 
     if (cloneElement != null) {
       cloneElement.setName(element.getName());
-      ModelHandler.getModel(EcoreUtil.getURI(diagram)).getBpmnModel().getMainProcess().addFlowElement(cloneElement);
+      final Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(diagram));
+      model.getBpmnModel().getMainProcess().addFlowElement(cloneElement);
+      model.addToIndex(cloneElement, model.getBpmnModel().getMainProcess());
     }
 
     return cloneElement;
@@ -170,7 +173,7 @@ public final class CloneUtil {
    */
   private static final StartEvent clone(final StartEvent original, final Diagram diagram) {
     StartEvent result = new StartEvent();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateStartEventFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateStartEventFeature.FEATURE_ID_KEY, diagram));
     return result;
   }
 
@@ -183,7 +186,7 @@ public final class CloneUtil {
    */
   private static final EndEvent clone(final EndEvent original, final Diagram diagram) {
     EndEvent result = new EndEvent();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateEndEventFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateEndEventFeature.FEATURE_ID_KEY, diagram));
     return result;
 
   }
@@ -197,7 +200,7 @@ public final class CloneUtil {
    */
   private static final ExclusiveGateway clone(final ExclusiveGateway original, final Diagram diagram) {
     ExclusiveGateway result = new ExclusiveGateway();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateExclusiveGatewayFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateExclusiveGatewayFeature.FEATURE_ID_KEY, diagram));
     return result;
 
   }
@@ -211,7 +214,7 @@ public final class CloneUtil {
    */
   private static final InclusiveGateway clone(final InclusiveGateway original, final Diagram diagram) {
     InclusiveGateway result = new InclusiveGateway();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateInclusiveGatewayFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateInclusiveGatewayFeature.FEATURE_ID_KEY, diagram));
     return result;
   }
 
@@ -224,7 +227,7 @@ public final class CloneUtil {
    */
   private static final ManualTask clone(final ManualTask original, final Diagram diagram) {
     ManualTask result = new ManualTask();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateMailTaskFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateMailTaskFeature.FEATURE_ID_KEY, diagram));
     return result;
   }
 
@@ -237,7 +240,7 @@ public final class CloneUtil {
    */
   private static final ParallelGateway clone(final ParallelGateway original, final Diagram diagram) {
     ParallelGateway result = new ParallelGateway();
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateParallelGatewayFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateParallelGatewayFeature.FEATURE_ID_KEY, diagram));
     return result;
   }
 
@@ -251,7 +254,7 @@ public final class CloneUtil {
   private static final ScriptTask clone(final ScriptTask original, final Diagram diagram) {
     ScriptTask result = new ScriptTask();
 
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateScriptTaskFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateScriptTaskFeature.FEATURE_ID_KEY, diagram));
     result.setScript(original.getScript());
     result.setScriptFormat(original.getScriptFormat());
 
@@ -269,7 +272,7 @@ public final class CloneUtil {
   private static final UserTask clone(final UserTask original, final Diagram diagram) {
     UserTask result = new UserTask();
 
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateUserTaskFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateUserTaskFeature.FEATURE_ID_KEY, diagram));
     result.setAssignee(original.getAssignee());
     result.setFormKey(original.getFormKey());
     result.setDueDate(original.getDueDate());
@@ -289,7 +292,7 @@ public final class CloneUtil {
 
     ServiceTask result = new ServiceTask();
 
-    result.setId(ActivitiUiUtil.getNextId(result.getClass(), CreateServiceTaskFeature.FEATURE_ID_KEY, diagram));
+    result.setId(ActivitiUiUtil.getNextId(CreateServiceTaskFeature.FEATURE_ID_KEY, diagram));
     result.setImplementation(original.getImplementation());
     result.setExtensionId(original.getExtensionId());
 
@@ -1,5 +1,7 @@
 package org.activiti.designer.util;
 
+import org.activiti.designer.util.extension.ExtensionUtil;
+import org.activiti.designer.util.workspace.ActivitiWorkspaceUtil;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
@@ -34,6 +36,8 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		ActivitiWorkspaceUtil.disposeIndex();
+		ExtensionUtil.disposeExtensionCaches();
 		plugin = null;
 		super.stop(context);
 	}
@@ -1,19 +1,5 @@
 package org.activiti.designer.util.eclipse;
 
-import java.util.Collection;
-import java.util.List;
-
-import org.activiti.bpmn.model.Activity;
-import org.activiti.bpmn.model.Artifact;
-import org.activiti.bpmn.model.Association;
-import org.activiti.bpmn.model.BaseElement;
-import org.activiti.bpmn.model.BoundaryEvent;
-import org.activiti.bpmn.model.FlowElement;
-import org.activiti.bpmn.model.Lane;
-import org.activiti.bpmn.model.Pool;
-import org.activiti.bpmn.model.Process;
-import org.activiti.bpmn.model.SubProcess;
-import org.activiti.bpmn.model.TextAnnotation;
 import org.activiti.designer.util.editor.Bpmn2MemoryModel;
 import org.activiti.designer.util.editor.ModelHandler;
 import org.apache.commons.lang.ArrayUtils;
@@ -50,8 +36,6 @@ import org.eclipse.ui.PlatformUI;
 
 public class ActivitiUiUtil {
 
-  private static final String ID_PATTERN = "%s%s";
-
   public static void runModelChange(final Runnable runnable, final TransactionalEditingDomain editingDomain, final String label) {
 
     editingDomain.getCommandStack().execute(new RecordingCommand(editingDomain, label) {
@@ -198,104 +182,9 @@ public class ActivitiUiUtil {
     }
   }
 
-  public static final String getNextId(final Class<? extends BaseElement> featureClass, final String featureIdKey, final Diagram diagram) {
+  public static final String getNextId(final String featureIdKey, final Diagram diagram) {
     Bpmn2MemoryModel model = ModelHandler.getModel(EcoreUtil.getURI(diagram));
-    int determinedId = 0;
-    
-    if (featureClass.equals(Pool.class)) {
-      determinedId = loopThroughPools(featureClass, determinedId, model.getBpmnModel().getPools(), featureIdKey);
-    } else {
-    
-      for (Process process : model.getBpmnModel().getProcesses()) {
-          
-        if (featureClass.equals(Lane.class)) {
-          determinedId = loopThroughLanes(featureClass, determinedId, process.getLanes(), featureIdKey);
-        } else if (featureClass.equals(TextAnnotation.class) || featureClass.equals(Association.class)) {
-          determinedId = loopThroughArtifacts(featureClass, determinedId, process.getArtifacts(), featureIdKey);
-        } else {
-          determinedId = loopThroughElements(featureClass, determinedId, process.getFlowElements(), featureIdKey);
-        }
-      }
-    }
-    determinedId++;
-    return String.format(ID_PATTERN, featureIdKey, determinedId);
-  }
-  
-  public static int loopThroughPools(final Class<? extends BaseElement> featureClass, int determinedId, 
-      List<Pool> poolList, final String featureIdKey) {
-    
-    for (Pool pool : poolList) {
-      String contentObjectId = pool.getId().replace(featureIdKey, "");
-      determinedId = getId(contentObjectId, determinedId);
-    }
-    return determinedId;
-  }
-  
-  public static int loopThroughLanes(final Class<? extends BaseElement> featureClass, int determinedId, 
-      List<Lane> laneList, final String featureIdKey) {
-    
-    for (Lane lane : laneList) {
-      String contentObjectId = lane.getId().replace(featureIdKey, "");
-      determinedId = getId(contentObjectId, determinedId);
-    }
-    return determinedId;
-  }
-  
-  public static int loopThroughArtifacts(final Class<? extends BaseElement> featureClass, int determinedId, 
-      Collection<Artifact> artifactList, final String featureIdKey) {
-    
-    for (Artifact artifact : artifactList) {
-      String contentObjectId = artifact.getId().replace(featureIdKey, "");
-      determinedId = getId(contentObjectId, determinedId);
-    }
-    return determinedId;
-  }
-  
-  public static int loopThroughElements(final Class<? extends BaseElement> featureClass, int determinedId, 
-  		Collection<FlowElement> elementList, final String featureIdKey) {
-  	
-  	for (FlowElement element : elementList) {
-      
-      if(element instanceof SubProcess) {
-      	determinedId = loopThroughElements(featureClass, determinedId, ((SubProcess) element).getFlowElements(), featureIdKey);
-      }
-      
-      if(featureClass == BoundaryEvent.class && element instanceof Activity) {
-      	Activity activity = (Activity) element;
-      	for (BoundaryEvent boundaryEvent : activity.getBoundaryEvents()) {
-      	  if (boundaryEvent.getId() != null) {
-        		String contentObjectId = boundaryEvent.getId().replace(featureIdKey, "");
-            determinedId = getId(contentObjectId, determinedId);
-      	  }
-        }
-      }
-      
-      if (element.getClass() == featureClass) {
-        String contentObjectId = element.getId().replace(featureIdKey, "");
-        determinedId = getId(contentObjectId, determinedId);
-      }
-  	}
-  	return determinedId;
-  }
-  
-  private static int getId(String contentObjectId, int determinedId) {
-    int newdId = determinedId;
-    boolean isNumber = true;
-    if(contentObjectId != null && contentObjectId.length() > 0) {
-      
-      for(int i = 0; i < contentObjectId.length(); i++) {
-        if(Character.isDigit(contentObjectId.charAt(i)) == false) {
-          isNumber = false;
-        }
-      }
-      if(isNumber == true) {
-        Integer intNumber = Integer.valueOf(contentObjectId);
-        if (intNumber > newdId) {
-          newdId = intNumber;
-        }
-      }
-    }
-    return newdId;
+    return model.getNextId(featureIdKey);
   }
 
 }
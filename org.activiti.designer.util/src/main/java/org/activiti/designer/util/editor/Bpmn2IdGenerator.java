@@ -0,0 +1,110 @@
+package org.activiti.designer.util.editor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.activiti.bpmn.model.Activity;
+import org.activiti.bpmn.model.Artifact;
+import org.activiti.bpmn.model.BoundaryEvent;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.Lane;
+import org.activiti.bpmn.model.Pool;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SubProcess;
+
+/**
+ * Generates element ids of the form prefix + number. For each prefix the highest number in use is
+ * remembered, so a new id is found without inspecting the model. The counters are seeded from
+ * all ids in the model on first use and raised whenever an id is registered.
+ */
+class Bpmn2IdGenerator {
+
+  private final Map<String, Integer> highWaterMarks = new HashMap<String, Integer>();
+
+  private BpmnModel bpmnModel;
+  private boolean seeded;
+
+  public void setBpmnModel(BpmnModel bpmnModel) {
+    this.bpmnModel = bpmnModel;
+    highWaterMarks.clear();
+    seeded = false;
+  }
+
+  public String nextId(String prefix) {
+    ensureSeeded();
+
+    Integer highWaterMark = highWaterMarks.get(prefix);
+    int next = highWaterMark == null ? 1 : highWaterMark + 1;
+    highWaterMarks.put(prefix, next);
+    return prefix + next;
+  }
+
+  public void registerId(String id) {
+    if (id == null || id.length() == 0) {
+      return;
+    }
+
+    // split the id into a prefix and the trailing number
+    int numberStart = id.length();
+    while (numberStart > 0 && Character.isDigit(id.charAt(numberStart - 1))) {
+      numberStart--;
+    }
+    if (numberStart == id.length()) {
+      return;
+    }
+
+    String prefix = id.substring(0, numberStart);
+    String number = id.substring(numberStart);
+    int value;
+    try {
+      value = Integer.parseInt(number);
+    } catch (NumberFormatException e) {
+      return;
+    }
+
+    Integer highWaterMark = highWaterMarks.get(prefix);
+    if (highWaterMark == null || value > highWaterMark) {
+      highWaterMarks.put(prefix, value);
+    }
+  }
+
+  private void ensureSeeded() {
+    if (seeded) {
+      return;
+    }
+
+    if (bpmnModel != null) {
+      for (Pool pool : bpmnModel.getPools()) {
+        registerId(pool.getId());
+      }
+      for (Process process : bpmnModel.getProcesses()) {
+        registerId(process.getId());
+        for (Lane lane : process.getLanes()) {
+          registerId(lane.getId());
+        }
+        registerContents(process);
+      }
+    }
+    seeded = true;
+  }
+
+  private void registerContents(FlowElementsContainer container) {
+    for (FlowElement flowElement : container.getFlowElements()) {
+      registerId(flowElement.getId());
+
+      if (flowElement instanceof Activity) {
+        for (BoundaryEvent boundaryEvent : ((Activity) flowElement).getBoundaryEvents()) {
+          registerId(boundaryEvent.getId());
+        }
+      }
+      if (flowElement instanceof SubProcess) {
+        registerContents((SubProcess) flowElement);
+      }
+    }
+    for (Artifact artifact : container.getArtifacts()) {
+      registerId(artifact.getId());
+    }
+  }
+}
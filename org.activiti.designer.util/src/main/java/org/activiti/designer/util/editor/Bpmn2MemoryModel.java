@@ -5,7 +5,10 @@ import java.util.List;
 
 import org.activiti.bpmn.model.Artifact;
 import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.BaseElement;
 import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.Lane;
 import org.activiti.bpmn.model.Process;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.resources.IFile;
@@ -17,6 +20,9 @@ public class Bpmn2MemoryModel {
 	protected IFile modelFile;
 	protected List<FlowElement> clipboard = new ArrayList<FlowElement>();
 	protected BpmnModel bpmnModel;
+	protected Bpmn2ModelIndex index = new Bpmn2ModelIndex();
+	protected Bpmn2IdGenerator idGenerator = new Bpmn2IdGenerator();
+	protected boolean diagramInterchangeValid;
 
 	public Bpmn2MemoryModel(IFeatureProvider featureProvider, IFile modelFile) {
 		this.featureProvider = featureProvider;
@@ -28,12 +34,13 @@ public class Bpmn2MemoryModel {
     process.setName("My process");
     process.setId("myProcess");
     bpmnModel.addProcess(process);
+    index.invalidate();
 	}
 	
 	public FlowElement getFlowElement(String ref) {
 	  FlowElement element = null;
     if (bpmnModel != null && StringUtils.isNotEmpty(ref)) {
-      element = bpmnModel.getFlowElement(ref);
+      element = index.getFlowElement(ref);
     }
     return element;
 	}
@@ -41,10 +48,136 @@ public class Bpmn2MemoryModel {
 	public Artifact getArtifact(String ref) {
     Artifact artifact = null;
     if (bpmnModel != null && StringUtils.isNotEmpty(ref)) {
-      artifact = bpmnModel.getArtifact(ref);
+      artifact = index.getArtifact(ref);
     }
     return artifact;
   }
+
+  /**
+   * Gets the process or sub process that holds the flow element or artifact with the provided id.
+   * 
+   * @param ref the id of the element
+   * @return the owning process or sub process or null if no element with the id is known
+   */
+  public FlowElementsContainer getParentContainer(String ref) {
+    FlowElementsContainer container = null;
+    if (bpmnModel != null && StringUtils.isNotEmpty(ref)) {
+      container = index.getParentContainer(ref);
+    }
+    return container;
+  }
+
+  /**
+   * Gets the lane that references the flow element with the provided id.
+   * 
+   * @param ref the id of the flow element
+   * @return the lane or null if the flow element is not part of a lane
+   */
+  public Lane getLane(String ref) {
+    Lane lane = null;
+    if (bpmnModel != null && StringUtils.isNotEmpty(ref)) {
+      lane = index.getLane(ref);
+    }
+    return lane;
+  }
+
+  /**
+   * Registers an element that was added to the provided process or sub process with the element
+   * index. Nested elements of sub processes are registered as well.
+   * 
+   * @param element the flow element or artifact that was added
+   * @param container the process or sub process the element was added to
+   */
+  public void addToIndex(BaseElement element, FlowElementsContainer container) {
+    index.add(element, container);
+  }
+
+  /**
+   * Removes the element with the provided id from the element index.
+   * 
+   * @param ref the id of the element that was removed from the model
+   */
+  public void removeFromIndex(String ref) {
+    index.remove(ref);
+  }
+
+  /**
+   * Creates a new, unused element id consisting of the provided prefix and a number.
+   * 
+   * @param prefix the prefix of the id, e.g. the feature id key of the element type
+   * @return the new id
+   */
+  public String getNextId(String prefix) {
+    String id = idGenerator.nextId(prefix);
+    
+    // ids set by other means than this model are registered when they are found
+    while (isIdInUse(id)) {
+      idGenerator.registerId(id);
+      id = idGenerator.nextId(prefix);
+    }
+    return id;
+  }
+
+  /**
+   * Informs the id generator about an id that was assigned to an element without calling
+   * {@link #getNextId(String)}, so it will not be handed out again.
+   * 
+   * @param id the id in use
+   */
+  public void registerId(String id) {
+    idGenerator.registerId(id);
+  }
+
+  private boolean isIdInUse(String id) {
+    if (bpmnModel == null) {
+      return false;
+    }
+    if (index.contains(id) || bpmnModel.getPool(id) != null || bpmnModel.getLane(id) != null) {
+      return true;
+    }
+    for (Process process : bpmnModel.getProcesses()) {
+      if (id.equals(process.getId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Discards the element index, for instance after element ids have been changed. The index is
+   * rebuilt on the next lookup.
+   */
+  public void invalidateIndex() {
+    index.invalidate();
+  }
+
+  /**
+   * Discards the index of the lanes referencing flow elements. Must be invoked whenever lanes or
+   * their flow references are added or removed. The index is rebuilt on the next lookup.
+   */
+  public void invalidateLanes() {
+    index.invalidateLanes();
+  }
+
+  /**
+   * Checks whether the diagram interchange information of the model reflects the diagram, so a
+   * save only needs to update the information of the changed diagram elements.
+   */
+  public boolean isDiagramInterchangeValid() {
+    return diagramInterchangeValid;
+  }
+
+  public void setDiagramInterchangeValid(boolean diagramInterchangeValid) {
+    this.diagramInterchangeValid = diagramInterchangeValid;
+  }
+
+  /**
+   * Requests a rebuild of the diagram interchange information for all elements on the next save,
+   * for instance after element ids have been changed or elements have been removed.
+   */
+  public void invalidateDiagramInterchange() {
+    diagramInterchangeValid = false;
+  }
 	
 	public IFeatureProvider getFeatureProvider() {
   	return featureProvider;
@@ -72,5 +205,8 @@ public class Bpmn2MemoryModel {
 
   public void setBpmnModel(BpmnModel bpmnModel) {
     this.bpmnModel = bpmnModel;
+    index.setBpmnModel(bpmnModel);
+    idGenerator.setBpmnModel(bpmnModel);
+    diagramInterchangeValid = false;
   }
 }
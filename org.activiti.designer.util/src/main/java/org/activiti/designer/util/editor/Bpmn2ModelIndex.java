@@ -0,0 +1,208 @@
+package org.activiti.designer.util.editor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.activiti.bpmn.model.Artifact;
+import org.activiti.bpmn.model.BaseElement;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.FlowElementsContainer;
+import org.activiti.bpmn.model.Lane;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SubProcess;
+
+/**
+ * Index of the elements in a {@link BpmnModel} that maps element ids to the element itself, to the
+ * process or sub process owning the element and to the lane referencing the element.
+ *
+ * The index is built lazily and kept up to date by the features that add, move and remove
+ * elements. Features that change a process without informing the index are tolerated: lookups of
+ * elements of a process verify the process still holds the element. Sub processes only keep their
+ * children in lists, so their children are not verified by scanning the sub process; they are
+ * valid as long as the sub process itself is. The lane index is rebuilt after the features that
+ * change lane references have invalidated it.
+ */
+class Bpmn2ModelIndex {
+
+  private final Map<String, BaseElement> elementMap = new HashMap<String, BaseElement>();
+  private final Map<String, FlowElementsContainer> containerMap = new HashMap<String, FlowElementsContainer>();
+  private final Map<String, Lane> laneMap = new HashMap<String, Lane>();
+
+  private BpmnModel bpmnModel;
+  private boolean elementsValid;
+  private boolean lanesValid;
+
+  public void setBpmnModel(BpmnModel bpmnModel) {
+    this.bpmnModel = bpmnModel;
+    invalidate();
+  }
+
+  public void invalidate() {
+    elementsValid = false;
+    lanesValid = false;
+  }
+
+  public void invalidateLanes() {
+    lanesValid = false;
+  }
+
+  public FlowElement getFlowElement(String id) {
+    BaseElement element = getIndexedElement(id);
+    if (element instanceof FlowElement) {
+      return (FlowElement) element;
+    }
+
+    // not indexed or the index is out of date, search the model itself
+    FlowElement flowElement = bpmnModel.getFlowElement(id);
+    if (flowElement != null) {
+      invalidate();
+    }
+    return flowElement;
+  }
+
+  public Artifact getArtifact(String id) {
+    BaseElement element = getIndexedElement(id);
+    if (element instanceof Artifact) {
+      return (Artifact) element;
+    }
+
+    Artifact artifact = bpmnModel.getArtifact(id);
+    if (artifact != null) {
+      invalidate();
+    }
+    return artifact;
+  }
+
+  public FlowElementsContainer getParentContainer(String id) {
+    if (getIndexedElement(id) != null) {
+      return containerMap.get(id);
+    }
+    return null;
+  }
+
+  public Lane getLane(String id) {
+    ensureLanes();
+    return laneMap.get(id);
+  }
+
+  /**
+   * Checks whether an element with the provided id is indexed. Unlike the lookup methods, this
+   * does not fall back to searching the model.
+   */
+  public boolean contains(String id) {
+    if (bpmnModel == null || id == null) {
+      return false;
+    }
+
+    ensureElements();
+    return elementMap.containsKey(id);
+  }
+
+  public void add(BaseElement element, FlowElementsContainer container) {
+    if (!elementsValid || element == null || element.getId() == null) {
+      return;
+    }
+
+    indexElement(element, container);
+  }
+
+  public void remove(String id) {
+    if (!elementsValid || id == null) {
+      return;
+    }
+
+    BaseElement element = elementMap.remove(id);
+    containerMap.remove(id);
+
+    if (element instanceof SubProcess) {
+      SubProcess subProcess = (SubProcess) element;
+      for (FlowElement child : subProcess.getFlowElements()) {
+        remove(child.getId());
+      }
+      for (Artifact child : subProcess.getArtifacts()) {
+        remove(child.getId());
+      }
+    }
+  }
+
+  private BaseElement getIndexedElement(String id) {
+    if (bpmnModel == null || id == null) {
+      return null;
+    }
+
+    ensureElements();
+
+    BaseElement element = elementMap.get(id);
+    FlowElementsContainer container = containerMap.get(id);
+    if (element == null || container == null) {
+      return null;
+    }
+
+    if (container instanceof SubProcess) {
+      // the children of a sub process are indexed with it, verify the sub process instead of
+      // scanning its children
+      SubProcess subProcess = (SubProcess) container;
+      if (getIndexedElement(subProcess.getId()) == subProcess) {
+        return element;
+      }
+      return null;
+    }
+
+    // verify the process still holds the element, the model might have been changed without
+    // updating the index
+    if (element instanceof FlowElement && container.getFlowElement(id) == element) {
+      return element;
+    } else if (element instanceof Artifact && container.getArtifact(id) == element) {
+      return element;
+    }
+    return null;
+  }
+
+  private void ensureElements() {
+    if (elementsValid) {
+      return;
+    }
+
+    elementMap.clear();
+    containerMap.clear();
+    for (Process process : bpmnModel.getProcesses()) {
+      indexContents(process);
+    }
+    elementsValid = true;
+  }
+
+  private void indexContents(FlowElementsContainer container) {
+    for (FlowElement flowElement : container.getFlowElements()) {
+      indexElement(flowElement, container);
+    }
+    for (Artifact artifact : container.getArtifacts()) {
+      indexElement(artifact, container);
+    }
+  }
+
+  private void indexElement(BaseElement element, FlowElementsContainer container) {
+    elementMap.put(element.getId(), element);
+    containerMap.put(element.getId(), container);
+
+    if (element instanceof SubProcess) {
+      indexContents((SubProcess) element);
+    }
+  }
+
+  private void ensureLanes() {
+    if (bpmnModel == null || lanesValid) {
+      return;
+    }
+
+    laneMap.clear();
+    for (Process process : bpmnModel.getProcesses()) {
+      for (Lane lane : process.getLanes()) {
+        for (String flowReference : lane.getFlowReferences()) {
+          laneMap.put(flowReference, lane);
+        }
+      }
+    }
+    lanesValid = true;
+  }
+}
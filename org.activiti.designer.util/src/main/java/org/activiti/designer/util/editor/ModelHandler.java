@@ -1,19 +1,62 @@
 package org.activiti.designer.util.editor;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.GraphicInfo;
+import org.activiti.bpmn.model.Process;
+import org.activiti.bpmn.model.SubProcess;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.transaction.TransactionalEditingDomain;
+import org.eclipse.emf.transaction.util.TransactionUtil;
+import org.eclipse.graphiti.features.IFeatureProvider;
 
+/**
+ * Registry of the models of the open diagram editors. Models can be looked up directly by the URI
+ * of their diagram and by their model file from any thread. Changes of the registry are
+ * serialized, so both lookups always agree.
+ */
 public class ModelHandler {
 
-	private static Map<URI, Bpmn2MemoryModel> modelMap = new HashMap<URI, Bpmn2MemoryModel>();
+	// rough sizes used to estimate the memory taken by the open models
+	private static final long ESTIMATED_MODEL_BYTES = 16 * 1024L;
+	private static final long ESTIMATED_ELEMENT_BYTES = 1024L;
+	private static final long ESTIMATED_GRAPHIC_INFO_BYTES = 64L;
+
+	private static final ConcurrentMap<URI, Bpmn2MemoryModel> modelMap = new ConcurrentHashMap<URI, Bpmn2MemoryModel>();
+	private static final ConcurrentMap<IFile, Bpmn2MemoryModel> modelFileMap = new ConcurrentHashMap<IFile, Bpmn2MemoryModel>();
+
+	private static final List<ModelLifecycleListener> listeners = new CopyOnWriteArrayList<ModelLifecycleListener>();
 
 	public static void addModel(URI uri, Bpmn2MemoryModel model) {
-		modelMap.put(uri, model);
+		final Bpmn2MemoryModel previousModel;
+		synchronized (ModelHandler.class) {
+			previousModel = modelMap.put(uri, model);
+			if (previousModel != null) {
+				removeModelFile(previousModel);
+			}
+			if (model.getModelFile() != null) {
+				modelFileMap.put(model.getModelFile(), model);
+			}
+		}
+
+		if (previousModel != null && previousModel != model) {
+			for (final ModelLifecycleListener listener : listeners) {
+				listener.modelClosed(uri, previousModel);
+			}
+		}
+		if (previousModel != model) {
+			for (final ModelLifecycleListener listener : listeners) {
+				listener.modelOpened(uri, model);
+			}
+		}
 	}
 
 	public static Bpmn2MemoryModel getModel(URI uri) {
@@ -21,7 +64,19 @@ public class ModelHandler {
 	}
 
 	public static void removeModel(URI uri) {
-		modelMap.remove(uri);
+		final Bpmn2MemoryModel model;
+		synchronized (ModelHandler.class) {
+			model = modelMap.remove(uri);
+			if (model != null) {
+				removeModelFile(model);
+			}
+		}
+
+		if (model != null) {
+			for (final ModelLifecycleListener listener : listeners) {
+				listener.modelClosed(uri, model);
+			}
+		}
 	}
 
 	public static List<String> getModelURIList() {
@@ -34,12 +89,114 @@ public class ModelHandler {
 
 	public static Bpmn2MemoryModel getModelByFile(final IFile file)
 	{
-	  for (final Bpmn2MemoryModel model : modelMap.values()) {
-	    if (model.getModelFile().equals(file)) {
-	      return model;
-	    }
+	  if (file == null) {
+	    return null;
 	  }
+	  return modelFileMap.get(file);
+	}
+
+	/**
+	 * Registers a listener that is informed when models are opened and closed,
+	 * which happens when diagram editors are opened and closed.
+	 */
+	public static void addModelLifecycleListener(final ModelLifecycleListener listener) {
+		listeners.add(listener);
+	}
+
+	public static void removeModelLifecycleListener(final ModelLifecycleListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Gets the number of open models, for diagnostics.
+	 */
+	public static int getModelCount() {
+		return modelMap.size();
+	}
+
+	/**
+	 * Gets a rough estimate of the memory taken by the open models in bytes, for
+	 * diagnostics. The estimate is based on the number of elements and graphic
+	 * infos of the models. Each model is counted while holding the editing
+	 * domain of its diagram, so it is not changed by the editor meanwhile. When
+	 * the calling thread is interrupted, the models counted so far are returned.
+	 */
+	public static long getEstimatedMemoryFootprint() {
+		long result = 0L;
+		for (final Bpmn2MemoryModel model : modelMap.values()) {
+			final FootprintEstimate estimate = new FootprintEstimate(model);
+			final TransactionalEditingDomain editingDomain = getEditingDomain(model);
+			if (editingDomain == null) {
+				estimate.run();
+			} else {
+				try {
+					editingDomain.runExclusive(estimate);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			result += estimate.bytes;
+		}
+		return result;
+	}
+
+	private static TransactionalEditingDomain getEditingDomain(final Bpmn2MemoryModel model) {
+		final IFeatureProvider featureProvider = model.getFeatureProvider();
+		if (featureProvider == null || featureProvider.getDiagramTypeProvider() == null
+						|| featureProvider.getDiagramTypeProvider().getDiagram() == null) {
+			return null;
+		}
+		return TransactionUtil.getEditingDomain(featureProvider.getDiagramTypeProvider().getDiagram());
+	}
+
+	private static int countElements(final Collection<FlowElement> flowElements) {
+		int result = flowElements.size();
+		for (final FlowElement flowElement : flowElements) {
+			if (flowElement instanceof SubProcess) {
+				final SubProcess subProcess = (SubProcess) flowElement;
+				result += countElements(subProcess.getFlowElements()) + subProcess.getArtifacts().size();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Estimates the memory taken by a single model.
+	 */
+	private static class FootprintEstimate implements Runnable {
+
+		private final Bpmn2MemoryModel model;
+		private long bytes;
 
-	  return null;
+		public FootprintEstimate(final Bpmn2MemoryModel model) {
+			this.model = model;
+		}
+
+		@Override
+		public void run() {
+			bytes = ESTIMATED_MODEL_BYTES;
+
+			final BpmnModel bpmnModel = model.getBpmnModel();
+			if (bpmnModel == null) {
+				return;
+			}
+
+			for (final Process process : bpmnModel.getProcesses()) {
+				bytes += ESTIMATED_ELEMENT_BYTES * (countElements(process.getFlowElements()) + process.getArtifacts().size());
+			}
+			bytes += ESTIMATED_ELEMENT_BYTES * (bpmnModel.getPools().size());
+
+			bytes += ESTIMATED_GRAPHIC_INFO_BYTES * bpmnModel.getLocationMap().size();
+			for (final List<GraphicInfo> waypoints : bpmnModel.getFlowLocationMap().values()) {
+				bytes += ESTIMATED_GRAPHIC_INFO_BYTES * waypoints.size();
+			}
+		}
+	}
+
+	private static void removeModelFile(final Bpmn2MemoryModel model) {
+		if (model.getModelFile() != null) {
+			modelFileMap.remove(model.getModelFile(), model);
+		}
 	}
 }
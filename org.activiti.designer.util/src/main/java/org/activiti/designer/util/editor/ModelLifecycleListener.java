@@ -0,0 +1,34 @@
+package org.activiti.designer.util.editor;
+
+import org.eclipse.emf.common.util.URI;
+
+/**
+ * Informed by the {@link ModelHandler} when models are opened and closed along with their
+ * diagram editors. Listeners are invoked on the thread that opens or closes the model.
+ *
+ * @since 5.12.1
+ *
+ */
+public interface ModelLifecycleListener {
+
+  /**
+   * Invoked after a model has been registered.
+   *
+   * @param uri
+   *          the URI of the diagram of the model
+   * @param model
+   *          the model that has been opened
+   */
+  void modelOpened(URI uri, Bpmn2MemoryModel model);
+
+  /**
+   * Invoked after a model has been removed from the registry.
+   *
+   * @param uri
+   *          the URI of the diagram of the model
+   * @param model
+   *          the model that has been closed
+   */
+  void modelClosed(URI uri, Bpmn2MemoryModel model);
+
+}
@@ -1,30 +1,56 @@
 package org.activiti.designer.util.editor;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.activiti.bpmn.model.BaseElement;
 import org.eclipse.graphiti.features.impl.IIndependenceSolver;
 
 /**
+ * Links pictogram elements to the {@link BaseElement}s of the BPMN model. An element is keyed by
+ * its id at the moment it is first linked and keeps that key for as long as it lives, so renaming
+ * an element does not break its links. Elements whose id is missing or already used as key by
+ * another element get a generated key instead.
+ * 
+ * Elements are only weakly referenced: entries of elements that are no longer part of the model
+ * are dropped once the element is garbage collected, on {@link #remove(Object)} when the element
+ * is deleted or on {@link #clear()} when the editor is disposed.
+ * 
  * @author Nikolai Raitsev
  *
  */
 public class POJOIndependenceSolver implements IIndependenceSolver {
 	
-	private Map<String, Object> objectMap = new HashMap<String, Object>();
+	private static final String GENERATED_KEY_PREFIX = "#";
+
+	private final Map<Object, String> keyMap = new WeakHashMap<Object, String>();
+	private final Map<String, KeyedReference> objectMap = new HashMap<String, KeyedReference>();
+	private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<Object>();
+	
+	private long generatedKeyCounter;
 
 	/* (non-Javadoc)
 	 * @see org.eclipse.graphiti.features.impl.IIndependenceSolver#getKeyForBusinessObject(java.lang.Object)
 	 */
 	@Override
 	public String getKeyForBusinessObject(Object bo) {
-		String result = null;
-		if(bo != null && bo instanceof BaseElement ) {
-			result = String.valueOf(bo.hashCode());
+		if (bo instanceof BaseElement == false) {
+			return null;
+		}
+		
+		String result = keyMap.get(bo);
+		if (result == null) {
+			expungeStaleEntries();
 			
-			if(!objectMap.containsKey(result))
-				objectMap.put(result, bo);
+			result = ((BaseElement) bo).getId();
+			if (result == null || result.length() == 0 || isKeyInUse(result)) {
+				result = GENERATED_KEY_PREFIX + (++generatedKeyCounter);
+			}
+			put(result, bo);
 		}
 		return result;
 	}
@@ -34,17 +60,108 @@ public class POJOIndependenceSolver implements IIndependenceSolver {
 	 */
 	@Override
 	public Object getBusinessObjectForKey(String key) {
-		return objectMap.get(key);
+		if (key == null) {
+			return null;
+		}
+		
+		final KeyedReference reference = objectMap.get(key);
+		if (reference == null) {
+			return null;
+		}
+		return reference.get();
+	}
+	
+	/**
+	 * Drops the entry of the provided business object, e.g. because it has been
+	 * deleted from the model.
+	 */
+	public void remove(Object bo) {
+		if (bo == null) {
+			return;
+		}
+		
+		final String key = keyMap.remove(bo);
+		if (key != null) {
+			objectMap.remove(key);
+		}
+		expungeStaleEntries();
+	}
+	
+	/**
+	 * Drops all entries.
+	 */
+	public void clear() {
+		keyMap.clear();
+		objectMap.clear();
+		while (referenceQueue.poll() != null) {
+			// drain the queue, the entries are gone already
+		}
 	}
 
+	/**
+	 * Gets the business objects currently linked by key.
+	 * 
+	 * @return a snapshot of the linked business objects
+	 */
 	public Map<String, Object> getObjectMap() {
-		return objectMap;
+		expungeStaleEntries();
+		
+		final Map<String, Object> result = new HashMap<String, Object>();
+		for (final Map.Entry<String, KeyedReference> entry : objectMap.entrySet()) {
+			final Object bo = entry.getValue().get();
+			if (bo != null) {
+				result.put(entry.getKey(), bo);
+			}
+		}
+		return result;
 	}
 
+	/**
+	 * Replaces all entries with the provided business objects.
+	 */
 	public void setObjectMap(Map<String, Object> objectMap) {
-		this.objectMap = objectMap;
+		clear();
+		if (objectMap != null) {
+			for (final Map.Entry<String, Object> entry : objectMap.entrySet()) {
+				if (entry.getKey() != null && entry.getValue() != null) {
+					put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+	
+	private void put(String key, Object bo) {
+		final String oldKey = keyMap.put(bo, key);
+		if (oldKey != null && !oldKey.equals(key)) {
+			objectMap.remove(oldKey);
+		}
+		objectMap.put(key, new KeyedReference(key, bo, referenceQueue));
 	}
 	
+	private boolean isKeyInUse(String key) {
+		final KeyedReference reference = objectMap.get(key);
+		return reference != null && reference.get() != null;
+	}
 	
+	private void expungeStaleEntries() {
+		Reference<? extends Object> reference;
+		while ((reference = referenceQueue.poll()) != null) {
+			final KeyedReference keyedReference = (KeyedReference) reference;
+			// the key might have been taken over by another element in the meantime
+			if (objectMap.get(keyedReference.key) == keyedReference) {
+				objectMap.remove(keyedReference.key);
+			}
+		}
+	}
+	
+	private static class KeyedReference extends WeakReference<Object> {
+		
+		private final String key;
+		
+		public KeyedReference(String key, Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.key = key;
+		}
+	}
 
 }
@@ -1,9 +1,6 @@
 package org.activiti.designer.util.extension;
 
-import java.io.IOException;
 import java.io.InputStream;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 import org.activiti.designer.integration.servicetask.CustomServiceTask;
 
@@ -18,17 +15,11 @@ public class CustomServiceTaskContextImpl implements CustomServiceTaskContext {
 
   private final String extensionName;
   private final String extensionJarPath;
-  private JarFile extensionJarFile;
 
   public CustomServiceTaskContextImpl(final CustomServiceTask customServiceTask, final String extensionName, final String extensionJarPath) {
     this.customServiceTask = customServiceTask;
     this.extensionName = extensionName;
     this.extensionJarPath = extensionJarPath;
-    try {
-      this.extensionJarFile = new JarFile(this.extensionJarPath);
-    } catch (IOException e) {
-      throw new IllegalArgumentException(String.format("Path '%s' is an invalid path for a JarFile"));
-    }
   }
 
   @Override
@@ -37,14 +28,7 @@ public class CustomServiceTaskContextImpl implements CustomServiceTaskContext {
 
     final String path = this.customServiceTask.getSmallIconPath();
     if (path != null) {
-      JarEntry imgentry = extensionJarFile.getJarEntry(path);
-
-      try {
-        result = extensionJarFile.getInputStream(imgentry);
-      } catch (Exception e) {
-        System.err.println(String.format(ERROR_ICON_MESSAGE_PATTERN, this.customServiceTask.getId(), path));
-        result = getErrorCustomServiceTaskIconStream();
-      }
+      result = getExtensionJarEntryStream(path);
     } else {
       result = getDefaultCustomServiceTaskIconStream();
     }
@@ -57,14 +41,7 @@ public class CustomServiceTaskContextImpl implements CustomServiceTaskContext {
 
     final String path = this.customServiceTask.getLargeIconPath();
     if (path != null) {
-      JarEntry imgentry = extensionJarFile.getJarEntry(path);
-
-      try {
-        result = extensionJarFile.getInputStream(imgentry);
-      } catch (Exception e) {
-        System.err.println(String.format(ERROR_ICON_MESSAGE_PATTERN, this.customServiceTask.getId(), path));
-        result = getErrorCustomServiceTaskIconStream();
-      }
+      result = getExtensionJarEntryStream(path);
     } else {
       result = getDefaultCustomServiceTaskIconStream();
     }
@@ -78,14 +55,7 @@ public class CustomServiceTaskContextImpl implements CustomServiceTaskContext {
 
     final String path = this.customServiceTask.getShapeIconPath();
     if (path != null) {
-      JarEntry imgentry = extensionJarFile.getJarEntry(path);
-
-      try {
-        result = extensionJarFile.getInputStream(imgentry);
-      } catch (Exception e) {
-        System.err.println(String.format(ERROR_ICON_MESSAGE_PATTERN, this.customServiceTask.getId(), path));
-        result = getErrorCustomServiceTaskIconStream();
-      }
+      result = getExtensionJarEntryStream(path);
     } else {
       result = getDefaultCustomServiceTaskIconStream();
     }
@@ -118,6 +88,23 @@ public class CustomServiceTaskContextImpl implements CustomServiceTaskContext {
     return getExtensionName() + "/shape/" + getServiceTask().getId();
   }
 
+  private InputStream getExtensionJarEntryStream(final String path) {
+    InputStream result = null;
+
+    try {
+      result = ExtensionDiscoveryCache.getClassLoader(extensionJarPath).getEntryStream(path);
+    } catch (Exception e) {
+      // handled below
+    }
+
+    if (result == null) {
+      System.err.println(String.format(ERROR_ICON_MESSAGE_PATTERN, this.customServiceTask.getId(), path));
+      result = getErrorCustomServiceTaskIconStream();
+    }
+
+    return result;
+  }
+
   private InputStream getDefaultCustomServiceTaskIconStream() {
     return Thread.currentThread().getContextClassLoader().getResourceAsStream(DEFAULT_ICON_PATH);
   }
@@ -0,0 +1,169 @@
+package org.activiti.designer.util.extension;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Caches the {@link CustomServiceTaskContext}s discovered in extension jars and the
+ * {@link JarClassLoader} shared by everything that loads classes or resources from a jar. Entries
+ * are keyed by the path of the jar and are only valid as long as the size and modification time
+ * of the jar are unchanged. All entries are dropped when the classpath of a Java project changes,
+ * which covers changes to the Activiti Designer Extensions user library. Dropped class loaders are
+ * not closed, since classes they defined may still be in use and load further classes through
+ * them; they release their jar once they are no longer referenced. The class loaders are only
+ * closed on {@link #dispose()}.
+ *
+ * @since 5.12.1
+ * @version 2
+ *
+ */
+final class ExtensionDiscoveryCache {
+
+  private static final int CLASSPATH_CHANGE_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED;
+
+  private static final Map<String, Entry> ENTRIES = new HashMap<String, Entry>();
+  private static final Map<String, JarClassLoader> CLASS_LOADERS = new HashMap<String, JarClassLoader>();
+
+  private static IElementChangedListener classpathListener;
+
+  private ExtensionDiscoveryCache() {
+
+  }
+
+  /**
+   * Gets the cached contexts for the jar at the provided path.
+   *
+   * @param jarPath
+   *          the path of the extension jar
+   * @return a copy of the cached contexts or null if the jar has not been
+   *         scanned yet or has changed since it was scanned
+   */
+  public static synchronized List<CustomServiceTaskContext> getCustomServiceTaskContexts(final String jarPath) {
+    ensureListening();
+
+    final Entry entry = ENTRIES.get(jarPath);
+    if (entry == null || !entry.matches(new File(jarPath))) {
+      return null;
+    }
+    return new ArrayList<CustomServiceTaskContext>(entry.contexts);
+  }
+
+  /**
+   * Stores the contexts discovered in the jar at the provided path.
+   *
+   * @param jarPath
+   *          the path of the extension jar
+   * @param contexts
+   *          the contexts discovered in the jar
+   */
+  public static synchronized void putCustomServiceTaskContexts(final String jarPath, final List<CustomServiceTaskContext> contexts) {
+    ensureListening();
+
+    final File jarFile = new File(jarPath);
+    ENTRIES.put(jarPath, new Entry(jarFile.length(), jarFile.lastModified(), new ArrayList<CustomServiceTaskContext>(contexts)));
+  }
+
+  /**
+   * Gets the class loader shared by all users of the jar at the provided path.
+   * The loader is created on first use and replaced once the jar changes.
+   *
+   * @param jarPath
+   *          the path of the extension jar
+   * @return the class loader for the jar
+   */
+  public static synchronized JarClassLoader getClassLoader(final String jarPath) {
+    ensureListening();
+
+    JarClassLoader classLoader = CLASS_LOADERS.get(jarPath);
+    final Entry entry = ENTRIES.get(jarPath);
+    if (classLoader != null && entry != null && !entry.matches(new File(jarPath))) {
+      // the loader may still be in use by classes it defined, so it is not closed
+      classLoader = null;
+    }
+
+    if (classLoader == null) {
+      classLoader = new JarClassLoader(jarPath);
+      CLASS_LOADERS.put(jarPath, classLoader);
+    }
+    return classLoader;
+  }
+
+  /**
+   * Drops all cached discovery results and class loaders. The class loaders
+   * are not closed, since they may still be in use.
+   */
+  public static synchronized void invalidate() {
+    ENTRIES.clear();
+    CLASS_LOADERS.clear();
+  }
+
+  /**
+   * Drops all cached discovery results, releases the class loaders and stops
+   * listening for classpath changes.
+   */
+  public static synchronized void dispose() {
+    if (classpathListener != null) {
+      JavaCore.removeElementChangedListener(classpathListener);
+      classpathListener = null;
+    }
+    for (final JarClassLoader classLoader : CLASS_LOADERS.values()) {
+      classLoader.close();
+    }
+    invalidate();
+  }
+
+  private static void ensureListening() {
+    if (classpathListener == null) {
+      classpathListener = new IElementChangedListener() {
+
+        @Override
+        public void elementChanged(final ElementChangedEvent event) {
+          if (affectsClasspath(event.getDelta())) {
+            invalidate();
+          }
+        }
+      };
+      JavaCore.addElementChangedListener(classpathListener, ElementChangedEvent.POST_CHANGE);
+    }
+  }
+
+  private static boolean affectsClasspath(final IJavaElementDelta delta) {
+    if ((delta.getFlags() & CLASSPATH_CHANGE_FLAGS) != 0) {
+      return true;
+    }
+    for (final IJavaElementDelta child : delta.getAffectedChildren()) {
+      if (affectsClasspath(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class Entry {
+
+    private final long size;
+    private final long lastModified;
+    private final List<CustomServiceTaskContext> contexts;
+
+    public Entry(final long size, final long lastModified, final List<CustomServiceTaskContext> contexts) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.contexts = contexts;
+    }
+
+    public boolean matches(final File jarFile) {
+      return jarFile.length() == size && jarFile.lastModified() == lastModified;
+    }
+
+  }
+
+}
@@ -3,6 +3,7 @@
  */
 package org.activiti.designer.util.extension;
 
+import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import org.activiti.designer.integration.servicetask.CustomServiceTask;
 import org.activiti.designer.integration.servicetask.CustomServiceTaskDescriptor;
 import org.activiti.designer.util.eclipse.ActivitiUiUtil;
 import org.activiti.designer.util.eclipse.ExtensionConstants;
+import org.activiti.designer.util.trace.PerformanceTrace;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
@@ -71,6 +73,58 @@ public final class ExtensionUtil {
     providedCustomServiceTaskDescriptors.addAll(descriptors);
   }
 
+  /**
+   * Releases all cached extension discovery results. Extensions are scanned
+   * again on the next request.
+   */
+  public static void disposeExtensionCaches() {
+    ExtensionDiscoveryCache.dispose();
+  }
+
+  /**
+   * Gets a fingerprint of the extensions available to the provided
+   * {@link IProject}. The fingerprint is made of the path, size and
+   * modification time of every jar in the extensions user library and the
+   * number of custom service tasks provided through the extension point, so it
+   * changes whenever an extension is added, removed or replaced.
+   * 
+   * @param project
+   *          the project to get the fingerprint for
+   * @return the fingerprint of the project's extensions
+   */
+  public static String getExtensionFingerprint(final IProject project) {
+
+    final StringBuilder result = new StringBuilder();
+
+    if (providedCustomServiceTaskDescriptors != null) {
+      result.append(providedCustomServiceTaskDescriptors.size());
+    }
+
+    IJavaProject javaProject = null;
+    try {
+      javaProject = (IJavaProject) project.getNature(JavaCore.NATURE_ID);
+    } catch (CoreException e) {
+      // skip, not a Java project
+    }
+
+    if (javaProject != null) {
+      try {
+        final IClasspathContainer userLibraryContainer = JavaCore.getClasspathContainer(new Path(DESIGNER_EXTENSIONS_USER_LIB_PATH), javaProject);
+        if (userLibraryContainer != null) {
+          for (final IClasspathEntry classpathEntry : userLibraryContainer.getClasspathEntries()) {
+            final String jarPath = classpathEntry.getPath().toPortableString();
+            final File jarFile = new File(jarPath);
+            result.append('|').append(jarPath).append(':').append(jarFile.length()).append(':').append(jarFile.lastModified());
+          }
+        }
+      } catch (JavaModelException e) {
+        // no extensions
+      }
+    }
+
+    return result.toString();
+  }
+
   public static final Set<PaletteEntry> getDisabledPaletteEntries(IProject project) {
 
     Set<PaletteEntry> result = new HashSet<PaletteEntry>();
@@ -107,9 +161,9 @@ public final class ExtensionUtil {
 
               final IPackageFragmentRoot packageFragmentRoot = javaProject.getPackageFragmentRoot(classpathEntry.getPath().toString());
 
-              // Create a JarClassLoader to load any classes we
+              // Get the shared JarClassLoader to load any classes we
               // find for this extension
-              final JarClassLoader cl = new JarClassLoader(packageFragmentRoot.getPath().toPortableString());
+              final JarClassLoader cl = ExtensionDiscoveryCache.getClassLoader(packageFragmentRoot.getPath().toPortableString());
 
               // Inspect the jar by scanning its classpath and looking for
               // classes that implement
@@ -443,99 +497,118 @@ public final class ExtensionUtil {
                 continue;
               }
 
-              // Determine the name of the extension
-              String extensionName = null;
-              // Extract the manifest and look for the
-              // CustomServiceTask.MANIFEST_EXTENSION_NAME
-              // property
-              final Manifest manifest = extractManifest(packageFragmentRoot);
-              if (manifest != null) {
-                extensionName = manifest.getMainAttributes().getValue(CustomServiceTask.MANIFEST_EXTENSION_NAME);
-              }
-              // If there is no manifest or the property wasn't
-              // defined, use the jar's name as extension name
-              // instead
-              if (extensionName == null) {
-                extensionName = classpathEntry.getPath().lastSegment();
+              final String jarPath = packageFragmentRoot.getPath().toPortableString();
+
+              // Reuse the contexts discovered earlier if the jar has not
+              // changed since it was last scanned
+              List<CustomServiceTaskContext> jarContexts = ExtensionDiscoveryCache.getCustomServiceTaskContexts(jarPath);
+              if (jarContexts == null) {
+                final long start = PerformanceTrace.begin();
+                try {
+                  jarContexts = discoverCustomServiceTaskContexts(classpathEntry, packageFragmentRoot);
+                } finally {
+                  PerformanceTrace.end("Extension scan", classpathEntry.getPath().lastSegment(), start);
+                }
+                ExtensionDiscoveryCache.putCustomServiceTaskContexts(jarPath, jarContexts);
               }
+              result.addAll(jarContexts);
+            }
+          }
+        }
+      } catch (JavaModelException e) {
+        showExtensionExceptionMessage(String.format("There was a technical error when processing an extension to Activiti Designer: %s", e.getMessage()));
+        e.printStackTrace();
+      }
+    }
 
-              // Create a JarClassLoader to load any classes we
-              // find for this extension
-
-              final JarClassLoader cl = new JarClassLoader(packageFragmentRoot.getPath().toPortableString());
+    return result;
+  }
 
-              // Inspect the jar by scanning its classpath and
-              // looking for classes that implement
-              // CustomServiceTask
-              final IJavaElement[] javaElements = packageFragmentRoot.getChildren();
-              for (final IJavaElement javaElement : javaElements) {
-                if (javaElement.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
-                  IPackageFragment fragment = (IPackageFragment) javaElement;
-                  if (fragment.containsJavaResources()) {
-                    final IClassFile[] classFiles = fragment.getClassFiles();
-                    for (final IClassFile classFile : classFiles) {
-                      if (classFile.isClass()) {
+  /**
+   * Scans the provided extension jar for concrete {@link CustomServiceTask}
+   * implementations and wraps each of them in a context.
+   * 
+   * @param classpathEntry
+   *          the classpath entry of the extension jar
+   * @param packageFragmentRoot
+   *          the package fragment root of the extension jar
+   * @return a list containing the context of each {@link CustomServiceTask}
+   *         found in the jar
+   * @throws JavaModelException
+   */
+  private static List<CustomServiceTaskContext> discoverCustomServiceTaskContexts(final IClasspathEntry classpathEntry,
+          final IPackageFragmentRoot packageFragmentRoot) throws JavaModelException {
+
+    final List<CustomServiceTaskContext> result = new ArrayList<CustomServiceTaskContext>();
+
+    // Determine the name of the extension
+    String extensionName = null;
+    // Extract the manifest and look for the
+    // CustomServiceTask.MANIFEST_EXTENSION_NAME property
+    final Manifest manifest = extractManifest(packageFragmentRoot);
+    if (manifest != null) {
+      extensionName = manifest.getMainAttributes().getValue(CustomServiceTask.MANIFEST_EXTENSION_NAME);
+    }
+    // If there is no manifest or the property wasn't defined, use the jar's
+    // name as extension name instead
+    if (extensionName == null) {
+      extensionName = classpathEntry.getPath().lastSegment();
+    }
 
-                        final IType type = classFile.getType();
+    // Get the shared JarClassLoader to load any classes we find for this
+    // extension
+    final JarClassLoader cl = ExtensionDiscoveryCache.getClassLoader(packageFragmentRoot.getPath().toPortableString());
 
-                        if (!isConcreteCustomService(type)) {
-                          continue;
-                        }
-                        // if (type.getFullyQualifiedName() !=
-                        // "com.atosorigin.esuite.editors.servicetasks.ESuiteEndNode")
-                        // {
-                        // continue;
-                        // }
-                        try {
-                          Class<CustomServiceTask> clazz = (Class<CustomServiceTask>) cl.loadClass(type.getFullyQualifiedName());
-
-                          // Filter if the class is
-                          // abstract: this probably
-                          // means it is extended by
-                          // concrete classes in the
-                          // extension and will have
-                          // any properties applied in
-                          // that way; we can't
-                          // instantiate the class
-                          // anyway
-                          if (!Modifier.isAbstract(clazz.getModifiers()) && CustomServiceTask.class.isAssignableFrom(clazz)) {
-                            try {
-                              CustomServiceTask customServiceTask = (CustomServiceTask) clazz.newInstance();
-                              // Add this
-                              // CustomServiceTask
-                              // to
-                              // the result,
-                              // wrapped
-                              // in its context
-                              result.add(new CustomServiceTaskContextImpl(customServiceTask, extensionName, classpathEntry.getPath().toPortableString()));
+    // Inspect the jar by scanning its classpath and looking for classes that
+    // implement CustomServiceTask
+    final IJavaElement[] javaElements = packageFragmentRoot.getChildren();
+    for (final IJavaElement javaElement : javaElements) {
+      if (javaElement.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
+        IPackageFragment fragment = (IPackageFragment) javaElement;
+        if (fragment.containsJavaResources()) {
+          final IClassFile[] classFiles = fragment.getClassFiles();
+          for (final IClassFile classFile : classFiles) {
+            if (classFile.isClass()) {
 
-                            } catch (InstantiationException e) {
-                              // TODO
-                              // Auto-generated
-                              // catch block
-                              e.printStackTrace();
-                            } catch (IllegalAccessException e) {
-                              // TODO
-                              // Auto-generated
-                              // catch block
-                              e.printStackTrace();
-                            }
+              final IType type = classFile.getType();
 
-                          }
-                        } catch (ClassNotFoundException e) {
-                          e.printStackTrace();
-                        }
-                      }
-                    }
+              if (!isConcreteCustomService(type)) {
+                continue;
+              }
+              // if (type.getFullyQualifiedName() !=
+              // "com.atosorigin.esuite.editors.servicetasks.ESuiteEndNode")
+              // {
+              // continue;
+              // }
+              try {
+                Class<CustomServiceTask> clazz = (Class<CustomServiceTask>) cl.loadClass(type.getFullyQualifiedName());
+
+                // Filter if the class is abstract: this probably means it is
+                // extended by concrete classes in the extension and will have
+                // any properties applied in that way; we can't instantiate the
+                // class anyway
+                if (!Modifier.isAbstract(clazz.getModifiers()) && CustomServiceTask.class.isAssignableFrom(clazz)) {
+                  try {
+                    CustomServiceTask customServiceTask = (CustomServiceTask) clazz.newInstance();
+                    // Add this CustomServiceTask to the result, wrapped in its
+                    // context
+                    result.add(new CustomServiceTaskContextImpl(customServiceTask, extensionName, classpathEntry.getPath().toPortableString()));
+
+                  } catch (InstantiationException e) {
+                    // TODO Auto-generated catch block
+                    e.printStackTrace();
+                  } catch (IllegalAccessException e) {
+                    // TODO Auto-generated catch block
+                    e.printStackTrace();
                   }
+
                 }
+              } catch (ClassNotFoundException e) {
+                e.printStackTrace();
               }
             }
           }
         }
-      } catch (JavaModelException e) {
-        showExtensionExceptionMessage(String.format("There was a technical error when processing an extension to Activiti Designer: %s", e.getMessage()));
-        e.printStackTrace();
       }
     }
 
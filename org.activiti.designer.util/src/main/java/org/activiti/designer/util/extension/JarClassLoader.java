@@ -3,23 +3,33 @@ package org.activiti.designer.util.extension;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 import org.activiti.designer.integration.Activator;
 
 /**
- * Loads classes from jar files in the path provided.
- * 
+ * Loads classes from jar files in the path provided. The jar is opened once
+ * and its entries are indexed, so loading a class and its dependencies does
+ * not reopen the jar for every class. The jar is reopened on demand after
+ * {@link #close()} has been invoked. Loading is synchronized on the loader,
+ * so threads loading the same class concurrently cannot define it twice.
+ *
  * @author Tiese Barrell
  * @since 0.5.1
- * @version 1
- * 
+ * @version 2
+ *
  */
 public class JarClassLoader extends ClassLoader {
 
   private String jarFilePath;
 
+  private JarFile jarFile;
+  private Map<String, JarEntry> entryIndex;
+
   public JarClassLoader(final String jarFilePath) {
     if (jarFilePath == null)
       throw new IllegalArgumentException("Null jarFilePath");
@@ -27,7 +37,7 @@ public class JarClassLoader extends ClassLoader {
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
-  protected Class loadClass(String name, boolean resolve) throws ClassNotFoundException {
+  protected synchronized Class loadClass(String name, boolean resolve) throws ClassNotFoundException {
 
     // Since all support classes of loaded class use same class loader
     // must check subclass cache of classes for things like Object
@@ -58,7 +68,7 @@ public class JarClassLoader extends ClassLoader {
 
       try {
         // Load class data from file and save in byte array
-        byte data[] = loadClassData(jarFilePath, className);
+        byte data[] = loadClassData(className);
 
         // Convert byte array to Class
         c = defineClass(name, data, 0, data.length);
@@ -80,16 +90,66 @@ public class JarClassLoader extends ClassLoader {
     return c;
   }
 
-  private byte[] loadClassData(String jarFilePath, String className) throws IOException {
+  /**
+   * Gets a stream for the entry with the provided name from the jar.
+   *
+   * @param entryName
+   *          the name of the entry, e.g. a path to an icon
+   * @return the stream of the entry or null if the jar holds no such entry
+   * @throws IOException
+   *           if the jar cannot be read
+   */
+  public synchronized InputStream getEntryStream(final String entryName) throws IOException {
+    final JarEntry entry = getEntry(entryName);
+    if (entry == null) {
+      return null;
+    }
+    return jarFile.getInputStream(entry);
+  }
+
+  /**
+   * Releases the file handle of the jar and the entry index.
+   */
+  public synchronized void close() {
+    if (jarFile != null) {
+      try {
+        jarFile.close();
+      } catch (IOException e) {
+        // nothing to release anymore
+      }
+    }
+    jarFile = null;
+    entryIndex = null;
+  }
+
+  private synchronized JarEntry getEntry(final String entryName) throws IOException {
+    if (jarFile == null) {
+      jarFile = new JarFile(jarFilePath);
+      entryIndex = new HashMap<String, JarEntry>();
+
+      final Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        final JarEntry entry = entries.nextElement();
+        entryIndex.put(entry.getName(), entry);
+      }
+    }
+    return entryIndex.get(entryName);
+  }
+
+  private synchronized byte[] loadClassData(String className) throws IOException {
 
     if (className == null) {
       throw new IOException("Unable to load classes with null className");
     }
 
-    // Get jar file from the provided path
-    JarFile file = new JarFile(jarFilePath);
-    JarEntry entry = file.getJarEntry(className);
-    InputStream is = file.getInputStream(entry);
+    // Get entry from the indexed jar file
+    JarEntry entry = getEntry(className);
+
+    if (entry == null) {
+      throw new IOException("Unable to load class with name " + className + " because the jar has no such entry");
+    }
+
+    InputStream is = jarFile.getInputStream(entry);
 
     if (is == null) {
       throw new IOException("Unable to load class with name " + className + " because the inputstream was null");
@@ -104,13 +164,15 @@ public class JarClassLoader extends ClassLoader {
     // Get stream to read from
     DataInputStream dis = new DataInputStream(is);
 
-    // Read in data
-    dis.readFully(buff);
-
-    // close stream
-    dis.close();
+    try {
+      // Read in data
+      dis.readFully(buff);
+    } finally {
+      // close stream
+      dis.close();
+    }
 
     // return data
     return buff;
   }
-}
\ No newline at end of file
+}
@@ -19,7 +19,8 @@ public enum Preferences {
   ALFRESCO_FORMTYPES_USERTASK("com.alfresco.designer.preferences.formtypes.usertask"),
   EDITOR_ADD_LABELS_TO_NEW_SEQUENCEFLOWS("org.activiti.designer.preferences.editor.addLabelsToNewSequenceFlows"), 
   EDITOR_ADD_DEFAULT_CONTENT_TO_DIAGRAMS("org.activiti.designer.preferences.editor.addDefaultContentToDiagrams"), 
-  SAVE_IMAGE("org.activiti.designer.preferences.save.imageFormat");
+  SAVE_IMAGE("org.activiti.designer.preferences.save.imageFormat"),
+  SAVE_IMAGE_SCALE("org.activiti.designer.preferences.save.imageScale");
 
   private String preferenceId;
 
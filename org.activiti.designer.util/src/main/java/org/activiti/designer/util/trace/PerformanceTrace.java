@@ -0,0 +1,316 @@
+package org.activiti.designer.util.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records how long the main phases of opening, saving and validating diagrams take. Tracing is off
+ * by default and can be switched on in the Activiti Performance view or by starting Eclipse with
+ * <code>-Dactiviti.designer.trace=true</code>. While it is off, timing a phase costs a single read
+ * of a volatile flag.
+ *
+ * <p>
+ * Phases are timed like this:
+ *
+ * <pre>
+ * final long start = PerformanceTrace.begin();
+ * try {
+ *   ...
+ * } finally {
+ *   PerformanceTrace.end(&quot;Phase&quot;, detail, start);
+ * }
+ * </pre>
+ *
+ * The most recent events are kept in a ring buffer of fixed size, the number and duration of all
+ * events are summed up by phase. Both can be exported in the trace event format of the Chrome
+ * tracing tools (chrome://tracing).
+ *
+ * @since 5.12.1
+ *
+ */
+public final class PerformanceTrace {
+
+  /**
+   * The system property that switches tracing on at startup.
+   */
+  public static final String SYSTEM_PROPERTY_ENABLED = "activiti.designer.trace";
+
+  /**
+   * The number of events kept in the ring buffer.
+   */
+  public static final int CAPACITY = 4096;
+
+  /**
+   * The start returned by {@link #begin()} while tracing is off.
+   */
+  private static final long NOT_TRACED = Long.MIN_VALUE;
+
+  private static final long ORIGIN = System.nanoTime();
+
+  private static volatile boolean enabled = Boolean.getBoolean(SYSTEM_PROPERTY_ENABLED);
+
+  private static final TraceEvent[] EVENTS = new TraceEvent[CAPACITY];
+  private static int nextEvent;
+  private static int eventCount;
+
+  private static final Map<String, PhaseSummary> SUMMARIES = new LinkedHashMap<String, PhaseSummary>();
+
+  private PerformanceTrace() {
+
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void setEnabled(final boolean enabled) {
+    PerformanceTrace.enabled = enabled;
+  }
+
+  /**
+   * Marks the start of a phase.
+   *
+   * @return the start to pass to {@link #end(String, String, long)}
+   */
+  public static long begin() {
+    return enabled ? System.nanoTime() : NOT_TRACED;
+  }
+
+  /**
+   * Records a phase started with {@link #begin()}.
+   *
+   * @param phase
+   *          the name of the phase
+   * @param detail
+   *          what the phase worked on, e.g. the name of a file, may be null
+   * @param start
+   *          the start returned by {@link #begin()}
+   */
+  public static void end(final String phase, final String detail, final long start) {
+    if (start == NOT_TRACED) {
+      return;
+    }
+    final long end = System.nanoTime();
+    final Thread thread = Thread.currentThread();
+    record(new TraceEvent(phase, detail, thread.getId(), thread.getName(), start - ORIGIN, end - start));
+  }
+
+  private static synchronized void record(final TraceEvent event) {
+    EVENTS[nextEvent] = event;
+    nextEvent = (nextEvent + 1) % CAPACITY;
+    eventCount = Math.min(eventCount + 1, CAPACITY);
+
+    PhaseSummary summary = SUMMARIES.get(event.phase);
+    if (summary == null) {
+      summary = new PhaseSummary(event.phase);
+      SUMMARIES.put(event.phase, summary);
+    }
+    summary.add(event.durationNanos);
+  }
+
+  /**
+   * Gets the events in the ring buffer, oldest first.
+   */
+  public static synchronized List<TraceEvent> getEvents() {
+    final List<TraceEvent> result = new ArrayList<TraceEvent>(eventCount);
+    for (int i = 0; i < eventCount; i++) {
+      result.add(EVENTS[(nextEvent - eventCount + i + CAPACITY) % CAPACITY]);
+    }
+    return result;
+  }
+
+  /**
+   * Gets copies of the summaries of all phases recorded since the trace was
+   * last cleared, in the order the phases were first recorded.
+   */
+  public static synchronized List<PhaseSummary> getSummaries() {
+    final List<PhaseSummary> result = new ArrayList<PhaseSummary>(SUMMARIES.size());
+    for (final PhaseSummary summary : SUMMARIES.values()) {
+      result.add(summary.copy());
+    }
+    return result;
+  }
+
+  /**
+   * Drops all recorded events and summaries.
+   */
+  public static synchronized void clear() {
+    for (int i = 0; i < CAPACITY; i++) {
+      EVENTS[i] = null;
+    }
+    nextEvent = 0;
+    eventCount = 0;
+    SUMMARIES.clear();
+  }
+
+  /**
+   * Writes the events in the ring buffer as a Chrome trace. Every event becomes
+   * a complete event on the thread it was recorded on.
+   *
+   * @param writer
+   *          the writer to write the JSON document to
+   */
+  public static void writeChromeTrace(final Writer writer) throws IOException {
+    final List<TraceEvent> events = getEvents();
+
+    writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+    boolean first = true;
+    final Set<Long> threads = new HashSet<Long>();
+    for (final TraceEvent event : events) {
+      if (threads.add(event.threadId)) {
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+        writer.write(String.format("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":%s}}", event.threadId,
+                quote(event.threadName)));
+      }
+    }
+
+    for (final TraceEvent event : events) {
+      writer.write(first ? "\n" : ",\n");
+      first = false;
+      writer.write(String.format("{\"name\":%s,\"cat\":\"designer\",\"ph\":\"X\",\"pid\":1,\"tid\":%d,\"ts\":%d,\"dur\":%d", quote(event.phase),
+              event.threadId, event.startNanos / 1000L, Math.max(1L, event.durationNanos / 1000L)));
+      if (event.detail != null) {
+        writer.write(",\"args\":{\"detail\":" + quote(event.detail) + "}");
+      }
+      writer.write("}");
+    }
+
+    writer.write("\n]}\n");
+    writer.flush();
+  }
+
+  private static String quote(final String value) {
+    final StringBuilder result = new StringBuilder(value.length() + 2);
+    result.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+      case '"':
+        result.append("\\\"");
+        break;
+      case '\\':
+        result.append("\\\\");
+        break;
+      case '\n':
+        result.append("\\n");
+        break;
+      case '\r':
+        result.append("\\r");
+        break;
+      case '\t':
+        result.append("\\t");
+        break;
+      default:
+        if (c < 0x20) {
+          result.append(String.format("\\u%04x", (int) c));
+        } else {
+          result.append(c);
+        }
+      }
+    }
+    result.append('"');
+    return result.toString();
+  }
+
+  /**
+   * A single timed phase.
+   */
+  public static final class TraceEvent {
+
+    private final String phase;
+    private final String detail;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final long durationNanos;
+
+    private TraceEvent(final String phase, final String detail, final long threadId, final String threadName, final long startNanos,
+            final long durationNanos) {
+      this.phase = phase;
+      this.detail = detail;
+      this.threadId = threadId;
+      this.threadName = threadName;
+      this.startNanos = startNanos;
+      this.durationNanos = durationNanos;
+    }
+
+    public String getPhase() {
+      return phase;
+    }
+
+    public String getDetail() {
+      return detail;
+    }
+
+    public String getThreadName() {
+      return threadName;
+    }
+
+    /**
+     * Gets the start of the phase relative to the loading of the trace.
+     */
+    public long getStartNanos() {
+      return startNanos;
+    }
+
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+
+  }
+
+  /**
+   * The number and duration of all events of a phase.
+   */
+  public static final class PhaseSummary {
+
+    private final String phase;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    private PhaseSummary(final String phase) {
+      this.phase = phase;
+    }
+
+    private void add(final long durationNanos) {
+      count++;
+      totalNanos += durationNanos;
+      maxNanos = Math.max(maxNanos, durationNanos);
+    }
+
+    private PhaseSummary copy() {
+      final PhaseSummary result = new PhaseSummary(phase);
+      result.count = count;
+      result.totalNanos = totalNanos;
+      result.maxNanos = maxNanos;
+      return result;
+    }
+
+    public String getPhase() {
+      return phase;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+  }
+
+}
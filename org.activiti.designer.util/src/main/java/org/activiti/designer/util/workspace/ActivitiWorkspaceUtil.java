@@ -11,6 +11,10 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -18,10 +22,10 @@ import org.eclipse.core.runtime.CoreException;
 public class ActivitiWorkspaceUtil {
 
   /**
-   * A cache of all project data files and some useful cache data like process IDs within this
-   * project
+   * An index of all diagram data files in open Activiti projects and the process IDs they contain.
+   * The index is built on first use and kept up to date from workspace resource deltas afterwards.
    */
-  private static Map<IResource, CacheData> cache = new HashMap<IResource, CacheData>();
+  private static final ProcessIdIndex index = new ProcessIdIndex();
 
   /**
    * Returns a set of all open activiti projects found in the workspace.
@@ -65,48 +69,14 @@ public class ActivitiWorkspaceUtil {
   }
 
   /**
-   * Returns all found diagram data files over all open activiti projects. Additionally this method
-   * will build a cache for these data files, where for each entry all process IDs existing in the
-   * cache are saved for faster retrieval, as retrieving process IDs involves calling the
-   * {@link BpmnProcessParser}.
+   * Returns all found diagram data files over all open activiti projects. The files are taken from
+   * an index that is built once and maintained from resource deltas, so calling this method does
+   * not traverse the workspace.
    *
    * @return a set of all diagram data files in all open projects
    */
   public static final Set<IFile> getAllDiagramDataFiles() {
-    final Set<IFile> result = new HashSet<IFile>();
-    final Set<IProject> projects = ActivitiWorkspaceUtil.getOpenProjects();
-
-    for (final IProject project : projects) {
-      final DiagramDataFileFinder visitor = new DiagramDataFileFinder();
-
-      try {
-        project.accept(visitor);
-      } catch (CoreException exception) {
-        // intentionally ignored
-      }
-
-      for (final IFile resource : visitor.getResources()) {
-        result.add(resource);
-
-        CacheData cachedResourceData = cache.get(resource);
-        final long lastModified = resource.getModificationStamp();
-
-        if (cachedResourceData == null || cachedResourceData.cacheIsExpired(lastModified)) {
-          final Set<String> processIds = getProcessIds(resource);
-
-          if (cachedResourceData == null) {
-            cachedResourceData = new CacheData(processIds, lastModified);
-
-            cache.put(resource, cachedResourceData);
-          } else {
-            cachedResourceData.setProcessIds(processIds);
-            cachedResourceData.setLastModified(lastModified);
-          }
-        }
-      }
-    }
-
-    return result;
+    return index.getDataFiles();
   }
 
   /**
@@ -116,36 +86,38 @@ public class ActivitiWorkspaceUtil {
    *    all processes defined in this diagram.
    */
   public static final Map<IFile, Set<String>> getAllProcessIdsByDiagramDataFile() {
-    final Map<IFile, Set<String>> result = new HashMap<IFile, Set<String>>();
-    final Set<IFile> projectResources = getAllDiagramDataFiles();
-
-    for (final IFile projectResource : projectResources) {
-      result.put(projectResource, cache.get(projectResource).getProcessIds());
-    }
-
-    return result;
+    return index.getProcessIdsByDataFile();
   }
 
   /**
    * Returns the diagram data files that match the given process ID.
    *
    * @param processId the process ID to look for
-   * @return a set of diagram data files or <code>null</code> in case no such process ID exists in
-   *    any diagram.
+   * @return a set of diagram data files, which is empty in case no such process ID exists in any
+   *    diagram.
    */
   public static final Set<IFile> getDiagramDataFilesByProcessId(final String processId) {
-    final Set<IFile> result = new HashSet<IFile>();
-    final Set<IFile> projectResources = getAllDiagramDataFiles();
+    return index.getDataFilesByProcessId(processId);
+  }
 
-    for (final IFile resource : projectResources) {
-      final CacheData data = cache.get(resource);
+  /**
+   * Detaches the process ID index from the workspace and discards its contents. The index is
+   * rebuilt on the next lookup.
+   */
+  public static final void disposeIndex() {
+    index.dispose();
+  }
 
-      if (data.hasProcessId(processId)) {
-        result.add(resource);
-      }
+  private static boolean isActivitiProject(final IProject project) {
+    try {
+      return project.isOpen() && project.hasNature(ActivitiConstants.NATURE_ID);
+    } catch (CoreException exception) {
+      return false;
     }
+  }
 
-    return result;
+  private static boolean isDataFile(final IResource resource) {
+    return resource instanceof IFile && resource.getName().endsWith(ActivitiConstants.DATA_FILE_EXTENSION);
   }
 
   /**
@@ -169,15 +141,14 @@ public class ActivitiWorkspaceUtil {
         return false;
       }
 
-      if (resource instanceof IFile
-              && resource.getName().endsWith(ActivitiConstants.DATA_FILE_EXTENSION)) {
+      if (isDataFile(resource)) {
         visitResults.add((IFile) resource);
       }
 
       return true;
     }
 
-    private boolean isIgnoredResource(IResource resource) {
+    private static boolean isIgnoredResource(IResource resource) {
       boolean result = false;
 
       if (resource instanceof IFolder) {
@@ -198,37 +169,233 @@ public class ActivitiWorkspaceUtil {
   }
 
   /**
-   * A data cache to cache process IDs for currently open diagrams as this involves calling the
-   * {@link BpmnProcessParser}, which is rather time consuming.
+   * An index mapping diagram data files to their process IDs and vice versa. Retrieving process
+   * IDs involves calling the {@link BpmnProcessParser}, which is rather time consuming, so files
+   * reported as changed by a resource delta are only marked stale and parsed again on the next
+   * lookup.
    */
-  private static class CacheData {
+  private static class ProcessIdIndex implements IResourceChangeListener {
 
-    private Set<String> processIds;
-    private Long lastModified;
+    private final Map<IFile, Set<String>> processIdsByFile = new HashMap<IFile, Set<String>>();
+    private final Map<String, Set<IFile>> filesByProcessId = new HashMap<String, Set<IFile>>();
+    private final Set<IFile> staleFiles = new HashSet<IFile>();
 
-    public CacheData(final Set<String> bpmnIds, final Long lastModified) {
-      this.processIds = bpmnIds;
-      this.lastModified = lastModified;
+    // the indexed and stale files of each project, so changes of projects without data files
+    // do not need to look at the whole index
+    private final Map<IProject, Set<IFile>> filesByProject = new HashMap<IProject, Set<IFile>>();
+
+    private boolean initialized;
+
+    public synchronized Set<IFile> getDataFiles() {
+      ensureUpToDate();
+      return new HashSet<IFile>(processIdsByFile.keySet());
     }
 
-    public void setProcessIds(Set<String> processIds) {
-      this.processIds = processIds;
+    public synchronized Map<IFile, Set<String>> getProcessIdsByDataFile() {
+      ensureUpToDate();
+
+      final Map<IFile, Set<String>> result = new HashMap<IFile, Set<String>>();
+      for (final Map.Entry<IFile, Set<String>> entry : processIdsByFile.entrySet()) {
+        result.put(entry.getKey(), new HashSet<String>(entry.getValue()));
+      }
+      return result;
     }
 
-    public Set<String> getProcessIds() {
-      return processIds;
+    public synchronized Set<IFile> getDataFilesByProcessId(final String processId) {
+      ensureUpToDate();
+
+      final Set<IFile> files = filesByProcessId.get(processId);
+      if (files == null) {
+        return new HashSet<IFile>();
+      }
+      return new HashSet<IFile>(files);
     }
 
-    public void setLastModified(Long lastModified) {
-      this.lastModified = lastModified;
+    public synchronized void dispose() {
+      if (initialized) {
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+        initialized = false;
+      }
+      processIdsByFile.clear();
+      filesByProcessId.clear();
+      staleFiles.clear();
+      filesByProject.clear();
     }
 
-    public boolean cacheIsExpired(final Long lastModified) {
-      return this.lastModified.compareTo(lastModified) < 0;
+    @Override
+    public void resourceChanged(final IResourceChangeEvent event) {
+      final IResourceDelta delta = event.getDelta();
+      if (delta == null) {
+        return;
+      }
+
+      synchronized (this) {
+        if (!initialized) {
+          return;
+        }
+
+        try {
+          delta.accept(new IResourceDeltaVisitor() {
+
+            @Override
+            public boolean visit(final IResourceDelta childDelta) throws CoreException {
+              return applyDelta(childDelta);
+            }
+          });
+        } catch (CoreException exception) {
+          // intentionally ignored, the affected files are rescanned on the next lookup
+        }
+      }
     }
 
-    public boolean hasProcessId(final String processId) {
-      return processIds.contains(processId);
+    private boolean applyDelta(final IResourceDelta delta) {
+      final IResource resource = delta.getResource();
+
+      if (resource instanceof IProject) {
+        final IProject project = (IProject) resource;
+        final boolean openStateChanged = (delta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0;
+
+        if (delta.getKind() == IResourceDelta.REMOVED || !isActivitiProject(project)) {
+          removeProject(project);
+          return false;
+        } else if (delta.getKind() == IResourceDelta.ADDED || openStateChanged) {
+          removeProject(project);
+          addProject(project);
+          return false;
+        }
+        return true;
+      }
+
+      if (DiagramDataFileFinder.isIgnoredResource(resource)) {
+        return false;
+      }
+
+      if (isDataFile(resource)) {
+        final IFile file = (IFile) resource;
+
+        switch (delta.getKind()) {
+        case IResourceDelta.REMOVED:
+          removeFile(file);
+          break;
+        case IResourceDelta.ADDED:
+          addStaleFile(file);
+          break;
+        case IResourceDelta.CHANGED:
+          if ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+            addStaleFile(file);
+          }
+          break;
+        default:
+          break;
+        }
+        return false;
+      }
+
+      return true;
+    }
+
+    private void ensureUpToDate() {
+      if (!initialized) {
+        // listen before scanning, so changes made during the scan are not lost: the listener waits
+        // for the lock held here and applies them once the scan is done
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+        initialized = true;
+        for (final IProject project : getOpenProjects()) {
+          addProject(project);
+        }
+      }
+
+      if (!staleFiles.isEmpty()) {
+        final Set<IFile> filesToParse = new HashSet<IFile>(staleFiles);
+        staleFiles.clear();
+
+        for (final IFile file : filesToParse) {
+          removeFile(file);
+          if (file.exists()) {
+            putFile(file, getProcessIds(file));
+          }
+        }
+      }
+    }
+
+    private void addProject(final IProject project) {
+      final DiagramDataFileFinder visitor = new DiagramDataFileFinder();
+
+      try {
+        project.accept(visitor);
+      } catch (CoreException exception) {
+        // intentionally ignored
+      }
+
+      for (final IFile file : visitor.getResources()) {
+        addStaleFile(file);
+      }
+    }
+
+    private void removeProject(final IProject project) {
+      final Set<IFile> projectFiles = filesByProject.remove(project);
+      if (projectFiles == null) {
+        return;
+      }
+
+      for (final IFile file : projectFiles) {
+        removeFile(file);
+      }
+    }
+
+    private void addStaleFile(final IFile file) {
+      staleFiles.add(file);
+      addProjectFile(file);
+    }
+
+    private void addProjectFile(final IFile file) {
+      Set<IFile> projectFiles = filesByProject.get(file.getProject());
+      if (projectFiles == null) {
+        projectFiles = new HashSet<IFile>();
+        filesByProject.put(file.getProject(), projectFiles);
+      }
+      projectFiles.add(file);
+    }
+
+    private void putFile(final IFile file, final Set<String> processIds) {
+      processIdsByFile.put(file, processIds);
+      addProjectFile(file);
+
+      for (final String processId : processIds) {
+        Set<IFile> files = filesByProcessId.get(processId);
+        if (files == null) {
+          files = new HashSet<IFile>();
+          filesByProcessId.put(processId, files);
+        }
+        files.add(file);
+      }
+    }
+
+    private void removeFile(final IFile file) {
+      staleFiles.remove(file);
+
+      final Set<IFile> projectFiles = filesByProject.get(file.getProject());
+      if (projectFiles != null) {
+        projectFiles.remove(file);
+        if (projectFiles.isEmpty()) {
+          filesByProject.remove(file.getProject());
+        }
+      }
+
+      final Set<String> processIds = processIdsByFile.remove(file);
+      if (processIds == null) {
+        return;
+      }
+
+      for (final String processId : processIds) {
+        final Set<IFile> files = filesByProcessId.get(processId);
+        if (files != null) {
+          files.remove(file);
+          if (files.isEmpty()) {
+            filesByProcessId.remove(processId);
+          }
+        }
+      }
     }
 
   }
@@ -0,0 +1,299 @@
+package org.activiti.designer.validation.bpmn20.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.activiti.bpmn.BpmnAutoLayout;
+import org.activiti.bpmn.converter.BpmnXMLConverter;
+import org.activiti.bpmn.model.BpmnModel;
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.Process;
+import org.activiti.designer.validation.bpmn20.bundle.PluginConstants;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerInfo;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkers;
+import org.eclipse.core.resources.IMarker;
+
+/**
+ * Validates the BPMN files in a directory tree without a running workbench, for use in builds.
+ * The files are parsed with the {@link BpmnXMLConverter} and checked by the same validation
+ * workers the editor uses. Optionally, processes without diagram interchange information are laid
+ * out and written to an output directory. Files are processed concurrently, the results are
+ * reported in the order of the files together with the time each file took and the overall
+ * throughput.
+ *
+ * <p>
+ * The bundle jars of this plugin and the libs plugin need to be on the classpath together with
+ * commons-lang and the Graphiti and EMF model jars the worker interface refers to. Neither the
+ * Eclipse platform nor SWT are used:
+ *
+ * <pre>
+ * java -cp ... org.activiti.designer.validation.bpmn20.batch.BatchValidation [-threads n] [-layout outputDirectory] directory
+ * </pre>
+ *
+ * The exit code is 1 if a file could not be processed or has errors, 0 otherwise.
+ *
+ * @since 5.12.1
+ *
+ */
+public final class BatchValidation {
+
+  private static final String USAGE = "Usage: BatchValidation [-threads n] [-layout outputDirectory] directory";
+
+  private static final String BPMN_EXTENSION = ".bpmn";
+  private static final String BPMN20_EXTENSION = ".bpmn20.xml";
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int threads;
+  private final File layoutDirectory;
+
+  /**
+   * @param threads
+   *          the number of files to process concurrently
+   * @param layoutDirectory
+   *          the directory to write laid out processes to or null if
+   *          processes should not be laid out
+   */
+  public BatchValidation(final int threads, final File layoutDirectory) {
+    this.threads = threads;
+    this.layoutDirectory = layoutDirectory;
+  }
+
+  public static void main(final String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    File layoutDirectory = null;
+    File directory = null;
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if ("-threads".equals(args[i]) && i + 1 < args.length) {
+          threads = Math.max(1, Integer.parseInt(args[++i]));
+        } else if ("-layout".equals(args[i]) && i + 1 < args.length) {
+          layoutDirectory = new File(args[++i]);
+        } else if (directory == null && !args[i].startsWith("-")) {
+          directory = new File(args[i]);
+        } else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      directory = null;
+    }
+
+    if (directory == null || !directory.isDirectory()) {
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    // the layout uses AWT geometry only
+    System.setProperty("java.awt.headless", "true");
+
+    final boolean valid = new BatchValidation(threads, layoutDirectory).run(directory);
+    System.exit(valid ? 0 : 1);
+  }
+
+  /**
+   * Validates the BPMN files in the provided directory and its sub
+   * directories and reports the results to standard out.
+   *
+   * @param directory
+   *          the root of the directory tree
+   * @return true if all files could be processed and none of them has errors
+   */
+  public boolean run(final File directory) {
+    final List<File> files = new ArrayList<File>();
+    collectFiles(directory, files);
+    Collections.sort(files);
+
+    final long start = System.nanoTime();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final List<Future<FileResult>> futures = new ArrayList<Future<FileResult>>();
+    try {
+      for (final File file : files) {
+        futures.add(executor.submit(new Callable<FileResult>() {
+
+          @Override
+          public FileResult call() throws Exception {
+            return processFile(directory, file);
+          }
+        }));
+      }
+
+      boolean valid = true;
+      long totalBytes = 0L;
+      int errors = 0;
+      int warnings = 0;
+
+      for (final Future<FileResult> future : futures) {
+        final FileResult result;
+        try {
+          result = future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        } catch (ExecutionException e) {
+          throw new IllegalStateException(e.getCause());
+        }
+
+        totalBytes += result.bytes;
+        System.out.println(String.format("%s (%d ms)%s", result.path, result.nanos / 1000000L, result.laidOut ? " laid out" : ""));
+
+        if (result.failure != null) {
+          valid = false;
+          System.out.println(String.format("  FAILED %s", result.failure));
+        }
+        for (final ProcessValidationWorkerMarker marker : result.markers) {
+          switch (marker.getSeverity()) {
+          case IMarker.SEVERITY_ERROR:
+            errors++;
+            valid = false;
+            break;
+          case IMarker.SEVERITY_WARNING:
+            warnings++;
+            break;
+          default:
+            break;
+          }
+          System.out.println(String.format("  %s %s: " + PluginConstants.MARKER_MESSAGE_PATTERN, getSeverityName(marker.getSeverity()),
+                  marker.getNodeId(), marker.getCode().getDisplayName(), marker.getMessage()));
+        }
+      }
+
+      final double seconds = Math.max(System.nanoTime() - start, 1L) / 1000000000d;
+      System.out.println(String.format("%d files, %d errors, %d warnings in %.2f s: %.1f files/s, %.2f MB/s", files.size(), errors, warnings,
+              seconds, files.size() / seconds, totalBytes / seconds / (1024d * 1024d)));
+
+      return valid;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private FileResult processFile(final File directory, final File file) {
+    final long start = System.nanoTime();
+    final FileResult result = new FileResult(getRelativePath(directory, file), file.length());
+
+    try {
+      final BpmnModel bpmnModel = readModel(file);
+
+      for (final Process process : bpmnModel.getProcesses()) {
+        result.markers.addAll(validate(process.getFlowElements()));
+      }
+
+      if (layoutDirectory != null && bpmnModel.getLocationMap().isEmpty() && !bpmnModel.getProcesses().isEmpty()) {
+        new BpmnAutoLayout(bpmnModel).execute();
+        writeModel(bpmnModel, new File(layoutDirectory, result.path));
+        result.laidOut = true;
+      }
+    } catch (Exception e) {
+      result.failure = e.toString();
+    }
+
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  private BpmnModel readModel(final File file) throws Exception {
+    final InputStream in = new FileInputStream(file);
+    try {
+      final XMLStreamReader xtr = XMLInputFactory.newInstance().createXMLStreamReader(new InputStreamReader(in, "UTF-8"));
+      return new BpmnXMLConverter().convertToBpmnModel(xtr);
+    } finally {
+      in.close();
+    }
+  }
+
+  private void writeModel(final BpmnModel bpmnModel, final File file) throws IOException {
+    file.getParentFile().mkdirs();
+    final byte[] xml = new BpmnXMLConverter().convertToXML(bpmnModel);
+    final OutputStream out = new FileOutputStream(file);
+    try {
+      for (int offset = 0; offset < xml.length; offset += BUFFER_SIZE) {
+        out.write(xml, offset, Math.min(BUFFER_SIZE, xml.length - offset));
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  private List<ProcessValidationWorkerMarker> validate(final Collection<FlowElement> flowElements) {
+    final List<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
+    final Map<String, List<Object>> processNodes = ProcessValidationWorkers.indexProcessConstructs(flowElements);
+    for (final ProcessValidationWorkerInfo worker : ProcessValidationWorkers.createWorkers()) {
+      // the workers do not use the diagram
+      result.addAll(worker.getProcessValidationWorker().validate(processNodes));
+    }
+    return result;
+  }
+
+  private void collectFiles(final File directory, final List<File> result) {
+    final File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (final File child : children) {
+      if (child.isDirectory()) {
+        collectFiles(child, result);
+      } else if (child.getName().endsWith(BPMN_EXTENSION) || child.getName().endsWith(BPMN20_EXTENSION)) {
+        result.add(child);
+      }
+    }
+  }
+
+  private String getRelativePath(final File directory, final File file) {
+    final String directoryPath = directory.getAbsolutePath();
+    final String filePath = file.getAbsolutePath();
+    if (filePath.startsWith(directoryPath + File.separator)) {
+      return filePath.substring(directoryPath.length() + 1);
+    }
+    return file.getName();
+  }
+
+  private String getSeverityName(final int severity) {
+    switch (severity) {
+    case IMarker.SEVERITY_ERROR:
+      return "ERROR";
+    case IMarker.SEVERITY_WARNING:
+      return "WARNING";
+    default:
+      return "INFO";
+    }
+  }
+
+  private static class FileResult {
+
+    private final String path;
+    private final long bytes;
+    private final List<ProcessValidationWorkerMarker> markers = new ArrayList<ProcessValidationWorkerMarker>();
+    private String failure;
+    private boolean laidOut;
+    private long nanos;
+
+    public FileResult(final String path, final long bytes) {
+      this.path = path;
+      this.bytes = bytes;
+    }
+
+  }
+
+}
@@ -1,5 +1,6 @@
 package org.activiti.designer.validation.bpmn20.bundle;
 
+import org.activiti.designer.validation.bpmn20.validation.ValidationExecutor;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
@@ -34,6 +35,7 @@ public class Activator implements BundleActivator {
    * org.osgi.framework.BundleActivator#stop(org.osgi.framework.BundleContext)
    */
   public void stop(BundleContext bundleContext) throws Exception {
+    ValidationExecutor.shutdown();
     Activator.context = null;
   }
 
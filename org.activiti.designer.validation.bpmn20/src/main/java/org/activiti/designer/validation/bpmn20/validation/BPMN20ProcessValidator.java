@@ -3,10 +3,11 @@
  */
 package org.activiti.designer.validation.bpmn20.validation;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.activiti.designer.eclipse.extension.validation.AbstractProcessValidator;
 import org.activiti.designer.util.ActivitiConstants;
@@ -14,27 +15,26 @@ import org.activiti.designer.util.editor.ModelHandler;
 import org.activiti.designer.validation.bpmn20.bundle.PluginConstants;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerInfo;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
-import org.activiti.designer.validation.bpmn20.validation.worker.impl.ScriptTaskValidationWorker;
-import org.activiti.designer.validation.bpmn20.validation.worker.impl.SequenceFlowValidationWorker;
-import org.activiti.designer.validation.bpmn20.validation.worker.impl.ServiceTaskValidationWorker;
-import org.activiti.designer.validation.bpmn20.validation.worker.impl.SubProcessValidationWorker;
-import org.activiti.designer.validation.bpmn20.validation.worker.impl.UserTaskValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkers;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.graphiti.mm.pictograms.Diagram;
 
 /**
+ * Validates the main process of a diagram. The constructs of the process, including the ones
+ * nested in sub processes, are extracted once into an index shared by all workers. The workers
+ * only read the index and the model, so the {@link ValidationExecutor} runs them concurrently for
+ * large processes and on the calling thread for small ones. Their markers are added to the diagram
+ * afterwards, in the order of the workers.
+ * 
  * @author Tiese Barrell
  * @since 0.6.1
- * @version 2
+ * @version 3
  * 
  */
 public class BPMN20ProcessValidator extends AbstractProcessValidator {
 
-  private boolean overallResult;
-
   /**
 	 * 
 	 */
@@ -57,40 +57,67 @@ public class BPMN20ProcessValidator extends AbstractProcessValidator {
   }
 
   @Override
-  public boolean validateDiagram(Diagram diagram, IProgressMonitor monitor) {
+  public boolean validateDiagram(final Diagram diagram, IProgressMonitor monitor) {
 
-    this.overallResult = true;
+    // validators are shared, so the result is kept locally
+    boolean overallResult = true;
 
     monitor.beginTask("", PluginConstants.WORK_TOTAL);
 
-    // Clear problems for this diagram first
-    clearMarkers(getResource(diagram.eResource().getURI()));
-
-    final Map<String, List<Object>> processNodes = extractProcessConstructs(ModelHandler.getModel(EcoreUtil.getURI(diagram)).getBpmnModel().getMainProcess().getFlowElements(), 
-    		new SubProgressMonitor(monitor, PluginConstants.WORK_EXTRACT_CONSTRUCTS));
-
-    final List<ProcessValidationWorkerInfo> workers = getWorkers();
-
-    for (final ProcessValidationWorkerInfo worker : workers) {
-
-      Collection<ProcessValidationWorkerMarker> result = worker.getProcessValidationWorker().validate(diagram, processNodes);
-      if (result.size() > 0) {
-        for (final ProcessValidationWorkerMarker marker : result) {
-          final String markerMessage = String.format(PluginConstants.MARKER_MESSAGE_PATTERN, marker.getCode().getDisplayName(), marker.getMessage());
-          switch (marker.getSeverity()) {
-          case IMarker.SEVERITY_ERROR:
-            addProblemToDiagram(diagram, markerMessage, marker.getNodeId());
-            break;
-          case IMarker.SEVERITY_WARNING:
-            addWarningToDiagram(diagram, markerMessage, marker.getNodeId());
-            break;
-          case IMarker.SEVERITY_INFO:
-            addInfoToDiagram(diagram, markerMessage, marker.getNodeId());
-            break;
+    // Collect the problems for this diagram and replace the previous ones at
+    // once when done
+    beginMarkerUpdate(diagram);
+    try {
+      final Map<String, List<Object>> processNodes = ProcessValidationWorkers.indexProcessConstructs(ModelHandler.getModel(EcoreUtil.getURI(diagram))
+              .getBpmnModel().getMainProcess().getFlowElements());
+      monitor.worked(PluginConstants.WORK_EXTRACT_CONSTRUCTS);
+
+      final List<ProcessValidationWorkerInfo> workers = getWorkers();
+      final List<Future<Collection<ProcessValidationWorkerMarker>>> results = ValidationExecutor.validate(workers, processNodes);
+
+      for (int i = 0; i < workers.size(); i++) {
+
+        final Collection<ProcessValidationWorkerMarker> result;
+        try {
+          result = results.get(i).get();
+        } catch (InterruptedException e) {
+          for (final Future<Collection<ProcessValidationWorkerMarker>> pendingResult : results) {
+            pendingResult.cancel(true);
           }
+          Thread.currentThread().interrupt();
+          monitor.done();
+          return false;
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw new IllegalStateException("Validation worker failed", e.getCause());
         }
+
+        if (result.size() > 0) {
+          for (final ProcessValidationWorkerMarker marker : result) {
+            final String markerMessage = String.format(PluginConstants.MARKER_MESSAGE_PATTERN, marker.getCode().getDisplayName(), marker.getMessage());
+            switch (marker.getSeverity()) {
+            case IMarker.SEVERITY_ERROR:
+              addProblemToDiagram(diagram, markerMessage, marker.getNodeId());
+              overallResult = false;
+              break;
+            case IMarker.SEVERITY_WARNING:
+              addWarningToDiagram(diagram, markerMessage, marker.getNodeId());
+              break;
+            case IMarker.SEVERITY_INFO:
+              addInfoToDiagram(diagram, markerMessage, marker.getNodeId());
+              break;
+            }
+          }
+        }
+        monitor.worked(workers.get(i).getWork());
       }
-      monitor.worked(worker.getWork());
+
+      commitMarkerUpdate();
+    } finally {
+      // does nothing once committed, otherwise the previous markers are kept
+      discardMarkerUpdate();
     }
 
     monitor.done();
@@ -98,23 +125,7 @@ public class BPMN20ProcessValidator extends AbstractProcessValidator {
   }
 
   private List<ProcessValidationWorkerInfo> getWorkers() {
-
-    List<ProcessValidationWorkerInfo> result = new ArrayList<ProcessValidationWorkerInfo>();
-
-    result.add(new ProcessValidationWorkerInfo(new UserTaskValidationWorker(), PluginConstants.WORK_USER_TASK));
-    result.add(new ProcessValidationWorkerInfo(new ScriptTaskValidationWorker(), PluginConstants.WORK_SCRIPT_TASK));
-    result.add(new ProcessValidationWorkerInfo(new ServiceTaskValidationWorker(), PluginConstants.WORK_SERVICE_TASK));
-    result.add(new ProcessValidationWorkerInfo(new SequenceFlowValidationWorker(), PluginConstants.WORK_SEQUENCE_FLOW));
-    result.add(new ProcessValidationWorkerInfo(new SubProcessValidationWorker(), PluginConstants.WORK_SUB_PROCESS));
-
-    return result;
-
-  }
-
-  @Override
-  protected void addProblemToDiagram(Diagram diagram, String message, String nodeId) {
-    super.addProblemToDiagram(diagram, message, nodeId);
-    overallResult = false;
+    return ProcessValidationWorkers.createWorkers();
   }
 
 }
@@ -0,0 +1,140 @@
+package org.activiti.designer.validation.bpmn20.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.activiti.designer.util.trace.PerformanceTrace;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerInfo;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
+import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkers;
+
+/**
+ * Runs validation workers concurrently on a bounded pool of daemon threads shared by all
+ * validations. Threads are only kept while there is work, idle threads terminate after a short
+ * time. Validating a small process takes less time than handing its workers to the pool, so
+ * below {@link #PARALLEL_THRESHOLD} process constructs the workers are run on the calling thread.
+ *
+ * @since 5.12.1
+ *
+ */
+public final class ValidationExecutor {
+
+  private static final int MAX_THREADS = 4;
+  private static final long KEEP_ALIVE_SECONDS = 30L;
+
+  /**
+   * The number of process constructs from which the workers are run on the
+   * pool. The validation workers take about 100 microseconds for 11,000
+   * constructs on one thread, while handing them to the pool and waiting for
+   * them costs about 20 microseconds, see the ValidationBenchmark.
+   */
+  public static final int PARALLEL_THRESHOLD = 5000;
+
+  private static ThreadPoolExecutor executor;
+
+  private ValidationExecutor() {
+
+  }
+
+  /**
+   * Runs the workers on the provided index of the constructs of a process: on
+   * the pool if the process has at least {@link #PARALLEL_THRESHOLD}
+   * constructs, otherwise one after another on the calling thread.
+   *
+   * @param workers
+   *          the workers to run
+   * @param processNodes
+   *          the index of the process constructs, shared by the workers
+   * @return the futures holding the markers of the workers, in the order of
+   *         the workers
+   */
+  public static List<Future<Collection<ProcessValidationWorkerMarker>>> validate(final List<ProcessValidationWorkerInfo> workers,
+          final Map<String, List<Object>> processNodes) {
+    final boolean parallel = ProcessValidationWorkers.countProcessConstructs(processNodes) >= PARALLEL_THRESHOLD;
+
+    final List<Future<Collection<ProcessValidationWorkerMarker>>> result = new ArrayList<Future<Collection<ProcessValidationWorkerMarker>>>();
+    for (final ProcessValidationWorkerInfo worker : workers) {
+      final ProcessValidationWorker processValidationWorker = worker.getProcessValidationWorker();
+      final Callable<Collection<ProcessValidationWorkerMarker>> task = new Callable<Collection<ProcessValidationWorkerMarker>>() {
+
+        @Override
+        public Collection<ProcessValidationWorkerMarker> call() throws Exception {
+          final long start = PerformanceTrace.begin();
+          try {
+            return processValidationWorker.validate(processNodes);
+          } finally {
+            PerformanceTrace.end("Validation worker", processValidationWorker.getClass().getSimpleName(), start);
+          }
+        }
+      };
+      result.add(parallel ? submit(task) : run(task));
+    }
+    return result;
+  }
+
+  /**
+   * Submits a worker for execution.
+   *
+   * @param task
+   *          the worker to run
+   * @return the future holding the result of the worker
+   */
+  public static synchronized <T> Future<T> submit(final Callable<T> task) {
+    if (executor == null) {
+      final int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+      executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+              new ValidationThreadFactory());
+      executor.allowCoreThreadTimeOut(true);
+    }
+    return executor.submit(task);
+  }
+
+  /**
+   * Runs a worker on the calling thread, for processes below the
+   * {@link #PARALLEL_THRESHOLD}.
+   *
+   * @param task
+   *          the worker to run
+   * @return the completed future holding the result of the worker
+   */
+  public static <T> Future<T> run(final Callable<T> task) {
+    final FutureTask<T> result = new FutureTask<T>(task);
+    result.run();
+    return result;
+  }
+
+  /**
+   * Stops the threads of the pool. Workers still waiting are not run anymore.
+   */
+  public static synchronized void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  private static class ValidationThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, "BPMN 2.0 Validation " + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
+}
@@ -4,8 +4,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
-import org.eclipse.graphiti.mm.pictograms.Diagram;
-
 /**
  * 
  * Interface for validation workers.
@@ -16,6 +14,6 @@ import org.eclipse.graphiti.mm.pictograms.Diagram;
  */
 public interface ProcessValidationWorker {
 
-  Collection<ProcessValidationWorkerMarker> validate(Diagram diagram, Map<String, List<Object>> processNodes);
+  Collection<ProcessValidationWorkerMarker> validate(Map<String, List<Object>> processNodes);
 
 }
@@ -0,0 +1,91 @@
+package org.activiti.designer.validation.bpmn20.validation.worker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.activiti.bpmn.model.FlowElement;
+import org.activiti.bpmn.model.SubProcess;
+import org.activiti.designer.validation.bpmn20.bundle.PluginConstants;
+import org.activiti.designer.validation.bpmn20.validation.worker.impl.ScriptTaskValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.impl.SequenceFlowValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.impl.ServiceTaskValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.impl.SubProcessValidationWorker;
+import org.activiti.designer.validation.bpmn20.validation.worker.impl.UserTaskValidationWorker;
+
+/**
+ * The validation workers that make up the BPMN 2.0 validation, shared by the validator used in
+ * the editor and the headless batch validation. Neither the workers nor this class depend on a
+ * running workbench.
+ *
+ * @since 5.12.1
+ *
+ */
+public final class ProcessValidationWorkers {
+
+  private ProcessValidationWorkers() {
+
+  }
+
+  /**
+   * Creates the workers in the order their markers are reported.
+   */
+  public static List<ProcessValidationWorkerInfo> createWorkers() {
+
+    List<ProcessValidationWorkerInfo> result = new ArrayList<ProcessValidationWorkerInfo>();
+
+    result.add(new ProcessValidationWorkerInfo(new UserTaskValidationWorker(), PluginConstants.WORK_USER_TASK));
+    result.add(new ProcessValidationWorkerInfo(new ScriptTaskValidationWorker(), PluginConstants.WORK_SCRIPT_TASK));
+    result.add(new ProcessValidationWorkerInfo(new ServiceTaskValidationWorker(), PluginConstants.WORK_SERVICE_TASK));
+    result.add(new ProcessValidationWorkerInfo(new SequenceFlowValidationWorker(), PluginConstants.WORK_SEQUENCE_FLOW));
+    result.add(new ProcessValidationWorkerInfo(new SubProcessValidationWorker(), PluginConstants.WORK_SUB_PROCESS));
+
+    return result;
+  }
+
+  /**
+   * Indexes the provided flow elements and the elements nested in their sub
+   * processes by the canonical name of their class, the way the workers expect
+   * them. The resulting map and its lists cannot be modified, so the workers
+   * can share them.
+   */
+  public static Map<String, List<Object>> indexProcessConstructs(final Collection<FlowElement> flowElements) {
+    final Map<String, List<Object>> index = new HashMap<String, List<Object>>();
+    addProcessConstructs(flowElements, index);
+
+    final Map<String, List<Object>> result = new HashMap<String, List<Object>>();
+    for (final Map.Entry<String, List<Object>> entry : index.entrySet()) {
+      result.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Counts the process constructs in the provided index.
+   */
+  public static int countProcessConstructs(final Map<String, List<Object>> processNodes) {
+    int result = 0;
+    for (final List<Object> nodes : processNodes.values()) {
+      result += nodes.size();
+    }
+    return result;
+  }
+
+  private static void addProcessConstructs(final Collection<FlowElement> flowElements, final Map<String, List<Object>> index) {
+    for (final FlowElement flowElement : flowElements) {
+      final String nodeType = flowElement.getClass().getCanonicalName();
+      if (!index.containsKey(nodeType)) {
+        index.put(nodeType, new ArrayList<Object>());
+      }
+      index.get(nodeType).add(flowElement);
+
+      if (flowElement instanceof SubProcess) {
+        addProcessConstructs(((SubProcess) flowElement).getFlowElements(), index);
+      }
+    }
+  }
+
+}
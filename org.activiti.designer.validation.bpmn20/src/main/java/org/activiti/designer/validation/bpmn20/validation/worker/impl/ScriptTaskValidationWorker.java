@@ -9,7 +9,6 @@ import org.activiti.bpmn.model.ScriptTask;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorker;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
 import org.eclipse.core.resources.IMarker;
-import org.eclipse.graphiti.mm.pictograms.Diagram;
 
 /**
  * Validates process according to {@link ValidationCode#VAL_002} and
@@ -25,7 +24,7 @@ public class ScriptTaskValidationWorker implements ProcessValidationWorker {
   private static final String NO_SCRIPT_EXCEPTION_MESSAGE_PATTERN = "ScriptTask '%s' has no format specified";
 
   @Override
-  public Collection<ProcessValidationWorkerMarker> validate(final Diagram diagram, final Map<String, List<Object>> processNodes) {
+  public Collection<ProcessValidationWorkerMarker> validate(final Map<String, List<Object>> processNodes) {
 
     final Collection<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
 
@@ -10,7 +10,6 @@ import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidati
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.resources.IMarker;
-import org.eclipse.graphiti.mm.pictograms.Diagram;
 
 /**
  * Validates process according to {@link ValidationCode#VAL_005} and
@@ -26,7 +25,7 @@ public class SequenceFlowValidationWorker implements ProcessValidationWorker {
   private static final String NO_TARGET_ACTIVITY_EXCEPTION_MESSAGE_PATTERN = "SequenceFlow '%s' has no target activity";
 
   @Override
-  public Collection<ProcessValidationWorkerMarker> validate(final Diagram diagram, final Map<String, List<Object>> processNodes) {
+  public Collection<ProcessValidationWorkerMarker> validate(final Map<String, List<Object>> processNodes) {
 
     final Collection<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
 
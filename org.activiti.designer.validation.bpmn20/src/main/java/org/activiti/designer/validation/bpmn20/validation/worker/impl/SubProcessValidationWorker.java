@@ -8,7 +8,6 @@ import java.util.Map;
 import org.activiti.bpmn.model.SubProcess;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorker;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
-import org.eclipse.graphiti.mm.pictograms.Diagram;
 
 /**
  * Validates process according to {@link ValidationCode#VAL_001}.
@@ -20,7 +19,7 @@ import org.eclipse.graphiti.mm.pictograms.Diagram;
 public class SubProcessValidationWorker implements ProcessValidationWorker {
 
   @Override
-  public Collection<ProcessValidationWorkerMarker> validate(final Diagram diagram, final Map<String, List<Object>> processNodes) {
+  public Collection<ProcessValidationWorkerMarker> validate(final Map<String, List<Object>> processNodes) {
 
     final Collection<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
 
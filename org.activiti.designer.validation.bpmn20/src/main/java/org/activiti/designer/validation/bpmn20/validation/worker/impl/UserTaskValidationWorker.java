@@ -9,7 +9,6 @@ import org.activiti.bpmn.model.UserTask;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorker;
 import org.activiti.designer.validation.bpmn20.validation.worker.ProcessValidationWorkerMarker;
 import org.eclipse.core.resources.IMarker;
-import org.eclipse.graphiti.mm.pictograms.Diagram;
 
 /**
  * Validates process according to {@link ValidationCode#VAL_001}.
@@ -23,7 +22,7 @@ public class UserTaskValidationWorker implements ProcessValidationWorker {
   private static final String POTENTIAL_OWNER_EXCEPTION_MESSAGE_PATTERN = "UserTask '%s' has no assignee, candidate users, candidate groups set";
 
   @Override
-  public Collection<ProcessValidationWorkerMarker> validate(final Diagram diagram, final Map<String, List<Object>> processNodes) {
+  public Collection<ProcessValidationWorkerMarker> validate(final Map<String, List<Object>> processNodes) {
 
     final Collection<ProcessValidationWorkerMarker> result = new ArrayList<ProcessValidationWorkerMarker>();
 